@@ -1,10 +1,61 @@
 package com.celcoin.disbursement.adapter;
 
-import com.celcoin.disbursement.model.dto.DisbursementDto;
-import com.celcoin.disbursement.model.dto.DisbursementResponse;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @FunctionalInterface
 public interface DisbursementChannelAdapter {
     void send(DisbursementStep step);
+
+    /**
+     * Variante assíncrona do {@link #send}: a chamada ao gateway roda no executor informado,
+     * liberando a thread do listener enquanto espera a resposta.
+     */
+    default CompletableFuture<Void> sendAsync(DisbursementStep step, Executor executor) {
+        return CompletableFuture.runAsync(() -> send(step), executor);
+    }
+
+    /**
+     * Envia vários steps do canal em uma única chamada ao gateway, sem gravar o externalId (quem chama grava todos de uma vez).
+     * Cada resposta traz o id do step em {@code clientRequestId}; itens sem {@code externalId} foram recusados.
+     * A implementação padrão envia um a um pelo {@link #send}, que já grava cada externalId. Veja {@link #sendOneByOne}.
+     */
+    default List<ExternalRequestResponse> sendBatch(List<DisbursementStep> steps) {
+        return sendOneByOne(steps, this::send);
+    }
+
+    /**
+     * Envio em lote para canais sem chamada em lote: um step por vez, parando na primeira falha.
+     * Os steps já enviados mantêm o seu resultado, e o step com falha e os seguintes voltam sem externalId e com
+     * status PENDING (resultado desconhecido, podem ser reenviados). Só uma falha no primeiro step é relançada,
+     * porque nada foi enviado e o lote inteiro pode ser retentado.
+     */
+    static List<ExternalRequestResponse> sendOneByOne(List<DisbursementStep> steps, Consumer<DisbursementStep> send) {
+        List<ExternalRequestResponse> responses = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            DisbursementStep step = steps.get(i);
+            try {
+                send.accept(step);
+            } catch (RuntimeException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                responses.add(new ExternalRequestResponse(step.getId(), null, StepStatus.PENDING, e.getMessage()));
+                for (DisbursementStep notSent : steps.subList(i + 1, steps.size())) {
+                    responses.add(new ExternalRequestResponse(notSent.getId(), null, StepStatus.PENDING,
+                            "Não enviado: falha no step " + step.getId()));
+                }
+                return responses;
+            }
+            responses.add(new ExternalRequestResponse(step.getId(), step.getExternalId(), StepStatus.PROCESSING, null));
+        }
+        return responses;
+    }
 }
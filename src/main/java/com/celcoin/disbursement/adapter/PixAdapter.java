@@ -1,19 +1,31 @@
 package com.celcoin.disbursement.adapter;
 
+import com.celcoin.disbursement.config.ChannelHttpClientConfig;
 import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.dto.BatchItem;
 import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.dto.pix.PixRequest;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.celcoin.disbursement.service.StepPayloadCodec;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -21,40 +33,121 @@ public class PixAdapter implements DisbursementChannelAdapter {
     
     private static final Logger logger = LoggerFactory.getLogger(PixAdapter.class);
 
-    private final RestTemplate restTemplate;
+    private final RestClient restClient;
+
+    // Sem URL configurada o envio é simulado (externalId gerado localmente)
+    private final boolean simulated;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private StepPayloadCodec payloadCodec;
 
     @Autowired
     private DisbursementStepRepository stepRepository;
 
-    public PixAdapter() {
-        this.restTemplate = new RestTemplate();
+    public PixAdapter(@Qualifier(ChannelHttpClientConfig.PIX_REST_CLIENT) RestClient restClient,
+                      @Value("${disbursement.channel.pix.base-url:}") String baseUrl) {
+        this.restClient = restClient;
+        this.simulated = baseUrl.isBlank();
     }
 
     @Override
     public void send(DisbursementStep step) {
         try {
-            DisbursementStepRequest stepRequest = objectMapper.readValue(step.getPayload(), DisbursementStepRequest.class);
-            PixRequest pixRequest = new PixRequest(
-                    stepRequest.amount(),
-                    step.getBatch().getClientCode(),
-                    stepRequest.creditParty(),
-                    stepRequest.initiationType());
+            PixRequest pixRequest = toPixRequest(step);
 
             logger.info("Enviando requisiçao PIX para clientCode {}", step.getBatch().getClientCode());
-            //restTemplate.postForEntity("") Aqui faríamos um fetch dos dados do cliente do banco para fazer a requisição
-            // poderíamos também usar webClient para fazer a chamada http
-
-            // na resposta, acredito que obteríamos um externalId para guardar a transação
-            // vou simular esse Id gerando ele de forma randômica
-            step.setExternalId(UUID.randomUUID().toString());
-            step.setUpdatedAt(LocalDateTime.now());
+            step.setExternalId(simulated ? UUID.randomUUID().toString() : requestPayment(pixRequest, step.getTraceId()));
+            LocalDateTime now = LocalDateTime.now();
+            step.setUpdatedAt(now);
+            step.setSentAt(now);
             stepRepository.saveAndFlush(step);
         } catch (JsonProcessingException e) {
             logger.error("Erro ao serializar paylaod {}", step.getPayload());
             throw new DisbursementProcessingException("VLP048", "Transação não concluída, cheque suas informações");
         }
     }
+
+    @Override
+    public List<ExternalRequestResponse> sendBatch(List<DisbursementStep> steps) {
+        List<ExternalRequestResponse> responses = new ArrayList<>(steps.size());
+        List<BatchItem<PixRequest>> items = new ArrayList<>(steps.size());
+        for (DisbursementStep step : steps) {
+            try {
+                items.add(new BatchItem<>(step.getId(), step.getTraceId(), toPixRequest(step)));
+            } catch (JsonProcessingException e) {
+                logger.error("Erro ao serializar paylaod {}", step.getPayload());
+                responses.add(new ExternalRequestResponse(step.getId(), null, StepStatus.FAILED, "Transação não concluída, cheque suas informações"));
+            }
+        }
+        if (items.isEmpty()) {
+            return responses;
+        }
+
+        logger.info("Enviando lote de {} requisições PIX", items.size());
+        if (simulated) {
+            items.forEach(item -> responses.add(new ExternalRequestResponse(item.stepId(), UUID.randomUUID().toString(), StepStatus.PROCESSING, null)));
+        } else {
+            responses.addAll(requestPayments(items));
+        }
+        return responses;
+    }
+
+    private PixRequest toPixRequest(DisbursementStep step) throws JsonProcessingException {
+        DisbursementStepRequest stepRequest = payloadCodec.decode(step);
+        return new PixRequest(
+                stepRequest.amount(),
+                step.getBatch().getClientCode(),
+                stepRequest.creditParty(),
+                stepRequest.initiationType());
+    }
+
+    private List<ExternalRequestResponse> requestPayments(List<BatchItem<PixRequest>> items) {
+        try {
+            String traceId = TraceContext.common(items.stream().map(BatchItem::traceId).toList());
+            ExternalRequestResponse[] responses = restClient.post()
+                    .uri("/pix/payments/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (traceId != null) {
+                            headers.set(TraceContext.HEADER, traceId);
+                        }
+                    })
+                    .body(items)
+                    .retrieve()
+                    .body(ExternalRequestResponse[].class);
+
+            if (responses == null) {
+                throw new DisbursementProcessingException("503", "Gateway PIX não retornou o resultado do lote");
+            }
+            return Arrays.asList(responses);
+        } catch (RestClientException e) {
+            logger.error("Erro na chamada em lote ao gateway PIX ({} itens)", items.size(), e);
+            throw new DisbursementProcessingException("503", "Gateway PIX indisponível", e);
+        }
+    }
+
+    // O gateway responde de forma síncrona com o externalId; o status final chega depois pelo webhook
+    private String requestPayment(PixRequest pixRequest, String traceId) {
+        try {
+            ExternalRequestResponse response = restClient.post()
+                    .uri("/pix/payments")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (traceId != null) {
+                            headers.set(TraceContext.HEADER, traceId);
+                        }
+                    })
+                    .body(pixRequest)
+                    .retrieve()
+                    .body(ExternalRequestResponse.class);
+
+            if (response == null || response.externalId() == null) {
+                throw new DisbursementProcessingException("503", "Gateway PIX não retornou o id da transação");
+            }
+            return response.externalId();
+        } catch (RestClientException e) {
+            logger.error("Erro na chamada ao gateway PIX para clientCode {}", pixRequest.clientRequestId(), e);
+            throw new DisbursementProcessingException("503", "Gateway PIX indisponível", e);
+        }
+    }
 }
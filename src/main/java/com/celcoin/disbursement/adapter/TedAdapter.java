@@ -1,39 +1,147 @@
 package com.celcoin.disbursement.adapter;
 
+import com.celcoin.disbursement.config.ChannelHttpClientConfig;
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.dto.BatchItem;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.dto.ted.TedRequest;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.celcoin.disbursement.service.StepPayloadCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @Component
 public class TedAdapter implements DisbursementChannelAdapter {
     private static final Logger logger = LoggerFactory.getLogger(TedAdapter.class);
 
-    private final RestTemplate restTemplate;
+    private final RestClient restClient;
+
+    // Sem URL configurada o envio é simulado (externalId gerado localmente)
+    private final boolean simulated;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private StepPayloadCodec payloadCodec;
 
     @Autowired
     private DisbursementStepRepository stepRepository;
 
-    public TedAdapter() {
-        this.restTemplate = new RestTemplate();
+    public TedAdapter(@Qualifier(ChannelHttpClientConfig.TED_REST_CLIENT) RestClient restClient,
+                      @Value("${disbursement.channel.ted.base-url:}") String baseUrl) {
+        this.restClient = restClient;
+        this.simulated = baseUrl.isBlank();
     }
 
     @Override
     public void send(DisbursementStep step) {
         //Veja PixAdapter
         logger.info("Enviando requisiçao TED para clientCode {}", step.getBatch().getClientCode());
-        step.setExternalId(UUID.randomUUID().toString());
-        step.setUpdatedAt(LocalDateTime.now());
+        step.setExternalId(simulated ? UUID.randomUUID().toString() : requestTransfer(step));
+        LocalDateTime now = LocalDateTime.now();
+        step.setUpdatedAt(now);
+        step.setSentAt(now);
         stepRepository.saveAndFlush(step);
     }
+
+    @Override
+    public List<ExternalRequestResponse> sendBatch(List<DisbursementStep> steps) {
+        //Veja PixAdapter
+        List<ExternalRequestResponse> responses = new ArrayList<>(steps.size());
+        List<BatchItem<TedRequest>> items = new ArrayList<>(steps.size());
+        for (DisbursementStep step : steps) {
+            try {
+                items.add(new BatchItem<>(step.getId(), step.getTraceId(), toTedRequest(step)));
+            } catch (JsonProcessingException e) {
+                logger.error("Erro ao serializar paylaod {}", step.getPayload());
+                responses.add(new ExternalRequestResponse(step.getId(), null, StepStatus.FAILED, "Transação não concluída, cheque suas informações"));
+            }
+        }
+        if (items.isEmpty()) {
+            return responses;
+        }
+
+        logger.info("Enviando lote de {} requisições TED", items.size());
+        if (simulated) {
+            items.forEach(item -> responses.add(new ExternalRequestResponse(item.stepId(), UUID.randomUUID().toString(), StepStatus.PROCESSING, null)));
+        } else {
+            responses.addAll(requestTransfers(items));
+        }
+        return responses;
+    }
+
+    private TedRequest toTedRequest(DisbursementStep step) throws JsonProcessingException {
+        DisbursementStepRequest stepRequest = payloadCodec.decode(step);
+        return new TedRequest(stepRequest.amount(), step.getBatch().getClientCode(), stepRequest.creditParty());
+    }
+
+    private List<ExternalRequestResponse> requestTransfers(List<BatchItem<TedRequest>> items) {
+        try {
+            String traceId = TraceContext.common(items.stream().map(BatchItem::traceId).toList());
+            ExternalRequestResponse[] responses = restClient.post()
+                    .uri("/ted/transfers/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (traceId != null) {
+                            headers.set(TraceContext.HEADER, traceId);
+                        }
+                    })
+                    .body(items)
+                    .retrieve()
+                    .body(ExternalRequestResponse[].class);
+
+            if (responses == null) {
+                throw new DisbursementProcessingException("503", "Gateway TED não retornou o resultado do lote");
+            }
+            return Arrays.asList(responses);
+        } catch (RestClientException e) {
+            logger.error("Erro na chamada em lote ao gateway TED ({} itens)", items.size(), e);
+            throw new DisbursementProcessingException("503", "Gateway TED indisponível", e);
+        }
+    }
+
+    private String requestTransfer(DisbursementStep step) {
+        try {
+            TedRequest tedRequest = toTedRequest(step);
+
+            ExternalRequestResponse response = restClient.post()
+                    .uri("/ted/transfers")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (step.getTraceId() != null) {
+                            headers.set(TraceContext.HEADER, step.getTraceId());
+                        }
+                    })
+                    .body(tedRequest)
+                    .retrieve()
+                    .body(ExternalRequestResponse.class);
+
+            if (response == null || response.externalId() == null) {
+                throw new DisbursementProcessingException("503", "Gateway TED não retornou o id da transação");
+            }
+            return response.externalId();
+        } catch (JsonProcessingException e) {
+            logger.error("Erro ao serializar paylaod {}", step.getPayload());
+            throw new DisbursementProcessingException("VLP048", "Transação não concluída, cheque suas informações");
+        } catch (RestClientException e) {
+            logger.error("Erro na chamada ao gateway TED para clientCode {}", step.getBatch().getClientCode(), e);
+            throw new DisbursementProcessingException("503", "Gateway TED indisponível", e);
+        }
+    }
 }
@@ -4,12 +4,25 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class BeanConfig {
 
+    public static final String SCHEDULER_EXECUTOR = "schedulerExecutor";
+
     @Bean
     public Clock clock() {
         return Clock.systemDefaultZone();
     }
+
+    /**
+     * Executor dos workers do {@code DisbursementSchedulerService}: uma virtual thread por worker, limitada
+     * pelo {@code disbursement.scheduler.workers}.
+     */
+    @Bean(name = SCHEDULER_EXECUTOR, destroyMethod = "close")
+    public ExecutorService schedulerExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-scheduler-", 0).factory());
+    }
 }
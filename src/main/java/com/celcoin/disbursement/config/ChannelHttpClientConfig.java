@@ -0,0 +1,111 @@
+package com.celcoin.disbursement.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Clientes HTTP dos canais de pagamento. Cada canal tem seu próprio pool de conexões (keep-alive) e seus próprios
+ * timeouts e limites por host, para que um gateway lento não consuma as conexões do outro.
+ */
+@Configuration
+public class ChannelHttpClientConfig {
+
+    public static final String PIX_REST_CLIENT = "pixRestClient";
+    public static final String TED_REST_CLIENT = "tedRestClient";
+    public static final String PIX_HTTP_CLIENT = "pixHttpClient";
+    public static final String TED_HTTP_CLIENT = "tedHttpClient";
+    public static final String CHANNEL_EXECUTOR = "channelExecutor";
+
+    /**
+     * Cliente HTTP do canal PIX. Fechar o cliente encerra o pool de conexões e a thread de limpeza das conexões ociosas.
+     */
+    @Bean(name = PIX_HTTP_CLIENT, destroyMethod = "close")
+    public CloseableHttpClient pixHttpClient(@Value("${disbursement.channel.pix.connect-timeout:PT2S}") Duration connectTimeout,
+                                             @Value("${disbursement.channel.pix.read-timeout:PT5S}") Duration readTimeout,
+                                             @Value("${disbursement.channel.pix.pool-timeout:PT1S}") Duration poolTimeout,
+                                             @Value("${disbursement.channel.pix.max-connections:200}") int maxConnections,
+                                             @Value("${disbursement.channel.pix.max-connections-per-route:100}") int maxConnectionsPerRoute) {
+        return buildHttpClient(connectTimeout, readTimeout, poolTimeout, maxConnections, maxConnectionsPerRoute);
+    }
+
+    @Bean(name = TED_HTTP_CLIENT, destroyMethod = "close")
+    public CloseableHttpClient tedHttpClient(@Value("${disbursement.channel.ted.connect-timeout:PT2S}") Duration connectTimeout,
+                                             @Value("${disbursement.channel.ted.read-timeout:PT10S}") Duration readTimeout,
+                                             @Value("${disbursement.channel.ted.pool-timeout:PT1S}") Duration poolTimeout,
+                                             @Value("${disbursement.channel.ted.max-connections:50}") int maxConnections,
+                                             @Value("${disbursement.channel.ted.max-connections-per-route:25}") int maxConnectionsPerRoute) {
+        return buildHttpClient(connectTimeout, readTimeout, poolTimeout, maxConnections, maxConnectionsPerRoute);
+    }
+
+    @Bean(name = PIX_REST_CLIENT)
+    public RestClient pixRestClient(@Qualifier(PIX_HTTP_CLIENT) CloseableHttpClient httpClient,
+                                    @Value("${disbursement.channel.pix.base-url:}") String baseUrl) {
+        return buildRestClient(httpClient, baseUrl);
+    }
+
+    @Bean(name = TED_REST_CLIENT)
+    public RestClient tedRestClient(@Qualifier(TED_HTTP_CLIENT) CloseableHttpClient httpClient,
+                                    @Value("${disbursement.channel.ted.base-url:}") String baseUrl) {
+        return buildRestClient(httpClient, baseUrl);
+    }
+
+    /**
+     * Executor para os envios assíncronos aos canais ({@code sendAsync}): uma virtual thread por chamada,
+     * limitada na prática pelo pool de conexões de cada canal.
+     */
+    @Bean(name = CHANNEL_EXECUTOR, destroyMethod = "close")
+    public ExecutorService channelExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("channel-", 0).factory());
+    }
+
+    /**
+     * Cria o cliente HTTP com pool de conexões próprio; quem cria é responsável por fechá-lo.
+     */
+    public static CloseableHttpClient buildHttpClient(Duration connectTimeout, Duration readTimeout, Duration poolTimeout,
+                                                      int maxConnections, int maxConnectionsPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
+    public static RestClient buildRestClient(CloseableHttpClient httpClient, String baseUrl) {
+        RestClient.Builder builder = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+        if (!baseUrl.isBlank()) {
+            builder.baseUrl(baseUrl);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.celcoin.disbursement.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
+    public static final String REQUEST_LISTENER_FACTORY = "requestKafkaListenerContainerFactory";
+
+    // Mesma política do @CustomKafkaListener: 4 tentativas (1 + 3 retentativas), 2s com multiplicador 2, depois DLT
+    private static final int MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF_MS = 2000L;
+    private static final double BACKOFF_MULTIPLIER = 2.0;
+    private static final String DLT_SUFFIX = ".DLT";
+
+    /**
+     * Factory dos listeners de requisição por registro (e dos seus tópicos de retry). Com ack manual o listener pode
+     * devolver ao tópico, com {@code nack}, um registro recusado pelo circuit breaker ou bulkhead sem gastar uma
+     * tentativa do {@code @RetryableTopic}.
+     */
+    @Bean(REQUEST_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> requestKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Factory para listeners que recebem o poll inteiro como {@code List}. O listener aponta o registro com falha
+     * via {@link org.springframework.kafka.listener.BatchListenerFailedException}: os registros anteriores têm o
+     * offset confirmado, o registro com falha é retentado com backoff e, esgotadas as tentativas, vai para o DLT.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(MAX_RETRIES);
+        backOff.setInitialInterval(INITIAL_BACKOFF_MS);
+        backOff.setMultiplier(BACKOFF_MULTIPLIER);
+
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
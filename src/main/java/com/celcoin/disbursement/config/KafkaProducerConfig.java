@@ -19,12 +19,35 @@ public class KafkaProducerConfig {
     @Value(value = "${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
+    // Tuning de pipeline: quanto tempo o produtor agrupa mensagens e quanta memória pode segurar sem ack
+    @Value("${disbursement.publisher.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${disbursement.publisher.batch-size-bytes:65536}")
+    private int batchSizeBytes;
+
+    @Value("${disbursement.publisher.buffer-memory-bytes:33554432}")
+    private long bufferMemoryBytes;
+
+    @Value("${disbursement.publisher.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    @Value("${disbursement.publisher.compression-type:lz4}")
+    private String compressionType;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSizeBytes);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemoryBytes);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -32,4 +55,4 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,78 @@
 package com.celcoin.disbursement.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+import java.time.Duration;
+
 @Configuration
 public class KafkaTopicConfig {
     public static final String PIX_REQUEST_TOPIC = "disbursement-requests-pix";
     public static final String TED_REQUEST_TOPIC = "disbursement-requests-ted";
     public static final String TED_RESPONSE_TOPIC = "disbursement-responses-ted";
     public static final String DEAD_LETTER_TOPIC = "disbursement-requests.DLT";
+    public static final String BATCH_CACHE_INVALIDATION_TOPIC = "disbursement-batch-cache-invalidations";
+    public static final String BATCH_PROGRESS_TOPIC = "disbursement-batch-progress";
+
+    // Aumentar o número de partições de um tópico existente muda o mapeamento chave -> partição;
+    // mensagens já enfileiradas de um mesmo lote podem ser processadas fora de ordem durante a transição.
+    @Value("${disbursement.kafka.request-topic-partitions:12}")
+    private int requestTopicPartitions;
+
+    @Value("${disbursement.kafka.response-topic-partitions:3}")
+    private int responseTopicPartitions;
+
+    @Value("${disbursement.kafka.replicas:1}")
+    private int replicas;
+
+    @Value("${disbursement.status-cache.invalidation-retention:PT1H}")
+    private Duration invalidationRetention;
+
+    @Value("${disbursement.batch-events.retention:PT10M}")
+    private Duration progressRetention;
 
     @Bean
     public NewTopic pixRequestTopic() {
-        return TopicBuilder.name(PIX_REQUEST_TOPIC).partitions(3).replicas(1).build();
+        return TopicBuilder.name(PIX_REQUEST_TOPIC).partitions(requestTopicPartitions).replicas(replicas).build();
     }
 
     @Bean
     public NewTopic tedRequestTopic() {
-        return TopicBuilder.name(TED_REQUEST_TOPIC).partitions(3).replicas(1).build();
+        return TopicBuilder.name(TED_REQUEST_TOPIC).partitions(requestTopicPartitions).replicas(replicas).build();
     }
 
     @Bean
     public NewTopic tedResponseTopic() {
-        return TopicBuilder.name(TED_RESPONSE_TOPIC).partitions(3).replicas(1).build();
+        return TopicBuilder.name(TED_RESPONSE_TOPIC).partitions(responseTopicPartitions).replicas(replicas).build();
     }
 
     @Bean
     public NewTopic deadLetterTopic() {
-        return TopicBuilder.name(DEAD_LETTER_TOPIC).partitions(1).replicas(1).build();
+        return TopicBuilder.name(DEAD_LETTER_TOPIC).partitions(1).replicas(replicas).build();
+    }
+
+    // Compactado por clientCode e com retenção curta: os avisos só interessam a quem já está consumindo
+    @Bean
+    public NewTopic batchCacheInvalidationTopic() {
+        return TopicBuilder.name(BATCH_CACHE_INVALIDATION_TOPIC)
+                .partitions(1)
+                .replicas(replicas)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(invalidationRetention.toMillis()))
+                .build();
+    }
+
+    // Avisos para conexões SSE abertas: ninguém relê mensagens antigas, então a retenção é curta
+    @Bean
+    public NewTopic batchProgressTopic() {
+        return TopicBuilder.name(BATCH_PROGRESS_TOPIC)
+                .partitions(1)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(progressRetention.toMillis()))
+                .build();
     }
 }
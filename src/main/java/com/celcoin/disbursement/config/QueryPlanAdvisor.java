@@ -0,0 +1,111 @@
+package com.celcoin.disbursement.config;
+
+import jakarta.annotation.PreDestroy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Auto-verificação de planos de execução, para ambientes de desenvolvimento e homologação.
+ * <p>
+ * As consultas dos repositórios Spring Data só viram SQL quando o Hibernate as prepara, então a verificação acontece
+ * na primeira execução de cada statement distinto: o SQL é capturado por um {@link StatementInspector}, um {@code EXPLAIN}
+ * roda em segundo plano e um aviso é registrado para cada tabela lida por varredura completa ({@code type=ALL}).
+ * Statements enviados direto pelo {@link JdbcTemplate} não passam pelo Hibernate e não são verificados.
+ */
+@Component
+@ConditionalOnProperty(name = "disbursement.query-advisor.enabled", havingValue = "true")
+public class QueryPlanAdvisor implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanAdvisor.class);
+    private static final Pattern LIMIT_PARAMETER = Pattern.compile("(?i)\\b(limit|offset)\\s+\\?");
+    private static final Pattern ANY_PARAMETER = Pattern.compile("\\?");
+
+    private final transient JdbcTemplate jdbcTemplate;
+    private final int maxStatements;
+    private final Set<String> inspected = ConcurrentHashMap.newKeySet();
+    private final transient ThreadPoolExecutor executor;
+
+    public QueryPlanAdvisor(JdbcTemplate jdbcTemplate,
+                            @Value("${disbursement.query-advisor.max-statements:2000}") int maxStatements) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxStatements = maxStatements;
+        // Uma thread e fila limitada: a verificação nunca compete com o tráfego real nem acumula memória
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(256), runnable -> {
+            Thread thread = new Thread(runnable, "query-plan-advisor");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (isExplainable(sql) && inspected.size() < maxStatements && inspected.add(sql)) {
+            try {
+                executor.execute(() -> warnOnFullScans(sql));
+            } catch (RejectedExecutionException e) {
+                inspected.remove(sql);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Executa o {@code EXPLAIN} do statement e devolve as tabelas lidas por varredura completa.
+     */
+    List<String> findFullScans(String sql) {
+        String explainable = ANY_PARAMETER.matcher(LIMIT_PARAMETER.matcher(sql).replaceAll("$1 1")).replaceAll("'0'");
+        List<String> fullScans = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + explainable)) {
+            if ("ALL".equals(String.valueOf(row.get("type"))) && row.get("table") != null) {
+                fullScans.add(row.get("table") + " (~" + row.get("rows") + " linhas)");
+            }
+        }
+        return fullScans;
+    }
+
+    private void warnOnFullScans(String sql) {
+        try {
+            List<String> fullScans = findFullScans(sql);
+            if (!fullScans.isEmpty()) {
+                logger.warn("Consulta sem índice adequado, varredura completa em {}: {}", fullScans, sql);
+            }
+        } catch (Exception e) {
+            logger.debug("Não foi possível executar EXPLAIN para: {} ({})", sql, e.getMessage());
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return (statement.startsWith("select") || statement.startsWith("update") || statement.startsWith("delete"))
+                && !statement.contains("information_schema");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
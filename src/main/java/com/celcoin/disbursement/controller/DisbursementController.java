@@ -2,43 +2,66 @@ package com.celcoin.disbursement.controller;
 
 import com.celcoin.disbursement.config.KafkaTopicConfig;
 import com.celcoin.disbursement.exception.BusinessException;
-import com.celcoin.disbursement.exception.ResourceNotFoundException;
 import com.celcoin.disbursement.exception.UnexpectedException;
 import com.celcoin.disbursement.gateway.EventPublisher;
+import com.celcoin.disbursement.gateway.PartitionKeyStrategy;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.dto.BatchLatencyResponse;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.BatchSummaryResponse;
 import com.celcoin.disbursement.model.dto.DisbursementDto;
 import com.celcoin.disbursement.model.dto.DisbursementRequest;
 import com.celcoin.disbursement.model.dto.DisbursementResponse;
 import com.celcoin.disbursement.model.dto.DisbursementStatusResponse;
+import com.celcoin.disbursement.model.dto.StepPage;
 import com.celcoin.disbursement.model.dto.StepStatusResponse;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
 import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.repository.DisbursementBatchRepository;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.celcoin.disbursement.service.BatchEventSubscriptions;
+import com.celcoin.disbursement.service.BatchLatencyService;
+import com.celcoin.disbursement.service.BatchStatusCache;
+import com.celcoin.disbursement.service.BatchStepQueryService;
+import com.celcoin.disbursement.service.BatchSummaryService;
+import com.celcoin.disbursement.service.BatchSummaryTracker;
+import com.celcoin.disbursement.service.StepPayloadCodec;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/disbursements")
@@ -53,19 +76,63 @@ public class DisbursementController {
     private DisbursementStepRepository stepRepository;
 
     @Autowired
+    @Qualifier("outboxEventPublisher")
     private EventPublisher publisher;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private StepPayloadCodec payloadCodec;
+
+    @Autowired
+    private DisbursementMetrics metrics;
+
+    @Autowired
+    private BatchLatencyService latencyService;
+
+    @Autowired
+    private BatchStepQueryService stepQueryService;
+
+    @Autowired
+    private BatchSummaryService summaryService;
+
+    @Autowired
+    private BatchSummaryTracker summaryTracker;
+
+    @Autowired
+    private BatchStatusCache statusCache;
+
+    @Autowired
+    private BatchEventSubscriptions eventSubscriptions;
+
+    @Value("${disbursement.kafka.partition-key:BATCH}")
+    private PartitionKeyStrategy partitionKeyStrategy;
 
     @PostMapping
     @Transactional
     public ResponseEntity<?> createDisbursement(@RequestBody DisbursementRequest request) {
-        Optional<DisbursementBatch> existingBatch = batchRepository.findByClientCode(request.clientCode());
+        Timer.Sample sample = metrics.startTimer();
+        ScheduleType scheduleType = request.schedule() == null ? null : request.schedule().type();
+        String outcome = DisbursementMetrics.FAILURE;
+        String traceId = TraceContext.newTraceId();
+        try (MDC.MDCCloseable ignored = TraceContext.open(traceId)) {
+            ResponseEntity<?> response = createBatch(request, traceId);
+            outcome = DisbursementMetrics.SUCCESS;
+            return response;
+        } catch (BusinessException e) {
+            outcome = DisbursementMetrics.REJECTED;
+            throw e;
+        } finally {
+            metrics.recordIngest(sample, scheduleType, outcome,
+                    DisbursementMetrics.SUCCESS.equals(outcome) ? request.disbursements().size() : 0);
+        }
+    }
+
+    private ResponseEntity<?> createBatch(DisbursementRequest request, String traceId) {
+        // Reenvios de um clientCode já criado são recusados pelo cache, sem ir ao banco
+        Optional<BatchStatusView> existingBatch = statusCache.find(request.clientCode());
 
         if (existingBatch.isPresent()) {
             throw new BusinessException("409", "clientCode " + request.clientCode() + " já está no status de " +
-                    existingBatch.get().getStatus());
+                    existingBatch.get().status());
         }
         ScheduleType scheduleType = request.schedule().type();
         BatchStatus initialStatus = switch (scheduleType) {
@@ -80,12 +147,14 @@ public class DisbursementController {
                 .status(initialStatus)
                 .scheduleType(request.schedule().type())
                 .scheduleDate(request.schedule().date())
+                .totalSteps(request.disbursements().size())
                 .createdAt(LocalDateTime.now())
                 .build();
 
         batchRepository.saveAndFlush(batch);
 
-        List<DisbursementStep> steps = new LinkedList<>();
+        List<DisbursementStep> steps = new ArrayList<>(request.disbursements().size());
+        LocalDateTime now = LocalDateTime.now();
 
         for (DisbursementDto disbursement : request.disbursements()) {
             DisbursementStep step = DisbursementStep.builder()
@@ -94,59 +163,127 @@ public class DisbursementController {
                     .type(disbursement.type())
                     .amount(disbursement.disbursementStep().amount())
                     .status(StepStatus.PENDING)
-                    .createdAt(LocalDateTime.now())
+                    .traceId(traceId)
+                    .createdAt(now)
                     .build();
 
             try {
-                step.setPayload(objectMapper.writeValueAsString(disbursement.disbursementStep()));
+                step.setPayload(payloadCodec.encode(disbursement.disbursementStep()));
             } catch (JsonProcessingException e) {
                 logger.error("Erro ao serializar payload do step {}", disbursement.disbursementStep());
                 throw new UnexpectedException("Payload do step não é válido");
             }
 
-            steps.add(stepRepository.saveAndFlush(step));
+            if (scheduleType == ScheduleType.IMMEDIATE) {
+                payloadCodec.prime(step.getId(), disbursement.disbursementStep());
+            }
+            steps.add(step);
         }
 
+        // Um único insert em lotes JDBC no lugar de um saveAndFlush por step
+        stepRepository.insertAll(steps);
+        summaryTracker.initialize(steps);
+
         if (scheduleType == ScheduleType.IMMEDIATE) {
             logger.info("Disparando eventos para o lote imediato ID: {}", batch.getId());
-            publishStepEvents(steps);
+            publishStepEvents(batch, steps);
         } else {
             logger.info("Lote {} agendado para processamento futuro. Tipo: {}", batch.getId(), scheduleType);
         }
 
-        return ResponseEntity.ok(new DisbursementResponse(batch.getId(), batch.getStatus().toString()));
+        return ResponseEntity.ok()
+                .header(TraceContext.HEADER, traceId)
+                .body(new DisbursementResponse(batch.getId(), batch.getStatus().toString()));
     }
 
     @GetMapping("/{clientCode}/status")
     public ResponseEntity<DisbursementStatusResponse> getDisbursementStatus(@PathVariable String clientCode) {
         logger.info("Recebida requisição de status para o batch com clientCode: {}", clientCode);
 
-        DisbursementBatch batch = batchRepository.findByClientCode(clientCode)
-                .orElseThrow(() -> new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + clientCode));
+        BatchStatusView batch = stepQueryService.findBatch(clientCode);
 
-        List<StepStatusResponse> stepStatuses = batch.getSteps().stream()
-                .map(step -> new StepStatusResponse(
-                        step.getId(),
-                        step.getStatus(),
-                        step.getExternalId()
-                ))
-                .collect(Collectors.toList());
+        // Para lotes grandes prefira /steps (paginado ou NDJSON): esta resposta ainda monta a lista inteira em memória
+        List<StepStatusResponse> stepStatuses = stepQueryService.listAll(batch);
 
         DisbursementStatusResponse response = new DisbursementStatusResponse(
-                batch.getId(),
-                batch.getStatus(),
-                batch.getClientCode(),
+                batch.batchId(),
+                batch.status(),
+                batch.clientCode(),
                 stepStatuses
         );
 
         return ResponseEntity.ok(response);
     }
 
-    private void publishStepEvents(List<DisbursementStep> steps) {
+    /**
+     * Resumo do lote (quantidade e valor por status e por tipo) sem ler os steps. Responde com ETag:
+     * um {@code If-None-Match} igual ao resumo em cache devolve 304 sem corpo e sem consulta ao banco.
+     */
+    @GetMapping("/{clientCode}/summary")
+    public ResponseEntity<BatchSummaryResponse> getDisbursementSummary(@PathVariable String clientCode) {
+        BatchSummaryService.Snapshot snapshot = summaryService.summaryOf(clientCode);
+        // O HttpEntityMethodProcessor compara o ETag com o If-None-Match e troca a resposta por 304 quando coincidem
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.summary());
+    }
+
+    /**
+     * Server-Sent Events do lote: um {@code summary} com o estado atual e depois um {@code progress} a cada janela
+     * com mudanças de steps ou do lote. A conexão é encerrada quando o lote chega a um status final.
+     */
+    @GetMapping(value = "/{clientCode}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeDisbursementEvents(@PathVariable String clientCode) {
+        logger.info("Nova inscrição de eventos para o batch com clientCode: {}", clientCode);
+        return eventSubscriptions.subscribe(clientCode);
+    }
+
+    /**
+     * Status dos steps do lote em páginas por cursor: a próxima página começa depois do {@code nextCursor} da anterior.
+     */
+    @GetMapping("/{clientCode}/steps")
+    public ResponseEntity<StepPage> getDisbursementSteps(@PathVariable String clientCode,
+                                                         @RequestParam(name = "status", required = false) Set<StepStatus> statuses,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(stepQueryService.page(clientCode, statuses, after, limit));
+    }
+
+    /**
+     * Todos os steps do lote em NDJSON (um JSON por linha), escritos conforme são lidos do banco.
+     */
+    @GetMapping(value = "/{clientCode}/steps/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDisbursementSteps(@PathVariable String clientCode,
+                                                                         @RequestParam(name = "status", required = false) Set<StepStatus> statuses) {
+        logger.info("Recebida requisição de streaming dos steps do batch com clientCode: {}", clientCode);
+        // Busca o lote antes de abrir a resposta: lote inexistente ainda vira um erro normal, e não um stream cortado
+        BatchStatusView batch = stepQueryService.findBatch(clientCode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> stepQueryService.stream(batch, statuses, out));
+    }
+
+    /**
+     * Latência de cada etapa dos steps do lote (outbox, fila, envio ao gateway, confirmação e total), por canal.
+     */
+    @GetMapping("/{clientCode}/latency")
+    public ResponseEntity<BatchLatencyResponse> getDisbursementLatency(@PathVariable String clientCode) {
+        logger.info("Recebida requisição de latência para o batch com clientCode: {}", clientCode);
+        return ResponseEntity.ok(latencyService.latencyOf(clientCode));
+    }
+
+    private void publishStepEvents(DisbursementBatch batch, List<DisbursementStep> steps) {
+        String key = partitionKeyStrategy.keyFor(batch);
+        List<OutboundEvent> events = new ArrayList<>(steps.size());
         for (DisbursementStep step : steps) {
             String topic = getTopicForChannel(step.getType());
-            DisbursementRequestEvent event = new DisbursementRequestEvent(step.getId());
-            publisher.publish(topic, event);
+            events.add(new OutboundEvent(topic, key, new DisbursementRequestEvent(step.getId()), step.getTraceId()));
+        }
+
+        PublishReport report = publisher.publishAll(events);
+        if (!report.isSuccessful()) {
+            throw new UnexpectedException("Falha ao publicar " + report.failures().size() + " eventos do lote");
         }
     }
 
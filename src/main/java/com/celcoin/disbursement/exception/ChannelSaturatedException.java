@@ -0,0 +1,8 @@
+package com.celcoin.disbursement.exception;
+
+public class ChannelSaturatedException extends ExceptionDefinition {
+
+    public ChannelSaturatedException(String errorCode, String message) {
+        super(errorCode, message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.celcoin.disbursement.exception;
+
+public class ChannelUnavailableException extends ExceptionDefinition {
+
+    public ChannelUnavailableException(String errorCode, String message) {
+        super(errorCode, message);
+    }
+}
@@ -1,5 +1,30 @@
 package com.celcoin.disbursement.gateway;
 
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface EventPublisher {
     void publish(String topic, Object payload);
-}
\ No newline at end of file
+
+    /**
+     * Publica sem bloquear esperando o ack do broker.
+     * @return future completado quando o evento for confirmado (ou com a falha do envio).
+     */
+    default CompletableFuture<Void> publishAsync(String topic, Object payload) {
+        return publishAsync(topic, null, payload);
+    }
+
+    /**
+     * Variante com chave de particionamento: eventos com a mesma chave mantêm a ordem entre si.
+     */
+    CompletableFuture<Void> publishAsync(String topic, String key, Object payload);
+
+    /**
+     * Publica todos os eventos em pipeline e espera uma única vez pelas confirmações.
+     * @return relatório com as falhas individuais; nunca lança exceção por falha de um evento isolado.
+     */
+    PublishReport publishAll(List<OutboundEvent> events);
+}
@@ -2,11 +2,27 @@ package com.celcoin.disbursement.gateway;
 
 
 import com.celcoin.disbursement.exception.UnexpectedException;
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Primary
 @Component
 public class KafkaEventPublisher implements EventPublisher {
 
@@ -14,18 +30,107 @@ public class KafkaEventPublisher implements EventPublisher {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    public KafkaEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+    // Limita quantas mensagens podem estar aguardando ack ao mesmo tempo, segurando o consumo de memória
+    private final Semaphore inFlight;
+    private final long maxBlockMs;
+    private final long ackTimeoutMs;
+
+    public KafkaEventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                               @Value("${disbursement.publisher.max-in-flight:10000}") int maxInFlight,
+                               @Value("${disbursement.publisher.max-block-ms:5000}") long maxBlockMs,
+                               @Value("${disbursement.publisher.ack-timeout-ms:30000}") long ackTimeoutMs) {
         this.kafkaTemplate = kafkaTemplate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxBlockMs = maxBlockMs;
+        this.ackTimeoutMs = ackTimeoutMs;
     }
 
     @Override
     public void publish(String topic, Object payload) {
         logger.info("Publicando evento no tópico [{}]: {}", topic, payload);
         try {
-            kafkaTemplate.send(topic, payload);
+            publishAsync(topic, payload).whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    logger.error("Erro ao publicar evento no tópico [{}]: {}", topic, payload, ex);
+                }
+            });
         } catch (Exception e) {
             logger.error("Erro ao publicar evento no tópico [{}]: {}", topic, payload, e);
             throw new UnexpectedException("Falha ao publicar evento", e);
         }
     }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(String topic, String key, Object payload) {
+        return send(new ProducerRecord<>(topic, key, payload));
+    }
+
+    private CompletableFuture<Void> send(ProducerRecord<String, Object> record) {
+        try {
+            if (!inFlight.tryAcquire(maxBlockMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new TimeoutException("Limite de mensagens em trânsito atingido após " + maxBlockMs + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            return kafkaTemplate.send(record)
+                    .whenComplete((result, ex) -> inFlight.release())
+                    .thenApply(result -> null);
+        } catch (Exception e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public PublishReport publishAll(List<OutboundEvent> events) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(events.size());
+        for (OutboundEvent event : events) {
+            ProducerRecord<String, Object> record = new ProducerRecord<>(event.topic(), event.key(), event.payload());
+            if (event.traceId() != null) {
+                record.headers().add(TraceContext.HEADER, event.traceId().getBytes(StandardCharsets.UTF_8));
+            }
+            acks.add(send(record));
+        }
+
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // As falhas individuais são coletadas abaixo
+            logger.debug("Publicação em lote concluída com falhas: {}", e.getMessage());
+        }
+
+        List<PublishReport.PublishFailure> failures = new ArrayList<>();
+        for (int i = 0; i < acks.size(); i++) {
+            CompletableFuture<Void> ack = acks.get(i);
+            if (!ack.isDone()) {
+                failures.add(new PublishReport.PublishFailure(i, events.get(i), "Ack não recebido em " + ackTimeoutMs + " ms"));
+            } else if (ack.isCompletedExceptionally()) {
+                failures.add(new PublishReport.PublishFailure(i, events.get(i), failureReason(ack)));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            logger.warn("Publicação em lote: {} de {} eventos falharam", failures.size(), events.size());
+        }
+        return new PublishReport(events.size(), failures);
+    }
+
+    private static String failureReason(CompletableFuture<Void> ack) {
+        try {
+            ack.join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.celcoin.disbursement.gateway;
+
+import com.celcoin.disbursement.exception.UnexpectedException;
+import com.celcoin.disbursement.model.entity.OutboxEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import com.celcoin.disbursement.model.utils.JobStatus;
+import com.celcoin.disbursement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publica eventos gravando-os na tabela {@code outbox_event}, dentro da transação de quem chama.
+ * O envio para o Kafka fica a cargo do {@link OutboxRelay}, de forma que a thread da requisição
+ * nunca espera pelo broker e um rollback descarta também os eventos.
+ */
+@Component("outboxEventPublisher")
+public class OutboxEventPublisher implements EventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventPublisher.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxEventPublisher(OutboxEventRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void publish(String topic, Object payload) {
+        outboxRepository.insertAll(List.of(toOutboxEvent(new OutboundEvent(topic, payload))));
+    }
+
+    /**
+     * O evento é considerado publicado assim que gravado no outbox; o envio ao broker acontece após o commit.
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public CompletableFuture<Void> publishAsync(String topic, String key, Object payload) {
+        outboxRepository.insertAll(List.of(toOutboxEvent(new OutboundEvent(topic, key, payload))));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public PublishReport publishAll(List<OutboundEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (OutboundEvent event : events) {
+            rows.add(toOutboxEvent(event));
+        }
+        outboxRepository.insertAll(rows);
+        return PublishReport.success(events.size());
+    }
+
+    private OutboxEvent toOutboxEvent(OutboundEvent event) {
+        try {
+            return OutboxEvent.builder()
+                    .topic(event.topic())
+                    .messageKey(event.key())
+                    .traceId(event.traceId())
+                    .payloadType(event.payload().getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event.payload()))
+                    .status(JobStatus.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.error("Erro ao serializar evento para o outbox no tópico [{}]: {}", event.topic(), event.payload(), e);
+            throw new UnexpectedException("Falha ao gravar evento no outbox", e);
+        }
+    }
+}
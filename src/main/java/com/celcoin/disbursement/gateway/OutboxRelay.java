@@ -0,0 +1,131 @@
+package com.celcoin.disbursement.gateway;
+
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.entity.OutboxEvent;
+import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import com.celcoin.disbursement.model.utils.JobStatus;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.celcoin.disbursement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drena o outbox em lotes: trava as próximas linhas pendentes, publica todas em pipeline
+ * via {@link KafkaEventPublisher#publishAll}, e remove as que foram confirmadas pelo broker.
+ * Para os eventos de step, o instante do envio é gravado em {@code disbursement_step.published_at}.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final DisbursementStepRepository stepRepository;
+    private final KafkaEventPublisher kafkaPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final DisbursementMetrics metrics;
+
+    @Value("${disbursement.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${disbursement.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       DisbursementStepRepository stepRepository,
+                       KafkaEventPublisher kafkaPublisher,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       DisbursementMetrics metrics) {
+        this.outboxRepository = outboxRepository;
+        this.stepRepository = stepRepository;
+        this.kafkaPublisher = kafkaPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${disbursement.outbox.relay-interval-ms:200}")
+    public void relay() {
+        Integer sent;
+        do {
+            sent = transactionTemplate.execute(status -> drainNextBatch());
+        } while (sent != null && sent == batchSize);
+    }
+
+    private int drainNextBatch() {
+        List<OutboxEvent> rows = outboxRepository.lockNextPending(batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> publishable = new ArrayList<>(rows.size());
+        List<OutboundEvent> events = new ArrayList<>(rows.size());
+        Map<Long, String> stepIdByRowId = new HashMap<>();
+        Set<Long> failedIds = new HashSet<>();
+
+        for (OutboxEvent row : rows) {
+            try {
+                Object payload = objectMapper.readValue(row.getPayload(), Class.forName(row.getPayloadType()));
+                publishable.add(row);
+                events.add(new OutboundEvent(row.getTopic(), row.getMessageKey(), payload, row.getTraceId()));
+                if (payload instanceof DisbursementRequestEvent requestEvent) {
+                    stepIdByRowId.put(row.getId(), requestEvent.stepId());
+                }
+            } catch (Exception e) {
+                logger.error("Evento {} do outbox não pôde ser desserializado ({})", row.getId(), row.getPayloadType(), e);
+                failedIds.add(row.getId());
+            }
+        }
+
+        LocalDateTime publishedAt = LocalDateTime.now();
+        PublishReport report = kafkaPublisher.publishAll(events);
+        for (PublishReport.PublishFailure failure : report.failures()) {
+            failedIds.add(publishable.get(failure.index()).getId());
+        }
+
+        List<Long> sentIds = new ArrayList<>(rows.size());
+        List<String> publishedStepIds = new ArrayList<>(stepIdByRowId.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent row : rows) {
+            if (!failedIds.contains(row.getId())) {
+                sentIds.add(row.getId());
+                if (stepIdByRowId.containsKey(row.getId())) {
+                    publishedStepIds.add(stepIdByRowId.get(row.getId()));
+                }
+                metrics.recordPublish(row.getTopic(), DisbursementMetrics.SUCCESS, row.getCreatedAt());
+                continue;
+            }
+            metrics.recordPublish(row.getTopic(), DisbursementMetrics.FAILURE, row.getCreatedAt());
+
+            row.setAttempts(row.getAttempts() + 1);
+            row.setUpdatedAt(now);
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(JobStatus.FAILED);
+                logger.error("Evento {} do outbox excedeu {} tentativas de envio para o tópico [{}]",
+                        row.getId(), maxAttempts, row.getTopic());
+            }
+        }
+
+        outboxRepository.deleteAllByIdInBatch(sentIds);
+        stepRepository.markPublished(publishedStepIds, publishedAt);
+        logger.debug("Outbox: {} eventos enviados, {} pendentes de nova tentativa", sentIds.size(), failedIds.size());
+        return sentIds.size();
+    }
+}
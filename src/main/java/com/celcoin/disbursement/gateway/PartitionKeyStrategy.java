@@ -0,0 +1,30 @@
+package com.celcoin.disbursement.gateway;
+
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+
+/**
+ * Define a chave Kafka dos eventos de step. Eventos com a mesma chave caem na mesma partição,
+ * preservando a ordem entre eles e evitando que um único lote grande ocupe todas as partições.
+ */
+public enum PartitionKeyStrategy {
+    BATCH {
+        @Override
+        public String keyFor(DisbursementBatch batch) {
+            return batch.getId();
+        }
+    },
+    CLIENT_CODE {
+        @Override
+        public String keyFor(DisbursementBatch batch) {
+            return batch.getClientCode();
+        }
+    },
+    NONE {
+        @Override
+        public String keyFor(DisbursementBatch batch) {
+            return null;
+        }
+    };
+
+    public abstract String keyFor(DisbursementBatch batch);
+}
@@ -0,0 +1,29 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.model.event.BatchCacheInvalidationEvent;
+import com.celcoin.disbursement.service.BatchCacheInvalidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recebe os avisos de invalidação de cache de lotes de todas as instâncias.
+ * <p>
+ * O grupo é único por instância (sufixo aleatório), para que todas recebam todos os avisos, e começa do fim do
+ * tópico: uma instância recém-iniciada tem o cache vazio e não precisa dos avisos antigos.
+ */
+@Service
+public class BatchCacheInvalidationConsumer {
+
+    @Autowired
+    private BatchCacheInvalidator cacheInvalidator;
+
+    @KafkaListener(id = ListenerIds.BATCH_CACHE_INVALIDATION,
+            topics = KafkaTopicConfig.BATCH_CACHE_INVALIDATION_TOPIC,
+            groupId = "${disbursement.status-cache.group-prefix:batch-cache}-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(BatchCacheInvalidationEvent event) {
+        cacheInvalidator.evict(event);
+    }
+}
@@ -0,0 +1,36 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.model.event.BatchProgressEvent;
+import com.celcoin.disbursement.service.BatchEventSubscriptions;
+import com.celcoin.disbursement.service.BatchSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Entrega às conexões SSE desta instância os avisos de progresso publicados por qualquer instância e descarta o
+ * resumo em cache dos lotes que mudaram. Assim como a invalidação de cache, usa um grupo único por instância e
+ * começa do fim do tópico.
+ */
+@Service
+public class BatchProgressEventConsumer {
+
+    @Autowired
+    private BatchEventSubscriptions subscriptions;
+
+    @Autowired
+    private BatchSummaryService summaryService;
+
+    @KafkaListener(id = ListenerIds.BATCH_PROGRESS,
+            topics = KafkaTopicConfig.BATCH_PROGRESS_TOPIC,
+            groupId = "${disbursement.batch-events.group-prefix:batch-events}-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void consume(BatchProgressEvent event) {
+        // O aviso só é publicado após o commit: a próxima leitura do resumo já vê a mudança
+        summaryService.evict(Set.of(event.batchId()));
+        subscriptions.dispatch(event);
+    }
+}
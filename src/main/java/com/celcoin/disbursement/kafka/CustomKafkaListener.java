@@ -20,9 +20,18 @@ import java.lang.annotation.Target;
         autoCreateTopics = "false"
 )
 public @interface CustomKafkaListener {
+    @AliasFor(annotation = KafkaListener.class, attribute = "id")
+    String id() default "";
+
     @AliasFor(annotation = KafkaListener.class, attribute = "topics")
     String[] topics() default {};
 
     @AliasFor(annotation = KafkaListener.class, attribute = "groupId")
     String groupId();
+
+    @AliasFor(annotation = KafkaListener.class, attribute = "concurrency")
+    String concurrency() default "";
+
+    @AliasFor(annotation = KafkaListener.class, attribute = "containerFactory")
+    String containerFactory() default "";
 }
\ No newline at end of file
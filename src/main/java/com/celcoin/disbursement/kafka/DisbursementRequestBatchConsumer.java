@@ -0,0 +1,173 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.config.KafkaConsumerConfig;
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.service.ChannelBatchAccumulator;
+import com.celcoin.disbursement.service.DisbursementProcessingService;
+import com.celcoin.disbursement.service.IdempotencyService;
+import com.celcoin.disbursement.service.ParallelStepDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Variante em lote do {@link DisbursementRequestConsumer}, habilitada com {@code disbursement.kafka.listener-mode=batch}.
+ * Cada poll custa uma consulta de idempotência, uma consulta {@code IN} dos steps e um único update para PROCESSING.
+ * Falhas são reportadas por registro via {@link BatchListenerFailedException}, mantendo retentativa e DLT por mensagem.
+ */
+@Service
+@ConditionalOnProperty(name = "disbursement.kafka.listener-mode", havingValue = "batch")
+public class DisbursementRequestBatchConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisbursementRequestBatchConsumer.class);
+    private static final String GROUP_ID = "disbursement-processor";
+
+    @Autowired
+    private DisbursementProcessingService processingService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ParallelStepDispatcher stepDispatcher;
+
+    @Autowired
+    private ChannelBatchAccumulator batchAccumulator;
+
+    @Autowired
+    private DisbursementMetrics metrics;
+
+    // true: cada registro do poll é enviado em uma virtual thread (limitado por canal); false: em sequência
+    @Value("${disbursement.kafka.parallel-dispatch:false}")
+    private boolean parallelDispatch;
+
+    // true: os steps do poll são agrupados por canal e enviados ao gateway em chamadas em lote
+    @Value("${disbursement.channel-batch.enabled:false}")
+    private boolean channelBatching;
+
+    @KafkaListener(
+            id = ListenerIds.PIX_REQUEST_BATCH,
+            topics = {KafkaTopicConfig.PIX_REQUEST_TOPIC},
+            groupId = GROUP_ID,
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${disbursement.kafka.request-concurrency:3}"
+    )
+    public void consumePixRequests(List<DisbursementRequestEvent> events,
+                                   @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> timestamps) {
+        consume(events, StepType.PIX, timestamps);
+    }
+
+    @KafkaListener(
+            id = ListenerIds.TED_REQUEST_BATCH,
+            topics = {KafkaTopicConfig.TED_REQUEST_TOPIC},
+            groupId = GROUP_ID,
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${disbursement.kafka.request-concurrency:3}"
+    )
+    public void consumeTedRequests(List<DisbursementRequestEvent> events,
+                                   @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> timestamps) {
+        consume(events, StepType.TED, timestamps);
+    }
+
+    private void consume(List<DisbursementRequestEvent> events, StepType channel, List<Long> timestamps) {
+        logger.info("Lote de {} eventos de requisição de desembolso recebido", events.size());
+        timestamps.forEach(timestamp -> metrics.recordConsumeLag(channel, timestamp));
+
+        // Posição de cada step no poll, para apontar o registro exato em caso de falha
+        Map<String, Integer> indexByStepId = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            indexByStepId.putIfAbsent(events.get(i).stepId(), i);
+        }
+
+        Set<String> newStepIds = idempotencyService.filterDuplicates(indexByStepId.keySet(), GROUP_ID);
+        List<DisbursementStep> claimed = List.of();
+        // Steps que chegaram ao canal: são os únicos que não podem voltar para PENDING se algo falhar depois
+        Set<String> dispatched = new HashSet<>();
+        try {
+            claimed = new ArrayList<>(processingService.claimAll(newStepIds));
+            claimed.sort((a, b) -> Integer.compare(indexByStepId.get(a.getId()), indexByStepId.get(b.getId())));
+
+            if (channelBatching) {
+                reportFailures(batchAccumulator.submitAll(claimed), claimed, dispatched, indexByStepId);
+            } else if (parallelDispatch) {
+                reportFailures(stepDispatcher.dispatchAll(claimed), claimed, dispatched, indexByStepId);
+            } else {
+                dispatchInOrder(claimed, dispatched, indexByStepId);
+            }
+        } catch (BatchListenerFailedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // As reivindicações já foram commitadas: sem liberá-las, o poll inteiro seria reentregue, lido como duplicado
+            // e os steps ficariam presos (o claimAll só reserva steps PENDING). Tudo que não chegou ao canal volta;
+            // os steps já enviados mantêm o status e a reivindicação.
+            List<String> notDispatched = claimed.stream().map(DisbursementStep::getId).filter(id -> !dispatched.contains(id)).toList();
+            processingService.release(notDispatched);
+            Set<String> toRelease = new LinkedHashSet<>(newStepIds);
+            toRelease.removeAll(dispatched);
+            idempotencyService.release(toRelease);
+            logger.error("Falha ao reservar ou despachar o lote de {} steps; {} reivindicações liberadas para a reentrega",
+                    newStepIds.size(), toRelease.size(), e);
+            throw e;
+        }
+    }
+
+    private void dispatchInOrder(List<DisbursementStep> claimed, Set<String> dispatched, Map<String, Integer> indexByStepId) {
+        for (int i = 0; i < claimed.size(); i++) {
+            DisbursementStep step = claimed.get(i);
+            try {
+                processingService.dispatch(step);
+                dispatched.add(step.getId());
+            } catch (Exception e) {
+                // Libera o step com falha e os que ainda não foram enviados: eles serão reentregues a partir deste registro
+                List<String> notDispatched = claimed.subList(i, claimed.size()).stream().map(DisbursementStep::getId).toList();
+                processingService.release(notDispatched);
+                idempotencyService.release(notDispatched);
+
+                int index = indexByStepId.get(step.getId());
+                logger.error("Falha ao processar stepId {} (posição {} do lote)", step.getId(), index, e);
+                throw new BatchListenerFailedException("Falha ao processar stepId " + step.getId(), e, index);
+            }
+        }
+    }
+
+    // Todos os registros terminam antes de retornar, então os offsets só avançam depois dos envios concluídos.
+    // Os sucessos após a falha mais antiga são reentregues e descartados pela idempotência; as demais falhas são liberadas.
+    private void reportFailures(Map<String, Throwable> failures, List<DisbursementStep> claimed, Set<String> dispatched,
+                                Map<String, Integer> indexByStepId) {
+        claimed.stream().map(DisbursementStep::getId).filter(id -> !failures.containsKey(id)).forEach(dispatched::add);
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        List<String> failedIds = List.copyOf(failures.keySet());
+        processingService.release(failedIds);
+        idempotencyService.release(failedIds);
+
+        String firstFailed = failedIds.stream().min(Comparator.comparing(indexByStepId::get)).orElseThrow();
+        int index = indexByStepId.get(firstFailed);
+        Throwable cause = failures.get(firstFailed);
+        logger.error("Falha ao processar {} steps do lote; primeira falha no stepId {} (posição {})",
+                failures.size(), firstFailed, index, cause);
+        throw new BatchListenerFailedException("Falha ao processar stepId " + firstFailed, cause, index);
+    }
+}
@@ -1,19 +1,31 @@
 package com.celcoin.disbursement.kafka;
 
+import com.celcoin.disbursement.config.KafkaConsumerConfig;
 import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.exception.ChannelSaturatedException;
+import com.celcoin.disbursement.exception.ChannelUnavailableException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
 import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.service.DisbursementProcessingService;
 import com.celcoin.disbursement.service.IdempotencyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+
 
 @Service
+@ConditionalOnProperty(name = "disbursement.kafka.listener-mode", havingValue = "record", matchIfMissing = true)
 public class DisbursementRequestConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(DisbursementRequestConsumer.class);
@@ -25,43 +37,83 @@ public class DisbursementRequestConsumer {
     @Autowired
     private IdempotencyService idempotencyService;
 
+    @Autowired
+    private DisbursementMetrics metrics;
+
+    // Espera antes de reentregar um registro recusado pelo canal (circuito aberto ou meio aberto, bulkhead cheio)
+    @Value("${disbursement.kafka.rejection-backoff:PT1S}")
+    private Duration rejectionBackoff;
+
     //A justificativa para duplicação do código é para evitar o problema de Head-of-Line Blocking
     @CustomKafkaListener(
+            id = ListenerIds.PIX_REQUEST,
             topics = {KafkaTopicConfig.PIX_REQUEST_TOPIC},
-            groupId = GROUP_ID
+            groupId = GROUP_ID,
+            concurrency = "${disbursement.kafka.request-concurrency:3}",
+            containerFactory = KafkaConsumerConfig.REQUEST_LISTENER_FACTORY
     )
-    public void consumePixRequests(DisbursementRequestEvent event) {
+    public void consumePixRequests(DisbursementRequestEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                   Acknowledgment acknowledgment) {
         logger.info("Evento de requisição de desembolso recebido para o stepId: {}", event.stepId());
+        metrics.recordConsumeLag(StepType.PIX, timestamp);
 
-        if (idempotencyService.isDuplicate(event.stepId(), GROUP_ID)) {
+        if (!idempotencyService.claim(event.stepId(), GROUP_ID)) {
+            acknowledgment.acknowledge();
             return; // Se for duplicado, apenas encerra.
         }
 
         // Delega a lógica de negócio para um serviço dedicado
-        processingService.execute(event.stepId());
+        execute(event.stepId(), acknowledgment);
     }
 
     @CustomKafkaListener(
+            id = ListenerIds.TED_REQUEST,
             topics = {KafkaTopicConfig.TED_REQUEST_TOPIC},
-            groupId = GROUP_ID
+            groupId = GROUP_ID,
+            concurrency = "${disbursement.kafka.request-concurrency:3}",
+            containerFactory = KafkaConsumerConfig.REQUEST_LISTENER_FACTORY
     )
-    public void consumeTedRequests(DisbursementRequestEvent event) {
+    public void consumeTedRequests(DisbursementRequestEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                   Acknowledgment acknowledgment) {
         logger.info("Evento de requisição de desembolso recebido para o stepId: {}", event.stepId());
+        metrics.recordConsumeLag(StepType.TED, timestamp);
 
-        if (idempotencyService.isDuplicate(event.stepId(), GROUP_ID)) {
+        if (!idempotencyService.claim(event.stepId(), GROUP_ID)) {
+            acknowledgment.acknowledge();
             return;
         }
 
-        processingService.execute(event.stepId());
+        execute(event.stepId(), acknowledgment);
+    }
+
+    private void execute(String stepId, Acknowledgment acknowledgment) {
+        try {
+            processingService.execute(stepId);
+        } catch (ChannelUnavailableException | ChannelSaturatedException e) {
+            // Recusa do circuit breaker, do bulkhead ou do limitador: o gateway nem foi chamado, então não é uma tentativa
+            // de entrega. O registro volta ao tópico atual após o intervalo, sem passar para o retry topic nem para o DLT
+            idempotencyService.release(List.of(stepId));
+            logger.warn("Envio do stepId {} recusado pelo canal ({}); reentrega em {}", stepId, e.getMessage(), rejectionBackoff);
+            acknowledgment.nack(rejectionBackoff);
+            return;
+        } catch (RuntimeException e) {
+            // O step volta para PENDING; sem liberar a reivindicação (já commitada), a retentativa do @RetryableTopic
+            // seria descartada como duplicada e o step nunca seria enviado
+            idempotencyService.release(List.of(stepId));
+            throw e;
+        }
+        acknowledgment.acknowledge();
     }
 
     @DltHandler
-    public void handleDlt(DisbursementRequestEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+    public void handleDlt(DisbursementRequestEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                          Acknowledgment acknowledgment) {
         logger.error(
                 "MENSAGEM MOVIDA PARA O DEAD LETTER QUEUE (DLT)\n" +
                         "Tópico de Origem: {}\n" +
                         "Step ID com Falha: {}\n",
                 topic, event.stepId()
         );
+        acknowledgment.acknowledge();
     }
 }
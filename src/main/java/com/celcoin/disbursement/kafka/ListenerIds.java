@@ -0,0 +1,33 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.util.Locale;
+
+/**
+ * Ids dos listener containers. Os de requisição começam todos com o prefixo do canal (ex.: {@code pix-request}),
+ * o que também vale para os containers dos tópicos de retry criados pelo {@code @RetryableTopic}
+ * (ex.: {@code pix-request-listener-retry-0}, {@code pix-request-listener-dlt}).
+ */
+public final class ListenerIds {
+
+    public static final String PIX_REQUEST = "pix-request-listener";
+    public static final String TED_REQUEST = "ted-request-listener";
+    public static final String PIX_REQUEST_BATCH = "pix-request-batch-listener";
+    public static final String TED_REQUEST_BATCH = "ted-request-batch-listener";
+    public static final String BATCH_CACHE_INVALIDATION = "batch-cache-invalidation-listener";
+    public static final String BATCH_PROGRESS = "batch-progress-listener";
+
+    private ListenerIds() {
+    }
+
+    public static String requestPrefix(StepType channel) {
+        return channel.name().toLowerCase(Locale.ROOT) + "-request";
+    }
+
+    // Containers dos tópicos de requisição em si, sem os dos tópicos de retry e DLT
+    public static boolean isMainRequest(String listenerId) {
+        return PIX_REQUEST.equals(listenerId) || TED_REQUEST.equals(listenerId)
+                || PIX_REQUEST_BATCH.equals(listenerId) || TED_REQUEST_BATCH.equals(listenerId);
+    }
+}
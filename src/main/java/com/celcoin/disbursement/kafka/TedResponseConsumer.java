@@ -29,7 +29,7 @@ public class TedResponseConsumer {
     public void consume(ExternalRequestResponse response) {
         logger.info("Mensagem de resposta TED recebida.");
 
-        if (idempotencyService.isDuplicate(response.externalId(), GROUP_ID)) {
+        if (!idempotencyService.claim(response.externalId(), GROUP_ID)) {
             logger.error("Chave duplicada encontrada para externalId {}", response.externalId());
             return;
         }
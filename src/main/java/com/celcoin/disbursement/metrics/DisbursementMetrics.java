@@ -0,0 +1,145 @@
+package com.celcoin.disbursement.metrics;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Métricas de cada etapa do fluxo de desembolso, todas com o prefixo {@code disbursement.} e as tags {@code type}
+ * (canal, {@link StepType}) e {@code outcome}:
+ * <ul>
+ *     <li>{@code disbursement.ingest}: criação do lote em {@code POST /disbursements} ({@code schedule} no lugar de {@code type});</li>
+ *     <li>{@code disbursement.publish}: tempo de cada evento no outbox até a confirmação do broker;</li>
+ *     <li>{@code disbursement.consume.lag}: tempo entre a gravação da mensagem no tópico e o consumo;</li>
+ *     <li>{@code disbursement.claim}: transição PENDING -> PROCESSING;</li>
+ *     <li>{@code disbursement.adapter.call}: envio ao gateway, incluindo circuit breaker e limitador;</li>
+ *     <li>{@code disbursement.callback}: processamento do webhook PIX / resposta TED;</li>
+ *     <li>{@code disbursement.step.settlement} e {@code disbursement.batch.completion}: da criação até o status final.</li>
+ * </ul>
+ * Os histogramas são habilitados por configuração ({@code management.metrics.distribution.percentiles-histogram.disbursement}).
+ */
+@Component
+public class DisbursementMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String REJECTED = "rejected";
+    public static final String DUPLICATE = "duplicate";
+    public static final String SKIPPED = "skipped";
+
+    private static final String MIXED = "MIXED";
+    private static final String NONE = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    public DisbursementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordIngest(Timer.Sample sample, ScheduleType scheduleType, String outcome, int steps) {
+        sample.stop(Timer.builder("disbursement.ingest")
+                .description("Criação de lotes de desembolso")
+                .tag("schedule", scheduleType == null ? NONE : scheduleType.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        if (SUCCESS.equals(outcome)) {
+            Counter.builder("disbursement.ingest.steps")
+                    .description("Steps recebidos em lotes criados")
+                    .tag("schedule", scheduleType.name())
+                    .register(meterRegistry)
+                    .increment(steps);
+        }
+    }
+
+    public void recordPublish(String topic, String outcome, LocalDateTime enqueuedAt) {
+        record(Timer.builder("disbursement.publish")
+                .description("Tempo do evento no outbox até a confirmação do broker")
+                .tag("type", typeOfTopic(topic))
+                .tag("outcome", outcome), elapsedSince(enqueuedAt));
+    }
+
+    public void recordConsumeLag(StepType type, long recordTimestampMs) {
+        record(Timer.builder("disbursement.consume.lag")
+                .description("Tempo entre a gravação da mensagem no tópico e o consumo")
+                .tag("type", type.name()), Duration.ofMillis(Math.max(0, System.currentTimeMillis() - recordTimestampMs)));
+    }
+
+    public void recordClaim(Collection<DisbursementStep> steps, String outcome, long elapsedNanos) {
+        record(Timer.builder("disbursement.claim")
+                .description("Reserva de steps pendentes (PENDING -> PROCESSING)")
+                .tag("type", typeOf(steps))
+                .tag("outcome", outcome), Duration.ofNanos(elapsedNanos));
+    }
+
+    public void recordAdapterCall(StepType type, String outcome, long elapsedNanos) {
+        record(Timer.builder("disbursement.adapter.call")
+                .description("Envio ao gateway do canal")
+                .tag("type", type.name())
+                .tag("outcome", outcome), Duration.ofNanos(elapsedNanos));
+    }
+
+    public void recordCallback(StepType type, String outcome, Timer.Sample sample) {
+        sample.stop(Timer.builder("disbursement.callback")
+                .description("Processamento das confirmações dos canais (webhook PIX, resposta TED)")
+                .tag("type", type == null ? NONE : type.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    public void recordStepSettled(DisbursementStep step) {
+        record(Timer.builder("disbursement.step.settlement")
+                .description("Da criação do step até o status final")
+                .tag("type", step.getType().name())
+                .tag("outcome", step.getStatus().name().toLowerCase()), elapsedSince(step.getCreatedAt()));
+    }
+
+    public void recordBatchCompleted(DisbursementBatch batch, BatchStatus status) {
+        record(Timer.builder("disbursement.batch.completion")
+                .description("Da criação do lote até todos os steps liquidados")
+                .tag("outcome", status.name().toLowerCase()), elapsedSince(batch.getCreatedAt()));
+    }
+
+    private void record(Timer.Builder builder, Duration duration) {
+        if (duration != null) {
+            builder.register(meterRegistry).record(duration);
+        }
+    }
+
+    private static Duration elapsedSince(LocalDateTime start) {
+        return start == null ? null : Duration.between(start, LocalDateTime.now());
+    }
+
+    private static String typeOf(Collection<DisbursementStep> steps) {
+        StepType type = null;
+        for (DisbursementStep step : steps) {
+            if (type != null && type != step.getType()) {
+                return MIXED;
+            }
+            type = step.getType();
+        }
+        return type == null ? NONE : type.name();
+    }
+
+    private static String typeOfTopic(String topic) {
+        return switch (topic) {
+            case KafkaTopicConfig.PIX_REQUEST_TOPIC -> StepType.PIX.name();
+            case KafkaTopicConfig.TED_REQUEST_TOPIC -> StepType.TED.name();
+            default -> topic;
+        };
+    }
+}
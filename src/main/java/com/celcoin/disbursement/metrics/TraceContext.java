@@ -0,0 +1,49 @@
+package com.celcoin.disbursement.metrics;
+
+import org.slf4j.MDC;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Identificador de rastreio de um lote, gerado na criação e gravado em cada step.
+ * <p>
+ * Acompanha o step pelo outbox e pelos headers das mensagens Kafka, é enviado aos gateways no header HTTP
+ * {@link #HEADER} e pode voltar nas confirmações ({@code ExternalRequestResponse#traceId}). Nos logs aparece
+ * pela chave {@link #MDC_KEY} do MDC.
+ */
+public final class TraceContext {
+
+    public static final String HEADER = "X-Trace-Id";
+    public static final String MDC_KEY = "traceId";
+
+    private TraceContext() {
+    }
+
+    public static String newTraceId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * TraceId comum a todos os itens de um envio em lote, para o header {@link #HEADER} da chamada;
+     * {@code null} quando os itens vêm de lotes diferentes (cada item leva o seu no corpo).
+     */
+    public static String common(Collection<String> traceIds) {
+        String common = null;
+        for (String traceId : traceIds) {
+            if (traceId == null || (common != null && !common.equals(traceId))) {
+                return null;
+            }
+            common = traceId;
+        }
+        return common;
+    }
+
+    /**
+     * Coloca o traceId no MDC até o fechamento do recurso; com {@code null} não faz nada
+     * (o try-with-resources ignora recursos nulos).
+     */
+    public static MDC.MDCCloseable open(String traceId) {
+        return traceId == null ? null : MDC.putCloseable(MDC_KEY, traceId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.celcoin.disbursement.model.dto;
+
+/**
+ * Item de um envio em lote ao gateway; o {@code stepId} volta como {@code clientRequestId} na resposta do item.
+ * O {@code traceId} segue por item porque uma mesma chamada pode reunir steps de lotes diferentes.
+ */
+public record BatchItem<T>(String stepId, String traceId, T request) {
+}
@@ -0,0 +1,8 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.BatchStatus;
+
+import java.util.List;
+
+public record BatchLatencyResponse(String batchId, String clientCode, BatchStatus status, List<ChannelLatency> channels) {
+}
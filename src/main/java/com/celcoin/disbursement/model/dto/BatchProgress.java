@@ -0,0 +1,7 @@
+package com.celcoin.disbursement.model.dto;
+
+/**
+ * Quantidade de steps de um lote: total, concluídos com sucesso e com falha.
+ */
+public record BatchProgress(String batchId, long totalSteps, long successSteps, long failedSteps) {
+}
@@ -0,0 +1,16 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+
+/**
+ * Cópia imutável dos campos do lote usados pelas consultas de status, guardada no cache por clientCode
+ * no lugar da entidade.
+ */
+public record BatchStatusView(String batchId, String clientCode, BatchStatus status, ScheduleType scheduleType, long totalSteps) {
+
+    public static BatchStatusView of(DisbursementBatch batch) {
+        return new BatchStatusView(batch.getId(), batch.getClientCode(), batch.getStatus(), batch.getScheduleType(), batch.getTotalSteps());
+    }
+}
@@ -0,0 +1,21 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Resumo do lote montado a partir do agregado por tipo e status, sem ler os steps.
+ * @param updatedAt última alteração do resumo; {@code null} para lotes sem steps resumidos.
+ */
+public record BatchSummaryResponse(String batchId,
+                                   String clientCode,
+                                   BatchStatus status,
+                                   SummaryTotals total,
+                                   Map<StepStatus, SummaryTotals> byStatus,
+                                   Map<StepType, SummaryTotals> byType,
+                                   LocalDateTime updatedAt) {
+}
@@ -0,0 +1,8 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.util.List;
+
+public record ChannelLatency(StepType type, long steps, long settled, List<StageLatency> stages) {
+}
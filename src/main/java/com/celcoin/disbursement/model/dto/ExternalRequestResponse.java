@@ -2,5 +2,14 @@ package com.celcoin.disbursement.model.dto;
 
 import com.celcoin.disbursement.model.utils.StepStatus;
 
-public record ExternalRequestResponse(String clientRequestId, String externalId, StepStatus status, String failureReason) {
+/**
+ * Resposta dos gateways, tanto síncrona (envio) quanto assíncrona (webhook PIX, resposta TED).
+ * @param traceId o {@code X-Trace-Id} recebido no envio, quando o gateway o devolve; opcional.
+ */
+public record ExternalRequestResponse(String clientRequestId, String externalId, StepStatus status, String failureReason,
+                                      String traceId) {
+
+    public ExternalRequestResponse(String clientRequestId, String externalId, StepStatus status, String failureReason) {
+        this(clientRequestId, externalId, status, failureReason, null);
+    }
 }
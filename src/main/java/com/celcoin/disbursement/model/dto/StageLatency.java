@@ -0,0 +1,7 @@
+package com.celcoin.disbursement.model.dto;
+
+/**
+ * Distribuição da latência de uma etapa, em milissegundos, considerando só os steps que já passaram por ela.
+ */
+public record StageLatency(String stage, long samples, long p50Ms, long p95Ms, long p99Ms, long maxMs) {
+}
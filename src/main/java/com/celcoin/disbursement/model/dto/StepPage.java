@@ -0,0 +1,12 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.BatchStatus;
+
+import java.util.List;
+
+/**
+ * Página de status dos steps de um lote, em ordem de stepId.
+ * @param nextCursor valor para o parâmetro {@code after} da próxima página; {@code null} na última.
+ */
+public record StepPage(String batchId, BatchStatus status, List<StepStatusResponse> steps, String nextCursor) {
+}
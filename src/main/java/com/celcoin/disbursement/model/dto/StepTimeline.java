@@ -0,0 +1,14 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Instantes de cada etapa de um step; as etapas ainda não alcançadas ficam {@code null}.
+ */
+public record StepTimeline(String stepId, StepType type, StepStatus status,
+                           LocalDateTime createdAt, LocalDateTime publishedAt, LocalDateTime processingAt,
+                           LocalDateTime sentAt, LocalDateTime settledAt) {
+}
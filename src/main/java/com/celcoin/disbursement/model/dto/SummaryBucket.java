@@ -0,0 +1,13 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha de {@code disbursement_batch_summary}: steps do lote de um tipo em um status.
+ */
+public record SummaryBucket(StepType type, StepStatus status, long count, BigDecimal amount, LocalDateTime updatedAt) {
+}
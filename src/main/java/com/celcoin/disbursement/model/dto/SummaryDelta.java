@@ -0,0 +1,12 @@
+package com.celcoin.disbursement.model.dto;
+
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.math.BigDecimal;
+
+/**
+ * Variação a somar em uma linha do resumo do lote; negativa quando steps saem do status.
+ */
+public record SummaryDelta(String batchId, StepType type, StepStatus status, long count, BigDecimal amount) {
+}
@@ -0,0 +1,15 @@
+package com.celcoin.disbursement.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantidade de steps e soma dos valores de um recorte do resumo do lote.
+ */
+public record SummaryTotals(long count, BigDecimal amount) {
+
+    public static final SummaryTotals EMPTY = new SummaryTotals(0, BigDecimal.ZERO);
+
+    public SummaryTotals plus(long count, BigDecimal amount) {
+        return new SummaryTotals(this.count + count, this.amount.add(amount));
+    }
+}
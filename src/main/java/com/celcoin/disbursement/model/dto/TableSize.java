@@ -0,0 +1,7 @@
+package com.celcoin.disbursement.model.dto;
+
+/**
+ * Tamanho aproximado de uma tabela segundo o {@code information_schema} (estimativa do InnoDB, não um COUNT).
+ */
+public record TableSize(long rows, long bytes) {
+}
@@ -4,6 +4,7 @@ import com.celcoin.disbursement.model.utils.Recurrency;
 import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -45,6 +46,16 @@ public class DisbursementBatch {
     @Enumerated(EnumType.STRING)
     private BatchStatus status;
 
+    // Contadores mantidos por UPDATE atômico (BatchProgressTracker); o flush da entidade nunca os sobrescreve
+    @Column(updatable = false)
+    private long totalSteps;
+
+    @Column(updatable = false)
+    private long successSteps;
+
+    @Column(updatable = false)
+    private long failedSteps;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -51,10 +51,21 @@ public class DisbursementStep implements Serializable {
 
     private LocalDateTime createdAt;
 
+    // Etapas do step, para medir a latência de ponta a ponta: envio ao Kafka, claim, aceite do gateway e status final
+    private LocalDateTime publishedAt;
+
+    private LocalDateTime processingAt;
+
+    private LocalDateTime sentAt;
+
+    private LocalDateTime settledAt;
+
     private LocalDateTime updatedAt;
 
     private String failureReason;
 
+    private String traceId;
+
     @JoinColumn(name = "batch_id")
     @ManyToOne(fetch = FetchType.LAZY)
     private DisbursementBatch batch;
@@ -0,0 +1,52 @@
+package com.celcoin.disbursement.model.entity;
+
+import com.celcoin.disbursement.model.utils.JobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_event")
+@Getter @Setter @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String topic;
+
+    private String messageKey;
+
+    private String traceId;
+
+    private String payloadType;
+
+    @Column(columnDefinition = "json")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    private int attempts;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
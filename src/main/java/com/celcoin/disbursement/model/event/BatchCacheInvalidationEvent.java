@@ -0,0 +1,7 @@
+package com.celcoin.disbursement.model.event;
+
+/**
+ * Aviso de que o lote mudou e as cópias em cache de todas as instâncias devem ser descartadas.
+ */
+public record BatchCacheInvalidationEvent(String clientCode, String batchId) {
+}
@@ -0,0 +1,13 @@
+package com.celcoin.disbursement.model.event;
+
+import com.celcoin.disbursement.model.utils.BatchStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mudanças de um lote acumuladas em uma janela do {@code BatchProgressNotifier}: o status do lote ao fim da janela
+ * e o último status de cada step alterado nela.
+ */
+public record BatchProgressEvent(String batchId, String clientCode, BatchStatus status, List<StepProgress> steps, LocalDateTime emittedAt) {
+}
@@ -0,0 +1,17 @@
+package com.celcoin.disbursement.model.event;
+
+/**
+ * Evento a ser publicado.
+ * @param key chave de particionamento; {@code null} deixa o produtor distribuir as mensagens entre as partições.
+ * @param traceId enviado no header {@code X-Trace-Id} da mensagem; {@code null} publica sem o header.
+ */
+public record OutboundEvent(String topic, String key, Object payload, String traceId) {
+
+    public OutboundEvent(String topic, String key, Object payload) {
+        this(topic, key, payload, null);
+    }
+
+    public OutboundEvent(String topic, Object payload) {
+        this(topic, null, payload);
+    }
+}
@@ -0,0 +1,26 @@
+package com.celcoin.disbursement.model.event;
+
+import java.util.List;
+
+/**
+ * Resultado de uma publicação em lote: quantas mensagens foram enviadas e quais falharam.
+ * @param total quantidade de mensagens submetidas.
+ * @param failures falhas individuais, com o índice da mensagem na lista original.
+ */
+public record PublishReport(int total, List<PublishFailure> failures) {
+
+    public record PublishFailure(int index, OutboundEvent event, String reason) {
+    }
+
+    public static PublishReport success(int total) {
+        return new PublishReport(total, List.of());
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    public int succeeded() {
+        return total - failures.size();
+    }
+}
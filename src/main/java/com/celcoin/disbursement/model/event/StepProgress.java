@@ -0,0 +1,7 @@
+package com.celcoin.disbursement.model.event;
+
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+
+public record StepProgress(String stepId, StepType type, StepStatus status, String externalId) {
+}
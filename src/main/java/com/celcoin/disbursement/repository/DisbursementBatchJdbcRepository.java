@@ -0,0 +1,34 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.SummaryBucket;
+import com.celcoin.disbursement.model.dto.SummaryDelta;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Manutenção e leitura de {@code disbursement_batch_summary} (quantidade e valor dos steps por lote, tipo e status)
+ * direto via JDBC.
+ */
+public interface DisbursementBatchJdbcRepository {
+
+    /**
+     * Soma as variações às linhas do resumo com um único {@code INSERT ... ON DUPLICATE KEY UPDATE},
+     * criando as linhas que ainda não existem. Deve rodar na mesma transação que alterou os steps.
+     * As linhas são gravadas sempre na mesma ordem (lote, tipo, status) para que transações concorrentes
+     * travem as linhas na mesma sequência.
+     */
+    void applySummaryDeltas(Collection<SummaryDelta> deltas, LocalDateTime updatedAt);
+
+    /**
+     * Linhas do resumo do lote, sem ler a tabela de steps.
+     */
+    List<SummaryBucket> findSummary(String batchId);
+
+    /**
+     * Recalcula o resumo do lote a partir da tabela de steps.
+     * @return quantidade de linhas gravadas.
+     */
+    int rebuildSummary(String batchId, LocalDateTime updatedAt);
+}
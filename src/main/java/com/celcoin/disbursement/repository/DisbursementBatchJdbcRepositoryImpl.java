@@ -0,0 +1,83 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.SummaryBucket;
+import com.celcoin.disbursement.model.dto.SummaryDelta;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class DisbursementBatchJdbcRepositoryImpl implements DisbursementBatchJdbcRepository {
+
+    private static final String UPSERT_SUMMARY =
+            "INSERT INTO disbursement_batch_summary (batch_id, type, status, step_count, amount, updated_at) VALUES ";
+    private static final String SUMMARY_VALUES = "(?, ?, ?, ?, ?, ?)";
+    private static final String SUMMARY_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE step_count = step_count + VALUES(step_count), " +
+            "amount = amount + VALUES(amount), updated_at = VALUES(updated_at)";
+
+    private static final String SELECT_SUMMARY =
+            "SELECT type, status, step_count, amount, updated_at FROM disbursement_batch_summary WHERE batch_id = ?";
+
+    private static final String DELETE_SUMMARY = "DELETE FROM disbursement_batch_summary WHERE batch_id = ?";
+    private static final String REBUILD_SUMMARY = """
+            INSERT INTO disbursement_batch_summary (batch_id, type, status, step_count, amount, updated_at)
+            SELECT batch_id, type, status, COUNT(*), COALESCE(SUM(amount), 0), ?
+            FROM disbursement_step
+            WHERE batch_id = ?
+            GROUP BY batch_id, type, status
+            """;
+
+    private static final Comparator<SummaryDelta> LOCK_ORDER = Comparator.comparing(SummaryDelta::batchId)
+            .thenComparing(SummaryDelta::type)
+            .thenComparing(SummaryDelta::status);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DisbursementBatchJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applySummaryDeltas(Collection<SummaryDelta> deltas, LocalDateTime updatedAt) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<SummaryDelta> ordered = deltas.stream().sorted(LOCK_ORDER).toList();
+        String sql = UPSERT_SUMMARY + String.join(", ", Collections.nCopies(ordered.size(), SUMMARY_VALUES)) + SUMMARY_ON_DUPLICATE;
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (SummaryDelta delta : ordered) {
+                ps.setString(index++, delta.batchId());
+                ps.setString(index++, delta.type().name());
+                ps.setString(index++, delta.status().name());
+                ps.setLong(index++, delta.count());
+                ps.setBigDecimal(index++, delta.amount());
+                ps.setTimestamp(index++, timestamp);
+            }
+        });
+    }
+
+    @Override
+    public List<SummaryBucket> findSummary(String batchId) {
+        return jdbcTemplate.query(SELECT_SUMMARY, (rs, rowNum) -> new SummaryBucket(
+                StepType.valueOf(rs.getString("type")),
+                StepStatus.valueOf(rs.getString("status")),
+                rs.getLong("step_count"),
+                rs.getBigDecimal("amount"),
+                rs.getTimestamp("updated_at").toLocalDateTime()), batchId);
+    }
+
+    @Override
+    public int rebuildSummary(String batchId, LocalDateTime updatedAt) {
+        jdbcTemplate.update(DELETE_SUMMARY, batchId);
+        return jdbcTemplate.update(REBUILD_SUMMARY, Timestamp.valueOf(updatedAt), batchId);
+    }
+}
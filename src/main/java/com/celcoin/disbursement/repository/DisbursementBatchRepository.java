@@ -1,28 +1,103 @@
 package com.celcoin.disbursement.repository;
 
+import com.celcoin.disbursement.model.dto.BatchProgress;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.StepStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface DisbursementBatchRepository extends JpaRepository<DisbursementBatch, String> {
+public interface DisbursementBatchRepository extends JpaRepository<DisbursementBatch, String>, DisbursementBatchJdbcRepository {
 
     Optional<DisbursementBatch> findByClientCode(String clientCode);
 
-    List<DisbursementBatch> findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(BatchStatus status, ScheduleType type, LocalDateTime time);
+    /**
+     * Trava os próximos lotes agendados já vencidos e sem lease vigente. Linhas travadas por outra instância são puladas:
+     * cada nó do scheduler recebe um conjunto disjunto de lotes. Deve ser seguido de {@link #extendSchedulerLease}
+     * na mesma transação.
+     */
+    @Query(value = "SELECT * FROM disbursement_batch WHERE status = 'NOT_EXECUTED' AND schedule_type = 'SCHEDULED' " +
+            "AND schedule_date <= :now AND (scheduler_lease_until IS NULL OR scheduler_lease_until <= :now) " +
+            "ORDER BY schedule_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<DisbursementBatch> lockDueScheduled(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
-    List<DisbursementBatch> findByStatusAndScheduleType(BatchStatus status, ScheduleType type);
+    /**
+     * Trava os próximos lotes recorrentes sem lease vigente, os avaliados há mais tempo primeiro (lease nulo vem antes).
+     * Deve ser seguido de {@link #extendSchedulerLease} na mesma transação.
+     */
+    @Query(value = "SELECT * FROM disbursement_batch WHERE status = 'RECURRENT' AND schedule_type = 'RECURRENT' " +
+            "AND (scheduler_lease_until IS NULL OR scheduler_lease_until <= :now) " +
+            "ORDER BY scheduler_lease_until LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<DisbursementBatch> lockRecurrentWithoutLease(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Reserva os lotes até {@code leaseUntil}: nenhuma instância volta a reivindicá-los antes disso.
+     */
+    @Modifying
+    @Query(value = "UPDATE disbursement_batch SET scheduler_lease_until = :leaseUntil WHERE id IN (:batchIds)",
+            nativeQuery = true)
+    int extendSchedulerLease(@Param("batchIds") Collection<String> batchIds, @Param("leaseUntil") LocalDateTime leaseUntil);
 
     @Query("SELECT count(s) FROM DisbursementStep s WHERE s.batch.id = :batchId AND s.status = :status")
     long countStepsByStatus(@Param("batchId") String batchId, @Param("status") StepStatus status);
 
     @Query("SELECT count(s) FROM DisbursementStep s WHERE s.batch.id = :batchId")
     long countSteps(@Param("batchId") String batchId);
+
+    @Query("SELECT new com.celcoin.disbursement.model.dto.BatchProgress(b.id, b.totalSteps, b.successSteps, b.failedSteps) " +
+            "FROM DisbursementBatch b WHERE b.id = :batchId")
+    BatchProgress findProgress(@Param("batchId") String batchId);
+
+    @Query("SELECT new com.celcoin.disbursement.model.dto.BatchProgress(b.id, b.totalSteps, b.successSteps, b.failedSteps) " +
+            "FROM DisbursementBatch b WHERE b.status = :status AND b.scheduleType <> :excludedType")
+    List<BatchProgress> findProgressByStatus(@Param("status") BatchStatus status, @Param("excludedType") ScheduleType excludedType);
+
+    /**
+     * Progresso calculado a partir da tabela de steps, usado como fonte da verdade na reconciliação.
+     */
+    @Query("SELECT new com.celcoin.disbursement.model.dto.BatchProgress(b.id, count(s), " +
+            "coalesce(sum(case when s.status = com.celcoin.disbursement.model.utils.StepStatus.SUCCESS then 1L else 0L end), 0L), " +
+            "coalesce(sum(case when s.status = com.celcoin.disbursement.model.utils.StepStatus.FAILED then 1L else 0L end), 0L)) " +
+            "FROM DisbursementStep s JOIN s.batch b WHERE b.id = :batchId GROUP BY b.id")
+    Optional<BatchProgress> countStepProgress(@Param("batchId") String batchId);
+
+    @Query("SELECT new com.celcoin.disbursement.model.dto.BatchProgress(b.id, count(s), " +
+            "coalesce(sum(case when s.status = com.celcoin.disbursement.model.utils.StepStatus.SUCCESS then 1L else 0L end), 0L), " +
+            "coalesce(sum(case when s.status = com.celcoin.disbursement.model.utils.StepStatus.FAILED then 1L else 0L end), 0L)) " +
+            "FROM DisbursementStep s JOIN s.batch b WHERE b.status = :status AND b.scheduleType <> :excludedType GROUP BY b.id")
+    List<BatchProgress> countStepProgressByStatus(@Param("status") BatchStatus status, @Param("excludedType") ScheduleType excludedType);
+
+    /**
+     * Soma os deltas aos contadores em um único UPDATE atômico: callbacks concorrentes do mesmo lote serializam na linha do lote.
+     */
+    @Modifying
+    @Query("UPDATE DisbursementBatch b SET b.successSteps = b.successSteps + :successDelta, " +
+            "b.failedSteps = b.failedSteps + :failedDelta WHERE b.id = :batchId")
+    int incrementStepCounters(@Param("batchId") String batchId,
+                              @Param("successDelta") long successDelta,
+                              @Param("failedDelta") long failedDelta);
+
+    @Modifying
+    @Query("UPDATE DisbursementBatch b SET b.totalSteps = :totalSteps, b.successSteps = :successSteps, " +
+            "b.failedSteps = :failedSteps WHERE b.id = :batchId")
+    int overwriteStepCounters(@Param("batchId") String batchId,
+                              @Param("totalSteps") long totalSteps,
+                              @Param("successSteps") long successSteps,
+                              @Param("failedSteps") long failedSteps);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DisbursementBatch b WHERE b.id = :batchId")
+    Optional<DisbursementBatch> findByIdForUpdate(@Param("batchId") String batchId);
 }
@@ -0,0 +1,69 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.StepStatusResponse;
+import com.celcoin.disbursement.model.dto.StepTimeline;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Operações em massa sobre {@code disbursement_step} executadas direto via JDBC,
+ * sem passar pelo ciclo de vida de entidades do Hibernate.
+ */
+public interface DisbursementStepJdbcRepository {
+
+    /**
+     * Insere todos os steps usando statements agrupados em lotes JDBC.
+     * Deve ser chamado dentro de uma transação para que o lote e seus steps sejam gravados atomicamente.
+     * @param steps steps já montados (com id e batch preenchidos).
+     */
+    void insertAll(List<DisbursementStep> steps);
+
+    /**
+     * Move para PROCESSING os steps ainda pendentes, registrando o instante do claim. Um {@code UPDATE} condicional
+     * por step, enviados em lotes JDBC, para saber exatamente quais steps esta transação moveu: os que outro consumidor
+     * moveu no meio do caminho ficam de fora.
+     * @return ids dos steps efetivamente atualizados, na ordem recebida.
+     */
+    List<String> claimPending(Collection<String> stepIds, LocalDateTime now);
+
+    /**
+     * Grava os externalIds devolvidos por um envio em lote com um {@code UPDATE ... CASE} por bloco de steps,
+     * em vez de um {@code saveAndFlush} por step. O mesmo instante é gravado como {@code sent_at}.
+     * @return quantidade de steps atualizados.
+     */
+    int updateExternalIds(Map<String, String> externalIdByStepId, LocalDateTime updatedAt);
+
+    /**
+     * Registra o primeiro envio ao Kafka dos eventos dos steps; reenvios (recorrência, retentativas do outbox)
+     * não sobrescrevem o instante original.
+     * @return quantidade de steps atualizados.
+     */
+    int markPublished(Collection<String> stepIds, LocalDateTime publishedAt);
+
+    /**
+     * Instantes de cada etapa dos steps de um lote, lidos direto da tabela sem carregar as entidades.
+     */
+    List<StepTimeline> findTimelines(String batchId);
+
+    /**
+     * Página de status dos steps do lote por keyset: ordem de id, começando depois de {@code afterStepId}.
+     * Usa o índice de {@code batch_id} (ou {@code batch_id, status} com um único status no filtro), então o custo
+     * de cada página não cresce com a posição no lote.
+     * @param statuses filtro de status; vazio traz todos.
+     * @param afterStepId cursor exclusivo; {@code null} começa do primeiro step.
+     */
+    List<StepStatusResponse> findStepStatusPage(String batchId, Collection<StepStatus> statuses, String afterStepId, int limit);
+
+    /**
+     * Percorre os status dos steps do lote em um cursor do servidor (result set em streaming do MySQL),
+     * entregando uma linha por vez sem carregar o lote em memória. A conexão fica presa até o fim da leitura.
+     * @param statuses filtro de status; vazio traz todos.
+     */
+    void streamStepStatuses(String batchId, Collection<StepStatus> statuses, Consumer<StepStatusResponse> consumer);
+}
@@ -0,0 +1,226 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.StepStatusResponse;
+import com.celcoin.disbursement.model.dto.StepTimeline;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class DisbursementStepJdbcRepositoryImpl implements DisbursementStepJdbcRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisbursementStepJdbcRepositoryImpl.class);
+
+    private static final String INSERT_STEP = """
+            INSERT INTO disbursement_step
+                (id, batch_id, type, amount, payload, status, external_id, attempts, failure_reason, trace_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CLAIM_PENDING =
+            "UPDATE disbursement_step SET status = 'PROCESSING', updated_at = ?, processing_at = ? WHERE id = ? AND status = 'PENDING'";
+
+    private static final String UPDATE_EXTERNAL_ID = "UPDATE disbursement_step SET external_id = CASE id";
+    private static final String EXTERNAL_ID_WHEN = " WHEN ? THEN ?";
+
+    private static final String MARK_PUBLISHED = "UPDATE disbursement_step SET published_at = COALESCE(published_at, ?) WHERE id IN (";
+
+    private static final String SELECT_TIMELINES = """
+            SELECT id, type, status, created_at, published_at, processing_at, sent_at, settled_at
+            FROM disbursement_step
+            WHERE batch_id = ?
+            """;
+
+    private static final String SELECT_STEP_STATUS = "SELECT id, status, external_id FROM disbursement_step WHERE batch_id = ?";
+
+    private static final RowMapper<StepStatusResponse> STEP_STATUS_MAPPER = (rs, rowNum) -> new StepStatusResponse(
+            rs.getString("id"),
+            StepStatus.valueOf(rs.getString("status")),
+            rs.getString("external_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    // fetchSize Integer.MIN_VALUE faz o Connector/J entregar as linhas conforme chegam, em vez de carregar o result set inteiro
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public DisbursementStepJdbcRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                              @Value("${disbursement.ingestion.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public void insertAll(List<DisbursementStep> steps) {
+        if (steps.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_STEP, steps, batchSize, (ps, step) -> {
+            ps.setString(1, step.getId());
+            ps.setString(2, step.getBatch().getId());
+            ps.setString(3, step.getType().name());
+            ps.setBigDecimal(4, step.getAmount());
+            ps.setString(5, step.getPayload());
+            ps.setString(6, step.getStatus().name());
+            ps.setString(7, step.getExternalId());
+            ps.setInt(8, step.getAttempts());
+            ps.setString(9, step.getFailureReason());
+            ps.setString(10, step.getTraceId());
+            ps.setTimestamp(11, toTimestamp(step.getCreatedAt()));
+            ps.setTimestamp(12, toTimestamp(step.getUpdatedAt()));
+        });
+        logger.debug("{} steps inseridos em lotes de {}", steps.size(), batchSize);
+    }
+
+    @Override
+    public List<String> claimPending(Collection<String> stepIds, LocalDateTime now) {
+        if (stepIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = new ArrayList<>(stepIds);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        // Com rewriteBatchedStatements o Connector/J envia os UPDATEs como multi-statement e devolve a contagem de cada um
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_PENDING, ids, batchSize, (ps, id) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setString(3, id);
+        });
+
+        List<String> claimed = new ArrayList<>(ids.size());
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count > 0) {
+                    claimed.add(ids.get(index));
+                }
+                index++;
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public int updateExternalIds(Map<String, String> externalIdByStepId, LocalDateTime updatedAt) {
+        if (externalIdByStepId.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<String, String>> entries = new ArrayList<>(externalIdByStepId.entrySet());
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<String, String>> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            String sql = UPDATE_EXTERNAL_ID + EXTERNAL_ID_WHEN.repeat(chunk.size())
+                    + " END, updated_at = ?, sent_at = ? WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            updated += jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                for (Map.Entry<String, String> entry : chunk) {
+                    ps.setString(index++, entry.getKey());
+                    ps.setString(index++, entry.getValue());
+                }
+                ps.setTimestamp(index++, timestamp);
+                ps.setTimestamp(index++, timestamp);
+                for (Map.Entry<String, String> entry : chunk) {
+                    ps.setString(index++, entry.getKey());
+                }
+            });
+        }
+        return updated;
+    }
+
+    @Override
+    public int markPublished(Collection<String> stepIds, LocalDateTime publishedAt) {
+        if (stepIds.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = new ArrayList<>(stepIds);
+        Timestamp timestamp = Timestamp.valueOf(publishedAt);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            String sql = MARK_PUBLISHED + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            updated += jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                ps.setTimestamp(index++, timestamp);
+                for (String id : chunk) {
+                    ps.setString(index++, id);
+                }
+            });
+        }
+        return updated;
+    }
+
+    @Override
+    public List<StepTimeline> findTimelines(String batchId) {
+        return jdbcTemplate.query(SELECT_TIMELINES, (rs, rowNum) -> new StepTimeline(
+                rs.getString("id"),
+                StepType.valueOf(rs.getString("type")),
+                StepStatus.valueOf(rs.getString("status")),
+                toLocalDateTime(rs, "created_at"),
+                toLocalDateTime(rs, "published_at"),
+                toLocalDateTime(rs, "processing_at"),
+                toLocalDateTime(rs, "sent_at"),
+                toLocalDateTime(rs, "settled_at")), batchId);
+    }
+
+    @Override
+    public List<StepStatusResponse> findStepStatusPage(String batchId, Collection<StepStatus> statuses, String afterStepId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = stepStatusQuery(batchId, statuses, args);
+        if (afterStepId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterStepId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), STEP_STATUS_MAPPER, args.toArray());
+    }
+
+    @Override
+    public void streamStepStatuses(String batchId, Collection<StepStatus> statuses, Consumer<StepStatusResponse> consumer) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = stepStatusQuery(batchId, statuses, args);
+        RowCallbackHandler handler = rs -> consumer.accept(STEP_STATUS_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static StringBuilder stepStatusQuery(String batchId, Collection<StepStatus> statuses, List<Object> args) {
+        StringBuilder sql = new StringBuilder(SELECT_STEP_STATUS);
+        args.add(batchId);
+        if (!statuses.isEmpty()) {
+            sql.append(" AND status IN (").append(String.join(", ", Collections.nCopies(statuses.size(), "?"))).append(")");
+            statuses.forEach(status -> args.add(status.name()));
+        }
+        return sql;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -1,11 +1,32 @@
 package com.celcoin.disbursement.repository;
 
 import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface DisbursementStepRepository extends JpaRepository<DisbursementStep, String> {
+public interface DisbursementStepRepository extends JpaRepository<DisbursementStep, String>, DisbursementStepJdbcRepository {
 
     Optional<DisbursementStep> findByExternalId(String externalId);
+
+    @Query("SELECT s FROM DisbursementStep s JOIN FETCH s.batch WHERE s.id IN :ids")
+    List<DisbursementStep> findAllWithBatchByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Move em massa os steps que ainda estão em {@code from} para {@code to}.
+     * @return quantidade de steps efetivamente atualizados.
+     */
+    @Modifying
+    @Query("UPDATE DisbursementStep s SET s.status = :to, s.updatedAt = :now WHERE s.id IN :ids AND s.status = :from")
+    int updateStatus(@Param("ids") Collection<String> ids,
+                     @Param("from") StepStatus from,
+                     @Param("to") StepStatus to,
+                     @Param("now") LocalDateTime now);
 }
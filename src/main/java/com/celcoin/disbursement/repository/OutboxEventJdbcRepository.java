@@ -0,0 +1,14 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventJdbcRepository {
+
+    /**
+     * Insere os eventos em lotes JDBC, participando da transação corrente.
+     * @param events eventos ainda sem id (gerado pelo banco).
+     */
+    void insertAll(List<OutboxEvent> events);
+}
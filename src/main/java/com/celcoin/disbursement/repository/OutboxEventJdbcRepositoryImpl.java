@@ -0,0 +1,43 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class OutboxEventJdbcRepositoryImpl implements OutboxEventJdbcRepository {
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO outbox_event (topic, message_key, trace_id, payload_type, payload, status, attempts, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public OutboxEventJdbcRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                         @Value("${disbursement.ingestion.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, batchSize, (ps, event) -> {
+            ps.setString(1, event.getTopic());
+            ps.setString(2, event.getMessageKey());
+            ps.setString(3, event.getTraceId());
+            ps.setString(4, event.getPayloadType());
+            ps.setString(5, event.getPayload());
+            ps.setString(6, event.getStatus().name());
+            ps.setInt(7, event.getAttempts());
+            ps.setTimestamp(8, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+}
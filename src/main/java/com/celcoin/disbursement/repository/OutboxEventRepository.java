@@ -0,0 +1,19 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventJdbcRepository {
+
+    /**
+     * Trava os próximos eventos pendentes. Linhas já travadas por outra instância são puladas,
+     * permitindo que vários nós drenem o outbox em paralelo sem enviar o mesmo evento duas vezes.
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextPending(@Param("limit") int limit);
+}
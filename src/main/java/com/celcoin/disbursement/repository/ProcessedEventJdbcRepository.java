@@ -0,0 +1,35 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.TableSize;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ProcessedEventJdbcRepository {
+
+    /**
+     * Marca o evento como processado em um único comando ({@code INSERT}); só a chave duplicada vira {@code false},
+     * os demais erros do banco são lançados.
+     * @return {@code true} se a linha foi inserida agora, {@code false} se o evento já estava registrado.
+     */
+    boolean claim(String eventId, String consumerGroup, LocalDateTime processedAt);
+
+    /**
+     * Marca todos os eventos como processados em um único {@code INSERT} de várias linhas, atômico:
+     * se algum id já estiver registrado, nenhuma linha é inserida.
+     * @return a quantidade de linhas inseridas: todas ou {@code 0}.
+     */
+    int claimAll(Collection<String> eventIds, String consumerGroup, LocalDateTime processedAt);
+
+    /**
+     * Remove até {@code limit} registros processados antes de {@code cutoff}, dos mais antigos para os mais novos.
+     * Executado fora de transação, cada chamada é uma transação curta que só trava linhas frias.
+     * @return a quantidade de linhas removidas.
+     */
+    int deleteProcessedBefore(LocalDateTime cutoff, int limit);
+
+    /**
+     * Tamanho estimado da tabela {@code processed_events}.
+     */
+    TableSize estimateSize();
+}
@@ -0,0 +1,72 @@
+package com.celcoin.disbursement.repository;
+
+import com.celcoin.disbursement.model.dto.TableSize;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class ProcessedEventJdbcRepositoryImpl implements ProcessedEventJdbcRepository {
+
+    // Sem IGNORE: só a chave duplicada é tratada como "já processado"; qualquer outro erro (ex.: id maior que a coluna) é lançado
+    private static final String CLAIM_EVENT = "INSERT INTO processed_events (event_id, consumer_group, processed_at) VALUES ";
+    private static final String EVENT_VALUES = "(?, ?, ?)";
+    private static final String DELETE_PROCESSED_BEFORE =
+            "DELETE FROM processed_events WHERE processed_at < ? ORDER BY processed_at LIMIT ?";
+    private static final String TABLE_SIZE =
+            "SELECT COALESCE(TABLE_ROWS, 0), COALESCE(DATA_LENGTH, 0) + COALESCE(INDEX_LENGTH, 0) FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'processed_events'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProcessedEventJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String eventId, String consumerGroup, LocalDateTime processedAt) {
+        try {
+            return jdbcTemplate.update(CLAIM_EVENT + EVENT_VALUES, eventId, consumerGroup, Timestamp.valueOf(processedAt)) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int claimAll(Collection<String> eventIds, String consumerGroup, LocalDateTime processedAt) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+
+        // Um único comando multi-linha: o InnoDB desfaz o statement inteiro se algum id já existir
+        String sql = CLAIM_EVENT + String.join(", ", Collections.nCopies(eventIds.size(), EVENT_VALUES));
+        Timestamp timestamp = Timestamp.valueOf(processedAt);
+        try {
+            return jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                for (String eventId : eventIds) {
+                    ps.setString(index++, eventId);
+                    ps.setString(index++, consumerGroup);
+                    ps.setTimestamp(index++, timestamp);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public int deleteProcessedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_PROCESSED_BEFORE, Timestamp.valueOf(cutoff), limit);
+    }
+
+    @Override
+    public TableSize estimateSize() {
+        List<TableSize> sizes = jdbcTemplate.query(TABLE_SIZE, (rs, rowNum) -> new TableSize(rs.getLong(1), rs.getLong(2)));
+        return sizes.isEmpty() ? new TableSize(0, 0) : sizes.getFirst();
+    }
+}
@@ -2,6 +2,14 @@ package com.celcoin.disbursement.repository;
 
 import com.celcoin.disbursement.model.entity.ProcessedEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+import java.util.Collection;
+import java.util.List;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String>, ProcessedEventJdbcRepository {
+
+    @Query("SELECT e.eventId FROM ProcessedEvent e WHERE e.eventId IN :eventIds")
+    List<String> findExistingIds(@Param("eventIds") Collection<String> eventIds);
 }
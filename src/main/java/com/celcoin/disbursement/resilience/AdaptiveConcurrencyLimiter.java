@@ -0,0 +1,125 @@
+package com.celcoin.disbursement.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de chamadas simultâneas que se ajusta sozinho (AIMD): cresce devagar, cerca de uma vaga a cada
+ * {@code limite} respostas rápidas, enquanto o limite está em uso, e cai multiplicativamente quando a latência passa do
+ * alvo ou o canal responde com erro de sobrecarga.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+    private volatile int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Reserva uma vaga, esperando no máximo {@code maxWait} se o limite estiver tomado.
+     * @return {@code false} se não houve vaga dentro do prazo.
+     */
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        long remainingNanos = maxWait.toNanos();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve a vaga de uma chamada concluída, usando a latência observada para ajustar o limite.
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                decrease();
+            } else if (inFlight * 2 >= limit) {
+                // Só cresce quando o limite atual está de fato sendo usado
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve a vaga de uma chamada que falhou por sobrecarga do canal (timeout, 5xx, conexão recusada).
+     */
+    public void onOverload() {
+        lock.lock();
+        try {
+            decrease();
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve a vaga sem ajustar o limite (falha que não diz nada sobre a saúde do canal).
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public boolean isSaturated() {
+        return inFlight >= (int) limit;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private void release() {
+        inFlight--;
+        // signalAll: o limite pode ter crescido e liberado mais de uma vaga
+        permitReleased.signalAll();
+    }
+}
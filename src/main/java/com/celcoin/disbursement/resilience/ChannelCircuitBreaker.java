@@ -0,0 +1,163 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.model.utils.StepType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker por canal com janela deslizante das últimas {@code windowSize} chamadas.
+ * <ul>
+ *     <li>CLOSED: deixa tudo passar; abre quando a taxa de falha da janela passa do limite (com um mínimo de chamadas).</li>
+ *     <li>OPEN: recusa na hora; depois de {@code openDuration} passa para HALF_OPEN.</li>
+ *     <li>HALF_OPEN: deixa passar só {@code halfOpenProbes} chamadas de teste; todas com sucesso fecham, qualquer falha reabre.</li>
+ * </ul>
+ * Cada permissão carrega a geração do estado em que foi concedida, então chamadas que terminam depois de uma
+ * transição não contam para o novo estado.
+ */
+public class ChannelCircuitBreaker {
+
+    public static final long REJECTED = -1L;
+
+    private final StepType channel;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final Clock clock;
+    private final Consumer<CircuitBreakerStateChangedEvent> onTransition;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long generation;
+    private Instant openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public ChannelCircuitBreaker(StepType channel, int windowSize, int minimumCalls, double failureRateThreshold,
+                                 Duration openDuration, int halfOpenProbes, Clock clock,
+                                 Consumer<CircuitBreakerStateChangedEvent> onTransition) {
+        this.channel = channel;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * @return a geração da permissão concedida, ou {@link #REJECTED} se a chamada deve falhar imediatamente.
+     */
+    public synchronized long tryAcquire() {
+        if (state == CircuitState.OPEN) {
+            if (!openTimeoutElapsed()) {
+                return REJECTED;
+            }
+            transitionTo(CircuitState.HALF_OPEN);
+        }
+
+        if (state == CircuitState.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes - probeSuccesses) {
+                return REJECTED;
+            }
+            probesInFlight++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            probesInFlight--;
+            if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(CircuitState.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            transitionTo(CircuitState.OPEN);
+            return;
+        }
+        record(true);
+        if (recordedCalls >= minimumCalls && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+            transitionTo(CircuitState.OPEN);
+        }
+    }
+
+    /**
+     * Devolve a permissão de uma chamada cujo resultado não diz nada sobre a saúde do canal.
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == CircuitState.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Passa de OPEN para HALF_OPEN quando o tempo de espera acabou, mesmo sem chamadas chegando
+     * (os listeners ficam pausados enquanto o circuito está aberto).
+     */
+    public synchronized void checkOpenTimeout() {
+        if (state == CircuitState.OPEN && openTimeoutElapsed()) {
+            transitionTo(CircuitState.HALF_OPEN);
+        }
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public StepType getChannel() {
+        return channel;
+    }
+
+    private boolean openTimeoutElapsed() {
+        return !clock.instant().isBefore(openedAt.plus(openDuration));
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length && window[windowIndex]) {
+            failedCalls--;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+        recordedCalls = Math.min(recordedCalls + 1, window.length);
+    }
+
+    private void transitionTo(CircuitState next) {
+        CircuitState previous = state;
+        state = next;
+        generation++;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (next == CircuitState.OPEN) {
+            openedAt = clock.instant();
+        }
+        if (next == CircuitState.CLOSED) {
+            windowIndex = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+        }
+        onTransition.accept(new CircuitBreakerStateChangedEvent(channel, previous, next));
+    }
+}
@@ -0,0 +1,65 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Um {@link AdaptiveConcurrencyLimiter} por canal, com limite, vagas em uso e rejeições exportados como métricas.
+ */
+@Component
+public class ChannelConcurrencyLimiters {
+
+    private final Map<StepType, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(StepType.class);
+    private final Duration maxWait;
+
+    public ChannelConcurrencyLimiters(MeterRegistry meterRegistry,
+                                      @Value("${disbursement.limiter.max-wait:PT5S}") Duration maxWait,
+                                      @Value("${disbursement.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${disbursement.limiter.pix.initial-limit:20}") int pixInitialLimit,
+                                      @Value("${disbursement.limiter.pix.min-limit:2}") int pixMinLimit,
+                                      @Value("${disbursement.limiter.pix.max-limit:256}") int pixMaxLimit,
+                                      @Value("${disbursement.limiter.pix.latency-threshold:PT1S}") Duration pixLatencyThreshold,
+                                      @Value("${disbursement.limiter.ted.initial-limit:10}") int tedInitialLimit,
+                                      @Value("${disbursement.limiter.ted.min-limit:1}") int tedMinLimit,
+                                      @Value("${disbursement.limiter.ted.max-limit:64}") int tedMaxLimit,
+                                      @Value("${disbursement.limiter.ted.latency-threshold:PT3S}") Duration tedLatencyThreshold) {
+        this.maxWait = maxWait;
+        this.limiters.put(StepType.PIX, new AdaptiveConcurrencyLimiter(pixInitialLimit, pixMinLimit, pixMaxLimit, pixLatencyThreshold, backoffRatio));
+        this.limiters.put(StepType.TED, new AdaptiveConcurrencyLimiter(tedInitialLimit, tedMinLimit, tedMaxLimit, tedLatencyThreshold, backoffRatio));
+
+        limiters.forEach((channel, limiter) -> {
+            Gauge.builder("channel.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Limite atual de chamadas simultâneas ao canal")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+            Gauge.builder("channel.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Chamadas ao canal em andamento")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("channel.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                    .description("Envios que não conseguiram vaga no canal dentro do prazo")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+        });
+    }
+
+    public AdaptiveConcurrencyLimiter forChannel(StepType channel) {
+        return limiters.get(channel);
+    }
+
+    public Map<StepType, AdaptiveConcurrencyLimiter> all() {
+        return limiters;
+    }
+
+    public Duration maxWait() {
+        return maxWait;
+    }
+}
@@ -0,0 +1,24 @@
+package com.celcoin.disbursement.resilience;
+
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+
+/**
+ * Classifica falhas dos adapters: só erros de comunicação com o gateway (timeout, conexão recusada, 5xx)
+ * dizem algo sobre a saúde do canal. Payload inválido, por exemplo, não conta.
+ */
+public final class ChannelFailures {
+
+    private ChannelFailures() {
+    }
+
+    public static boolean isChannelFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
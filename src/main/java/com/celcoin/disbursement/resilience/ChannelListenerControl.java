@@ -0,0 +1,111 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.kafka.ListenerIds;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pausa e retoma os listener containers de requisição de um canal (inclusive os dos tópicos de retry).
+ * Cada pausa tem um motivo (saturação, circuito aberto); o consumo só volta quando nenhum motivo resta.
+ * Com o circuito meio aberto só os containers principais voltam, para as sondas; os dos tópicos de retry
+ * continuam pausados até o circuito fechar.
+ */
+@Component
+public class ChannelListenerControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelListenerControl.class);
+    static final String CIRCUIT_BREAKER = "circuit-breaker";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final Map<StepType, Set<String>> pauseReasons = new EnumMap<>(StepType.class);
+    // Canais com o circuito meio aberto: containers de retry ficam pausados mesmo sem motivo de pausa
+    private final Set<StepType> probing = EnumSet.noneOf(StepType.class);
+
+    public ChannelListenerControl(KafkaListenerEndpointRegistry registry, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        for (StepType channel : StepType.values()) {
+            Set<String> reasons = ConcurrentHashMap.newKeySet();
+            pauseReasons.put(channel, reasons);
+            Gauge.builder("channel.listener.paused", reasons, set -> set.isEmpty() ? 0 : 1)
+                    .description("1 quando o consumo de requisições do canal está pausado")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void pause(StepType channel, String reason) {
+        Set<String> reasons = pauseReasons.get(channel);
+        boolean wasRunning = reasons.isEmpty();
+        if (reasons.add(reason) && wasRunning) {
+            applyToContainers(channel);
+            logger.warn("Consumo de requisições {} pausado ({})", channel, reason);
+        }
+    }
+
+    public synchronized void resume(StepType channel, String reason) {
+        Set<String> reasons = pauseReasons.get(channel);
+        if (reasons.remove(reason) && reasons.isEmpty()) {
+            applyToContainers(channel);
+            logger.info("Consumo de requisições {} retomado ({})", channel, reason);
+        }
+    }
+
+    public boolean isPaused(StepType channel) {
+        return !pauseReasons.get(channel).isEmpty();
+    }
+
+    // Circuito aberto: para de consumir. Meio aberto: só os containers principais voltam, para que as sondas cheguem
+    // ao canal; nos de retry as mensagens recusadas além das sondas gastariam as tentativas e iriam para o DLT.
+    // Fechado: todos voltam.
+    @EventListener
+    public synchronized void onCircuitStateChanged(CircuitBreakerStateChangedEvent event) {
+        StepType channel = event.channel();
+        if (event.to() == CircuitState.HALF_OPEN) {
+            probing.add(channel);
+        } else {
+            probing.remove(channel);
+        }
+
+        Set<String> reasons = pauseReasons.get(channel);
+        if (event.to() == CircuitState.OPEN) {
+            reasons.add(CIRCUIT_BREAKER);
+        } else {
+            reasons.remove(CIRCUIT_BREAKER);
+        }
+        applyToContainers(channel);
+        logger.info("Consumo de requisições {} com circuito {}: principais {}, retry {}", channel, event.to(),
+                isPaused(channel) ? "pausados" : "ativos", isPaused(channel) || probing.contains(channel) ? "pausados" : "ativos");
+    }
+
+    private void applyToContainers(StepType channel) {
+        boolean paused = isPaused(channel);
+        boolean retriesPaused = paused || probing.contains(channel);
+        String prefix = ListenerIds.requestPrefix(channel);
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            String listenerId = container.getListenerId();
+            if (listenerId == null || !listenerId.startsWith(prefix)) {
+                continue;
+            }
+
+            boolean pause = ListenerIds.isMainRequest(listenerId) ? paused : retriesPaused;
+            if (pause && !container.isPauseRequested()) {
+                container.pause();
+            } else if (!pause && container.isPauseRequested()) {
+                container.resume();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.exception.ChannelUnavailableException;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker e bulkhead de cada canal, aplicados em volta da chamada ao adapter.
+ * Com o circuito aberto ou o bulkhead cheio a chamada falha na hora com {@link ChannelUnavailableException},
+ * sem esperar o timeout do gateway.
+ */
+@Component
+public class ChannelResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelResilience.class);
+
+    private final Map<StepType, ChannelCircuitBreaker> breakers = new EnumMap<>(StepType.class);
+    private final Map<StepType, Semaphore> bulkheads = new EnumMap<>(StepType.class);
+    private final Map<StepType, Counter> rejectedByBreaker = new EnumMap<>(StepType.class);
+    private final Map<StepType, Counter> rejectedByBulkhead = new EnumMap<>(StepType.class);
+
+    public ChannelResilience(ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             Clock clock,
+                             @Value("${disbursement.circuit-breaker.window-size:50}") int windowSize,
+                             @Value("${disbursement.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                             @Value("${disbursement.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                             @Value("${disbursement.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                             @Value("${disbursement.circuit-breaker.half-open-probes:5}") int halfOpenProbes,
+                             @Value("${disbursement.bulkhead.pix.max-concurrent:200}") int pixMaxConcurrent,
+                             @Value("${disbursement.bulkhead.ted.max-concurrent:50}") int tedMaxConcurrent) {
+        bulkheads.put(StepType.PIX, new Semaphore(pixMaxConcurrent));
+        bulkheads.put(StepType.TED, new Semaphore(tedMaxConcurrent));
+
+        for (StepType channel : StepType.values()) {
+            ChannelCircuitBreaker breaker = new ChannelCircuitBreaker(channel, windowSize, minimumCalls, failureRateThreshold,
+                    openDuration, halfOpenProbes, clock, event -> {
+                        logger.warn("Circuit breaker do canal {}: {} -> {}", event.channel(), event.from(), event.to());
+                        meterRegistry.counter("channel.circuit.transitions",
+                                "channel", event.channel().name(), "to", event.to().name()).increment();
+                        eventPublisher.publishEvent(event);
+                    });
+            breakers.put(channel, breaker);
+
+            Gauge.builder("channel.circuit.state", breaker, b -> b.getState().getLevel())
+                    .description("Estado do circuit breaker do canal: 0 fechado, 1 meio aberto, 2 aberto")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+            rejectedByBreaker.put(channel, meterRegistry.counter("channel.circuit.rejected", "channel", channel.name()));
+            rejectedByBulkhead.put(channel, meterRegistry.counter("channel.bulkhead.rejected", "channel", channel.name()));
+        }
+    }
+
+    public void execute(StepType channel, Runnable call) {
+        call(channel, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T call(StepType channel, Supplier<T> call) {
+        ChannelCircuitBreaker breaker = breakers.get(channel);
+        long permit = breaker.tryAcquire();
+        if (permit == ChannelCircuitBreaker.REJECTED) {
+            rejectedByBreaker.get(channel).increment();
+            throw new ChannelUnavailableException("503", "Canal " + channel + " indisponível (circuito " + breaker.getState() + ")");
+        }
+
+        Semaphore bulkhead = bulkheads.get(channel);
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            breaker.onIgnored(permit);
+            rejectedByBulkhead.get(channel).increment();
+            throw new ChannelUnavailableException("503", "Canal " + channel + " sem vagas no bulkhead");
+        }
+
+        try {
+            T result = call.get();
+            breaker.onSuccess(permit);
+            return result;
+        } catch (RuntimeException e) {
+            if (ChannelFailures.isChannelFailure(e)) {
+                breaker.onFailure(permit);
+            } else {
+                breaker.onIgnored(permit);
+            }
+            throw e;
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    public CircuitState stateOf(StepType channel) {
+        return breakers.get(channel).getState();
+    }
+
+    // Sem este tique um circuito aberto nunca passaria a meio aberto, porque os listeners do canal estão pausados.
+    // O pool de agendamento (spring.task.scheduling.pool.size) tem uma thread por tarefa, então jobs lentos não o atrasam
+    @Scheduled(fixedDelayString = "${disbursement.circuit-breaker.check-interval-ms:1000}")
+    public void checkOpenCircuits() {
+        breakers.values().forEach(ChannelCircuitBreaker::checkOpenTimeout);
+    }
+}
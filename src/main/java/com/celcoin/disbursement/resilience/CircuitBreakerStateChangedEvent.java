@@ -0,0 +1,9 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.model.utils.StepType;
+
+/**
+ * Publicado como evento da aplicação a cada mudança de estado do circuit breaker de um canal.
+ */
+public record CircuitBreakerStateChangedEvent(StepType channel, CircuitState from, CircuitState to) {
+}
@@ -0,0 +1,17 @@
+package com.celcoin.disbursement.resilience;
+
+import lombok.Getter;
+
+@Getter
+public enum CircuitState {
+    CLOSED(0),
+    HALF_OPEN(1),
+    OPEN(2);
+
+    CircuitState(int level) {
+        this.level = level;
+    }
+
+    // Valor exportado na métrica de estado
+    private final int level;
+}
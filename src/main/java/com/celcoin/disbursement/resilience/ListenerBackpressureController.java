@@ -0,0 +1,60 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.model.utils.StepType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pausa os listeners de requisição de um canal quando o limitador do canal satura e os retoma quando as chamadas em
+ * andamento baixam. Com o consumo pausado as mensagens esperam no tópico, em vez de falhar por falta de vaga e
+ * consumir as tentativas do {@code @RetryableTopic}.
+ */
+@Component
+@ConditionalOnProperty(name = "disbursement.limiter.backpressure.enabled", havingValue = "true", matchIfMissing = true)
+public class ListenerBackpressureController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerBackpressureController.class);
+    private static final String BACKPRESSURE = "backpressure";
+
+    private final ChannelListenerControl listenerControl;
+    private final ChannelConcurrencyLimiters limiters;
+    private final double resumeRatio;
+    private final Map<StepType, Long> lastRejectedCount = new EnumMap<>(StepType.class);
+    private final Set<StepType> paused = EnumSet.noneOf(StepType.class);
+
+    public ListenerBackpressureController(ChannelListenerControl listenerControl,
+                                          ChannelConcurrencyLimiters limiters,
+                                          @Value("${disbursement.limiter.backpressure.resume-ratio:0.5}") double resumeRatio) {
+        this.listenerControl = listenerControl;
+        this.limiters = limiters;
+        this.resumeRatio = resumeRatio;
+    }
+
+    @Scheduled(fixedDelayString = "${disbursement.limiter.backpressure.interval-ms:500}")
+    public void adjust() {
+        limiters.all().forEach((channel, limiter) -> {
+            long rejected = limiter.getRejectedCount();
+            boolean rejecting = rejected > lastRejectedCount.getOrDefault(channel, rejected);
+            lastRejectedCount.put(channel, rejected);
+
+            if (!paused.contains(channel) && (rejecting || limiter.isSaturated())) {
+                paused.add(channel);
+                logger.warn("Canal {} saturado (limite {}, em andamento {}).", channel, limiter.getLimit(), limiter.getInFlight());
+                listenerControl.pause(channel, BACKPRESSURE);
+            } else if (paused.contains(channel) && !rejecting && limiter.getInFlight() <= limiter.getLimit() * resumeRatio) {
+                paused.remove(channel);
+                logger.info("Canal {} normalizado (limite {}, em andamento {}).", channel, limiter.getLimit(), limiter.getInFlight());
+                listenerControl.resume(channel, BACKPRESSURE);
+            }
+        });
+    }
+}
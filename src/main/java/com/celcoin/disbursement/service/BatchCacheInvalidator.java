@@ -0,0 +1,68 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.gateway.EventPublisher;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.event.BatchCacheInvalidationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+/**
+ * Invalida as cópias em cache de um lote ({@link BatchStatusCache} e {@link BatchSummaryService}) em todas as instâncias.
+ * <p>
+ * O aviso vai pelo outbox, na transação que alterou o lote, para o tópico compactado
+ * {@link KafkaTopicConfig#BATCH_CACHE_INVALIDATION_TOPIC}; cada instância o consome com um grupo próprio.
+ * A instância que fez a alteração também descarta as suas cópias logo após o commit, sem esperar o relay.
+ */
+@Component
+public class BatchCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCacheInvalidator.class);
+
+    private final BatchStatusCache statusCache;
+    private final BatchSummaryService summaryService;
+    private final EventPublisher eventPublisher;
+
+    public BatchCacheInvalidator(BatchStatusCache statusCache,
+                                 BatchSummaryService summaryService,
+                                 @Qualifier("outboxEventPublisher") EventPublisher eventPublisher) {
+        this.statusCache = statusCache;
+        this.summaryService = summaryService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Deve rodar na transação que alterou o lote: um rollback descarta também o aviso.
+     */
+    public void invalidate(DisbursementBatch batch) {
+        BatchCacheInvalidationEvent event = new BatchCacheInvalidationEvent(batch.getClientCode(), batch.getId());
+        // Chave = clientCode: a compactação mantém só o último aviso de cada lote
+        eventPublisher.publishAsync(KafkaTopicConfig.BATCH_CACHE_INVALIDATION_TOPIC, event.clientCode(), event);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(event);
+            }
+        });
+    }
+
+    /**
+     * Descarta as cópias locais do lote; chamado também para os avisos vindos de outras instâncias.
+     */
+    public void evict(BatchCacheInvalidationEvent event) {
+        logger.debug("Invalidando cache do lote {} (clientCode {})", event.batchId(), event.clientCode());
+        statusCache.invalidate(event.clientCode());
+        summaryService.evict(Set.of(event.batchId()));
+    }
+}
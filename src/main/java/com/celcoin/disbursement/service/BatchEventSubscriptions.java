@@ -0,0 +1,139 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.BatchSummaryResponse;
+import com.celcoin.disbursement.model.event.BatchProgressEvent;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conexões SSE abertas nesta instância, por clientCode.
+ * <p>
+ * Cada inscrição recebe um evento {@code summary} com o resumo do lote e um evento {@code progress} por
+ * {@link BatchProgressEvent} do lote publicado a partir da inscrição. O resumo vem do cache, descartado pelos mesmos
+ * avisos de progresso, então um {@code progress} pode chegar antes dele ou repetir o que ele já mostra. Quando o lote chega a um status final a conexão é encerrada.
+ */
+@Service
+public class BatchEventSubscriptions {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchEventSubscriptions.class);
+
+    private static final Set<BatchStatus> FINAL_STATUSES =
+            EnumSet.of(BatchStatus.EXECUTED_COMPLETELY, BatchStatus.PARTIALLY_EXECUTED, BatchStatus.FAILED);
+
+    private final BatchStatusCache statusCache;
+    private final BatchSummaryService summaryService;
+    private final long timeoutMs;
+    private final Map<String, Set<SseEmitter>> emittersByClientCode = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public BatchEventSubscriptions(BatchStatusCache statusCache,
+                                   BatchSummaryService summaryService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${disbursement.batch-events.sse-timeout:PT30M}") Duration timeout) {
+        this.statusCache = statusCache;
+        this.summaryService = summaryService;
+        this.timeoutMs = timeout.toMillis();
+        Gauge.builder("batch.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Conexões SSE abertas nesta instância")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String clientCode) {
+        BatchStatusView batch = statusCache.find(clientCode)
+                .orElseThrow(() -> new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + clientCode));
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        boolean settled = FINAL_STATUSES.contains(batch.status());
+        if (!settled) {
+            // Registra antes do resumo: um progress publicado enquanto o resumo é montado chega mesmo assim.
+            // Ele pode chegar antes do resumo ou repetir o que o resumo já mostra; o cliente compara pelo status do step
+            emitter.onCompletion(() -> remove(clientCode, emitter));
+            emitter.onTimeout(() -> remove(clientCode, emitter));
+            emitter.onError(e -> remove(clientCode, emitter));
+            emittersByClientCode.computeIfAbsent(clientCode, code -> ConcurrentHashMap.newKeySet()).add(emitter);
+            subscribers.incrementAndGet();
+        }
+
+        BatchSummaryResponse summary;
+        try {
+            summary = summaryService.summaryOf(clientCode).summary();
+        } catch (RuntimeException e) {
+            remove(clientCode, emitter);
+            throw e;
+        }
+        if (send(clientCode, emitter, SseEmitter.event().name("summary").data(summary)) && settled) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Repassa o evento às conexões do clientCode nesta instância; sem assinantes locais não faz nada.
+     */
+    public void dispatch(BatchProgressEvent event) {
+        Set<SseEmitter> emitters = emittersByClientCode.get(event.clientCode());
+        if (emitters == null) {
+            return;
+        }
+
+        boolean finished = FINAL_STATUSES.contains(event.status());
+        for (SseEmitter emitter : emitters) {
+            if (send(event.clientCode(), emitter, SseEmitter.event().name("progress").data(event)) && finished) {
+                remove(event.clientCode(), emitter);
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Comentário periódico: mantém a conexão viva em proxies e detecta clientes que já desconectaram.
+     */
+    @Scheduled(fixedDelayString = "${disbursement.batch-events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        emittersByClientCode.forEach((clientCode, emitters) ->
+                emitters.forEach(emitter -> send(clientCode, emitter, SseEmitter.event().comment("keepalive"))));
+    }
+
+    public int subscriberCount(String clientCode) {
+        Set<SseEmitter> emitters = emittersByClientCode.get(clientCode);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    private boolean send(String clientCode, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado ou conexão já encerrada
+            logger.debug("Conexão SSE do clientCode {} encerrada: {}", clientCode, e.getMessage());
+            remove(clientCode, emitter);
+            return false;
+        }
+    }
+
+    private void remove(String clientCode, SseEmitter emitter) {
+        emittersByClientCode.computeIfPresent(clientCode, (code, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscribers.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchLatencyResponse;
+import com.celcoin.disbursement.model.dto.ChannelLatency;
+import com.celcoin.disbursement.model.dto.StageLatency;
+import com.celcoin.disbursement.model.dto.StepTimeline;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Monta o detalhamento da latência de um lote a partir dos instantes gravados em cada step:
+ * <ul>
+ *     <li>{@code outbox}: criação até o envio ao Kafka pelo relay;</li>
+ *     <li>{@code queue}: envio ao Kafka até o claim pelo consumidor;</li>
+ *     <li>{@code dispatch}: claim até o aceite do gateway (externalId);</li>
+ *     <li>{@code settlement}: aceite do gateway até a confirmação final (webhook PIX / resposta TED);</li>
+ *     <li>{@code total}: criação até a confirmação final.</li>
+ * </ul>
+ */
+@Service
+public class BatchLatencyService {
+
+    private static final List<Stage> STAGES = List.of(
+            new Stage("outbox", StepTimeline::createdAt, StepTimeline::publishedAt),
+            new Stage("queue", StepTimeline::publishedAt, StepTimeline::processingAt),
+            new Stage("dispatch", StepTimeline::processingAt, StepTimeline::sentAt),
+            new Stage("settlement", StepTimeline::sentAt, StepTimeline::settledAt),
+            new Stage("total", StepTimeline::createdAt, StepTimeline::settledAt));
+
+    private final DisbursementBatchRepository batchRepository;
+    private final DisbursementStepRepository stepRepository;
+
+    public BatchLatencyService(DisbursementBatchRepository batchRepository, DisbursementStepRepository stepRepository) {
+        this.batchRepository = batchRepository;
+        this.stepRepository = stepRepository;
+    }
+
+    public BatchLatencyResponse latencyOf(String clientCode) {
+        DisbursementBatch batch = batchRepository.findByClientCode(clientCode)
+                .orElseThrow(() -> new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + clientCode));
+
+        Map<StepType, List<StepTimeline>> timelinesByType = new EnumMap<>(StepType.class);
+        for (StepTimeline timeline : stepRepository.findTimelines(batch.getId())) {
+            timelinesByType.computeIfAbsent(timeline.type(), type -> new ArrayList<>()).add(timeline);
+        }
+
+        List<ChannelLatency> channels = new ArrayList<>(timelinesByType.size());
+        timelinesByType.forEach((type, timelines) -> channels.add(channelLatency(type, timelines)));
+        return new BatchLatencyResponse(batch.getId(), batch.getClientCode(), batch.getStatus(), channels);
+    }
+
+    private static ChannelLatency channelLatency(StepType type, List<StepTimeline> timelines) {
+        List<StageLatency> stages = new ArrayList<>(STAGES.size());
+        for (Stage stage : STAGES) {
+            long[] samples = timelines.stream()
+                    .filter(timeline -> stage.from().apply(timeline) != null && stage.to().apply(timeline) != null)
+                    .mapToLong(timeline -> Duration.between(stage.from().apply(timeline), stage.to().apply(timeline)).toMillis())
+                    .toArray();
+            if (samples.length > 0) {
+                stages.add(stageLatency(stage.name(), samples));
+            }
+        }
+
+        long settled = timelines.stream().filter(timeline -> timeline.settledAt() != null).count();
+        return new ChannelLatency(type, timelines.size(), settled, stages);
+    }
+
+    private static StageLatency stageLatency(String name, long[] samples) {
+        Arrays.sort(samples);
+        return new StageLatency(name, samples.length,
+                percentile(samples, 50), percentile(samples, 95), percentile(samples, 99), samples[samples.length - 1]);
+    }
+
+    // Nearest-rank: sem interpolação, o valor devolvido é sempre uma amostra real
+    private static long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, Math.min(index, sortedSamples.length - 1))];
+    }
+
+    private record Stage(String name, Function<StepTimeline, LocalDateTime> from, Function<StepTimeline, LocalDateTime> to) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.gateway.KafkaEventPublisher;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.event.BatchProgressEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import com.celcoin.disbursement.model.event.StepProgress;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Avisa os assinantes (SSE) das mudanças de steps e lotes.
+ * <p>
+ * A transação de notificação só enfileira a mudança em memória, após o commit; um agendamento drena a fila a cada
+ * {@code flush-interval-ms}, junta as mudanças de cada lote em um único {@link BatchProgressEvent} e publica no tópico
+ * {@link KafkaTopicConfig#BATCH_PROGRESS_TOPIC}, lido por todas as instâncias. A entrega é de melhor esforço:
+ * com a fila cheia ou o broker indisponível os avisos são descartados, e o cliente recupera o estado pelo
+ * {@code /summary} (enviado também a cada nova inscrição).
+ */
+@Component
+public class BatchProgressNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchProgressNotifier.class);
+
+    private final KafkaEventPublisher kafkaPublisher;
+    private final int maxBuffered;
+    private final Queue<Change> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Counter dropped;
+
+    public BatchProgressNotifier(KafkaEventPublisher kafkaPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${disbursement.batch-events.max-buffered:100000}") int maxBuffered) {
+        this.kafkaPublisher = kafkaPublisher;
+        this.maxBuffered = maxBuffered;
+        this.dropped = Counter.builder("batch.events.dropped")
+                .description("Mudanças de step/lote descartadas por fila cheia ou falha de publicação")
+                .register(meterRegistry);
+    }
+
+    public void stepChanged(DisbursementStep step) {
+        DisbursementBatch batch = step.getBatch();
+        enqueueAfterCommit(new Change(batch.getId(), batch.getClientCode(), batch.getStatus(),
+                new StepProgress(step.getId(), step.getType(), step.getStatus(), step.getExternalId())));
+    }
+
+    public void batchChanged(DisbursementBatch batch) {
+        enqueueAfterCommit(new Change(batch.getId(), batch.getClientCode(), batch.getStatus(), null));
+    }
+
+    @Scheduled(fixedDelayString = "${disbursement.batch-events.flush-interval-ms:250}")
+    public void flush() {
+        Map<String, PendingBatch> pendingByBatch = new LinkedHashMap<>();
+        Change change;
+        while ((change = buffer.poll()) != null) {
+            buffered.decrementAndGet();
+            pendingByBatch.computeIfAbsent(change.batchId(), batchId -> new PendingBatch()).add(change);
+        }
+        if (pendingByBatch.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEvent> events = new ArrayList<>(pendingByBatch.size());
+        pendingByBatch.forEach((batchId, pending) -> {
+            BatchProgressEvent event = new BatchProgressEvent(batchId, pending.clientCode, pending.status,
+                    List.copyOf(pending.steps.values()), now);
+            // Chave = batchId: os avisos de um lote ficam em ordem na partição
+            events.add(new OutboundEvent(KafkaTopicConfig.BATCH_PROGRESS_TOPIC, batchId, event));
+        });
+
+        PublishReport report = kafkaPublisher.publishAll(events);
+        if (!report.isSuccessful()) {
+            dropped.increment(report.failures().size());
+            logger.warn("{} de {} avisos de progresso de lote não foram publicados", report.failures().size(), events.size());
+        }
+    }
+
+    // Só após o commit: um rollback não pode avisar o cliente de uma mudança que não aconteceu
+    private void enqueueAfterCommit(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(change);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(change);
+            }
+        });
+    }
+
+    private void enqueue(Change change) {
+        if (buffered.incrementAndGet() > maxBuffered) {
+            buffered.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        buffer.add(change);
+    }
+
+    private record Change(String batchId, String clientCode, BatchStatus batchStatus, StepProgress step) {
+    }
+
+    private static final class PendingBatch {
+        private String clientCode;
+        private BatchStatus status;
+        // Último status de cada step na janela, na ordem da primeira mudança
+        private final Map<String, StepProgress> steps = new LinkedHashMap<>();
+
+        private void add(Change change) {
+            clientCode = change.clientCode();
+            status = change.batchStatus();
+            if (change.step() != null) {
+                steps.put(change.step().stepId(), change.step());
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.BatchProgress;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Corrige periodicamente divergências entre os contadores dos lotes em andamento e a tabela de steps.
+ * Uma única consulta agrupada encontra os lotes divergentes; cada um é corrigido em uma transação curta,
+ * com a linha do lote travada para não perder incrementos concorrentes dos callbacks.
+ */
+@Service
+@ConditionalOnProperty(name = "disbursement.batch.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class BatchProgressReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchProgressReconciliationService.class);
+
+    private final DisbursementBatchRepository batchRepository;
+    private final BatchProgressTracker progressTracker;
+    private final BatchSummaryTracker summaryTracker;
+    private final BatchCacheInvalidator cacheInvalidator;
+    private final BatchProgressNotifier progressNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reconciledBatches;
+
+    public BatchProgressReconciliationService(DisbursementBatchRepository batchRepository,
+                                              BatchProgressTracker progressTracker,
+                                              BatchSummaryTracker summaryTracker,
+                                              BatchCacheInvalidator cacheInvalidator,
+                                              BatchProgressNotifier progressNotifier,
+                                              TransactionTemplate transactionTemplate,
+                                              MeterRegistry meterRegistry) {
+        this.batchRepository = batchRepository;
+        this.progressTracker = progressTracker;
+        this.summaryTracker = summaryTracker;
+        this.cacheInvalidator = cacheInvalidator;
+        this.progressNotifier = progressNotifier;
+        this.transactionTemplate = transactionTemplate;
+        this.reconciledBatches = Counter.builder("batch.progress.reconciled")
+                .description("Lotes cujos contadores de steps divergiam da tabela de steps")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return quantidade de lotes corrigidos.
+     */
+    @Scheduled(fixedDelayString = "${disbursement.batch.reconciliation.interval-ms:300000}",
+            initialDelayString = "${disbursement.batch.reconciliation.interval-ms:300000}")
+    public int reconcile() {
+        Map<String, BatchProgress> stored = batchRepository.findProgressByStatus(BatchStatus.PROCESSING, ScheduleType.RECURRENT)
+                .stream()
+                .collect(Collectors.toMap(BatchProgress::batchId, Function.identity()));
+        List<BatchProgress> counted = batchRepository.countStepProgressByStatus(BatchStatus.PROCESSING, ScheduleType.RECURRENT);
+
+        int reconciled = 0;
+        for (BatchProgress actual : counted) {
+            BatchProgress current = stored.get(actual.batchId());
+            if (current == null || current.equals(actual)) {
+                continue;
+            }
+
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcileBatch(actual.batchId())))) {
+                    reconciled++;
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao reconciliar os contadores do lote {}", actual.batchId(), e);
+            }
+        }
+
+        if (reconciled > 0) {
+            reconciledBatches.increment(reconciled);
+            logger.warn("Reconciliação: contadores de {} lotes corrigidos", reconciled);
+        }
+        return reconciled;
+    }
+
+    private boolean reconcileBatch(String batchId) {
+        DisbursementBatch batch = batchRepository.findByIdForUpdate(batchId).orElse(null);
+        if (batch == null || batch.getStatus() != BatchStatus.PROCESSING) {
+            return false;
+        }
+
+        // Com o lote travado, a recontagem não compete com os incrementos dos callbacks
+        BatchProgress stored = new BatchProgress(batchId, batch.getTotalSteps(), batch.getSuccessSteps(), batch.getFailedSteps());
+        BatchProgress actual = progressTracker.recount(batchId);
+        if (stored.equals(actual)) {
+            return false;
+        }
+
+        logger.warn("Contadores do lote {} divergentes: {} -> {}", batchId, stored, actual);
+        // O resumo por tipo e status sofre das mesmas perdas que os contadores: recalcula junto
+        summaryTracker.rebuild(batchId);
+        progressTracker.settledStatus(actual).ifPresent(newStatus -> {
+            batch.setStatus(newStatus);
+            batch.setUpdatedAt(LocalDateTime.now());
+            batchRepository.save(batch);
+            cacheInvalidator.invalidate(batch);
+            progressNotifier.batchChanged(batch);
+            logger.info("Status do lote {} atualizado para {} pela reconciliação.", batchId, newStatus);
+        });
+        return true;
+    }
+}
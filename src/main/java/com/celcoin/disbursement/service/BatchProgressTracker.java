@@ -0,0 +1,73 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.BatchProgress;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Mantém os contadores de steps do lote ({@code total_steps}, {@code success_steps}, {@code failed_steps})
+ * a cada mudança de status, de forma que verificar a conclusão de um lote não dependa de contar a tabela de steps.
+ */
+@Component
+public class BatchProgressTracker {
+
+    private final DisbursementBatchRepository batchRepository;
+
+    public BatchProgressTracker(DisbursementBatchRepository batchRepository) {
+        this.batchRepository = batchRepository;
+    }
+
+    /**
+     * Aplica a transição de um step aos contadores do lote e devolve o progresso atualizado.
+     * Deve rodar na mesma transação que alterou o step.
+     */
+    public BatchProgress recordTransition(DisbursementBatch batch, StepStatus previous, StepStatus current) {
+        long successDelta = delta(previous, current, StepStatus.SUCCESS);
+        long failedDelta = delta(previous, current, StepStatus.FAILED);
+        if (successDelta != 0 || failedDelta != 0) {
+            batchRepository.incrementStepCounters(batch.getId(), successDelta, failedDelta);
+        }
+
+        BatchProgress progress = batchRepository.findProgress(batch.getId());
+        if (progress.totalSteps() == 0) {
+            // Lote sem contadores (gravado fora do fluxo de criação): conta uma vez a partir dos steps e passa a usar os contadores
+            progress = recount(batch.getId());
+        }
+        return progress;
+    }
+
+    /**
+     * Recalcula os contadores a partir da tabela de steps e os grava no lote.
+     */
+    public BatchProgress recount(String batchId) {
+        BatchProgress progress = batchRepository.countStepProgress(batchId)
+                .orElse(new BatchProgress(batchId, 0, 0, 0));
+        batchRepository.overwriteStepCounters(batchId, progress.totalSteps(), progress.successSteps(), progress.failedSteps());
+        return progress;
+    }
+
+    /**
+     * Status final do lote quando todos os steps já terminaram; vazio enquanto houver steps em andamento.
+     */
+    public Optional<BatchStatus> settledStatus(BatchProgress progress) {
+        if (progress.totalSteps() == progress.successSteps()) {
+            return Optional.of(BatchStatus.EXECUTED_COMPLETELY);
+        }
+        if (progress.totalSteps() == progress.failedSteps()) {
+            return Optional.of(BatchStatus.FAILED);
+        }
+        if (progress.totalSteps() == progress.successSteps() + progress.failedSteps()) {
+            return Optional.of(BatchStatus.PARTIALLY_EXECUTED);
+        }
+        return Optional.empty();
+    }
+
+    private static long delta(StepStatus previous, StepStatus current, StepStatus counted) {
+        return (current == counted ? 1 : 0) - (previous == counted ? 1 : 0);
+    }
+}
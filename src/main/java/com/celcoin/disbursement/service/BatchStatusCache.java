@@ -0,0 +1,52 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache read-through dos lotes por clientCode, na frente de {@code findByClientCode}: atende a checagem de
+ * duplicidade na criação e os polls de status.
+ * <p>
+ * Só lotes existentes ficam em cache: um clientCode ainda livre sempre consulta o banco, então um lote criado
+ * em outra instância não é recusado nem escondido. Mudanças no lote são propagadas por {@link BatchCacheInvalidator};
+ * o TTL limita a idade de uma entrada caso um aviso de invalidação se perca.
+ */
+@Service
+public class BatchStatusCache {
+
+    private final DisbursementBatchRepository batchRepository;
+    private final Cache<String, BatchStatusView> batches;
+
+    public BatchStatusCache(DisbursementBatchRepository batchRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${disbursement.status-cache.max-size:100000}") long cacheMaxSize,
+                            @Value("${disbursement.status-cache.ttl:PT30S}") Duration cacheTtl) {
+        this.batchRepository = batchRepository;
+        this.batches = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, batches, "batch.status");
+    }
+
+    public Optional<BatchStatusView> find(String clientCode) {
+        // Com o loader devolvendo null o Caffeine não grava nada: clientCode inexistente não fica em cache
+        return Optional.ofNullable(batches.get(clientCode, code -> batchRepository.findByClientCode(code)
+                .map(BatchStatusView::of)
+                .orElse(null)));
+    }
+
+    public void invalidate(String clientCode) {
+        batches.invalidate(clientCode);
+    }
+}
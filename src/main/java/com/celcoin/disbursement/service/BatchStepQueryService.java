@@ -0,0 +1,100 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.StepPage;
+import com.celcoin.disbursement.model.dto.StepStatusResponse;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consulta dos status dos steps de um lote sem materializar entidades: páginas por keyset (cursor = último stepId)
+ * ou streaming em NDJSON direto do cursor do banco, com memória constante independente do tamanho do lote.
+ */
+@Service
+public class BatchStepQueryService {
+
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final BatchStatusCache statusCache;
+    private final DisbursementStepRepository stepRepository;
+    private final ObjectWriter stepWriter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public BatchStepQueryService(BatchStatusCache statusCache,
+                                 DisbursementStepRepository stepRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${disbursement.status.default-page-size:500}") int defaultPageSize,
+                                 @Value("${disbursement.status.max-page-size:5000}") int maxPageSize) {
+        this.statusCache = statusCache;
+        this.stepRepository = stepRepository;
+        this.stepWriter = objectMapper.writerFor(StepStatusResponse.class);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public BatchStatusView findBatch(String clientCode) {
+        return statusCache.find(clientCode)
+                .orElseThrow(() -> new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + clientCode));
+    }
+
+    /**
+     * @param limit tamanho da página; {@code null} usa o padrão e valores fora de {@code [1, max-page-size]} são ajustados.
+     */
+    public StepPage page(String clientCode, Set<StepStatus> statuses, String after, Integer limit) {
+        BatchStatusView batch = findBatch(clientCode);
+        int pageSize = Math.clamp(limit == null ? defaultPageSize : limit, 1, maxPageSize);
+
+        List<StepStatusResponse> steps = stepRepository.findStepStatusPage(batch.batchId(), orEmpty(statuses), after, pageSize);
+        String nextCursor = steps.size() == pageSize ? steps.getLast().stepId() : null;
+        return new StepPage(batch.batchId(), batch.status(), steps, nextCursor);
+    }
+
+    /**
+     * Todos os status do lote em uma lista, lidos pelo cursor do banco em vez do {@code @OneToMany} de steps.
+     */
+    public List<StepStatusResponse> listAll(BatchStatusView batch) {
+        List<StepStatusResponse> steps = new ArrayList<>((int) Math.min(batch.totalSteps(), maxPageSize));
+        stepRepository.streamStepStatuses(batch.batchId(), Set.of(), steps::add);
+        return steps;
+    }
+
+    /**
+     * Escreve um step por linha (NDJSON) conforme as linhas chegam do banco.
+     */
+    public void stream(BatchStatusView batch, Set<StepStatus> statuses, OutputStream out) throws IOException {
+        try {
+            stepRepository.streamStepStatuses(batch.batchId(), orEmpty(statuses), step -> writeLine(step, out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private void writeLine(StepStatusResponse step, OutputStream out) {
+        try {
+            out.write(stepWriter.writeValueAsBytes(step));
+            out.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            // Cliente desconectado ou falha de serialização: interrompe a leitura do cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Collection<StepStatus> orEmpty(Set<StepStatus> statuses) {
+        return statuses == null ? Set.of() : statuses;
+    }
+}
@@ -0,0 +1,130 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.BatchSummaryResponse;
+import com.celcoin.disbursement.model.dto.SummaryBucket;
+import com.celcoin.disbursement.model.dto.SummaryTotals;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Resumo do lote (quantidade e valor por status e por tipo) lido de {@code disbursement_batch_summary}.
+ * <p>
+ * Cada resumo fica em cache com o seu ETag até ser invalidado, e o {@code If-None-Match} igual vira 304 sem consulta
+ * ao banco. Alterações de steps feitas por esta instância removem o resumo do cache após o commit ({@link #evict});
+ * as de outras instâncias, pelos avisos de progresso ({@code BatchProgressEventConsumer}) e pelas mudanças de status
+ * do lote avisadas por {@link BatchCacheInvalidator}. O TTL só limita o atraso quando um aviso se perde.
+ */
+@Service
+public class BatchSummaryService {
+
+    private static final Comparator<SummaryBucket> CANONICAL_ORDER = Comparator.comparing(SummaryBucket::type)
+            .thenComparing(SummaryBucket::status);
+
+    private final DisbursementBatchRepository batchRepository;
+    private final BatchStatusCache statusCache;
+    private final Cache<String, Snapshot> summaries;
+
+    @Autowired
+    public BatchSummaryService(DisbursementBatchRepository batchRepository,
+                               BatchStatusCache statusCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${disbursement.summary.cache.max-size:10000}") long cacheMaxSize,
+                               @Value("${disbursement.summary.cache.ttl:PT5M}") Duration cacheTtl) {
+        this(batchRepository, statusCache, meterRegistry, cacheMaxSize, cacheTtl, Ticker.systemTicker());
+    }
+
+    BatchSummaryService(DisbursementBatchRepository batchRepository,
+                        BatchStatusCache statusCache,
+                        MeterRegistry meterRegistry,
+                        long cacheMaxSize,
+                        Duration cacheTtl,
+                        Ticker ticker) {
+        this.batchRepository = batchRepository;
+        this.statusCache = statusCache;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "batch.summary");
+    }
+
+    public Snapshot summaryOf(String clientCode) {
+        BatchStatusView batch = statusCache.find(clientCode)
+                .orElseThrow(() -> new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + clientCode));
+        return summaries.get(batch.batchId(), batchId -> load(batch));
+    }
+
+    /**
+     * Descarta os resumos em cache dos lotes; a próxima consulta relê o banco.
+     */
+    public void evict(Collection<String> batchIds) {
+        summaries.invalidateAll(batchIds);
+    }
+
+    // Status do lote vem do BatchStatusCache: as duas cópias são invalidadas juntas pelo BatchCacheInvalidator
+    private Snapshot load(BatchStatusView batch) {
+        List<SummaryBucket> buckets = batchRepository.findSummary(batch.batchId()).stream().sorted(CANONICAL_ORDER).toList();
+
+        SummaryTotals total = SummaryTotals.EMPTY;
+        Map<StepStatus, SummaryTotals> byStatus = new EnumMap<>(StepStatus.class);
+        Map<StepType, SummaryTotals> byType = new EnumMap<>(StepType.class);
+        LocalDateTime updatedAt = null;
+        for (SummaryBucket bucket : buckets) {
+            total = total.plus(bucket.count(), bucket.amount());
+            byStatus.merge(bucket.status(), new SummaryTotals(bucket.count(), bucket.amount()),
+                    (current, added) -> current.plus(added.count(), added.amount()));
+            byType.merge(bucket.type(), new SummaryTotals(bucket.count(), bucket.amount()),
+                    (current, added) -> current.plus(added.count(), added.amount()));
+            if (updatedAt == null || bucket.updatedAt().isAfter(updatedAt)) {
+                updatedAt = bucket.updatedAt();
+            }
+        }
+
+        BatchSummaryResponse response = new BatchSummaryResponse(batch.batchId(), batch.clientCode(), batch.status(),
+                total, byStatus, byType, updatedAt);
+        return new Snapshot(response, etagOf(response, buckets));
+    }
+
+    // Calculado só com nomes e valores (sem hashCode de enum), para que instâncias diferentes gerem o mesmo ETag
+    private static String etagOf(BatchSummaryResponse response, List<SummaryBucket> buckets) {
+        StringBuilder content = new StringBuilder(response.batchId()).append('|').append(response.status());
+        for (SummaryBucket bucket : buckets) {
+            content.append('|').append(bucket.type()).append(':').append(bucket.status())
+                    .append(':').append(bucket.count()).append(':').append(bucket.amount().toPlainString());
+        }
+        content.append('|').append(response.updatedAt());
+
+        CRC32 crc = new CRC32();
+        crc.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Resumo pronto para a resposta, com o ETag calculado uma única vez.
+     */
+    public record Snapshot(BatchSummaryResponse summary, String etag) {
+    }
+}
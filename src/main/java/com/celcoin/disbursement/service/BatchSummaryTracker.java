@@ -0,0 +1,119 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.SummaryDelta;
+import com.celcoin.disbursement.model.dto.SummaryTotals;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mantém {@code disbursement_batch_summary} a cada mudança de status dos steps, movendo a quantidade e o valor
+ * entre as linhas de status do mesmo tipo. Todas as operações devem rodar na mesma transação que alterou os steps.
+ */
+@Component
+public class BatchSummaryTracker {
+
+    private final DisbursementBatchRepository batchRepository;
+    private final BatchSummaryService summaryService;
+
+    public BatchSummaryTracker(DisbursementBatchRepository batchRepository, BatchSummaryService summaryService) {
+        this.batchRepository = batchRepository;
+        this.summaryService = summaryService;
+    }
+
+    /**
+     * Cria o resumo de steps recém-inseridos: todos em PENDING, com as demais linhas de status zeradas para que
+     * as transições seguintes só atualizem linhas existentes.
+     */
+    public void initialize(Collection<DisbursementStep> steps) {
+        List<SummaryDelta> deltas = new ArrayList<>();
+        totalsByBatchAndType(steps).forEach((key, totals) -> {
+            for (StepStatus status : StepStatus.values()) {
+                deltas.add(status == StepStatus.PENDING
+                        ? new SummaryDelta(key.batchId(), key.type(), status, totals.count(), totals.amount())
+                        : new SummaryDelta(key.batchId(), key.type(), status, 0, BigDecimal.ZERO));
+            }
+        });
+        batchRepository.applySummaryDeltas(deltas, LocalDateTime.now());
+        evictAfterCommit(batchIdsOf(steps));
+    }
+
+    public void recordTransition(DisbursementStep step, StepStatus previous, StepStatus current) {
+        recordTransitions(List.of(step), previous, current);
+    }
+
+    /**
+     * Move os steps de {@code previous} para {@code current} no resumo dos seus lotes, com um único comando
+     * para todos os lotes e tipos envolvidos.
+     */
+    public void recordTransitions(Collection<DisbursementStep> steps, StepStatus previous, StepStatus current) {
+        if (steps.isEmpty() || previous == current) {
+            return;
+        }
+
+        List<SummaryDelta> deltas = new ArrayList<>();
+        totalsByBatchAndType(steps).forEach((key, totals) -> {
+            deltas.add(new SummaryDelta(key.batchId(), key.type(), previous, -totals.count(), totals.amount().negate()));
+            deltas.add(new SummaryDelta(key.batchId(), key.type(), current, totals.count(), totals.amount()));
+        });
+        batchRepository.applySummaryDeltas(deltas, LocalDateTime.now());
+        evictAfterCommit(batchIdsOf(steps));
+    }
+
+    /**
+     * Recalcula o resumo do lote a partir da tabela de steps.
+     */
+    public void rebuild(String batchId) {
+        batchRepository.rebuildSummary(batchId, LocalDateTime.now());
+        evictAfterCommit(Set.of(batchId));
+    }
+
+    private static Map<BatchType, SummaryTotals> totalsByBatchAndType(Collection<DisbursementStep> steps) {
+        Map<BatchType, SummaryTotals> totals = new HashMap<>();
+        for (DisbursementStep step : steps) {
+            BigDecimal amount = Objects.requireNonNullElse(step.getAmount(), BigDecimal.ZERO);
+            totals.merge(new BatchType(step.getBatch().getId(), step.getType()), new SummaryTotals(1, amount),
+                    (current, added) -> current.plus(added.count(), added.amount()));
+        }
+        return totals;
+    }
+
+    private static Set<String> batchIdsOf(Collection<DisbursementStep> steps) {
+        Set<String> batchIds = new HashSet<>();
+        steps.forEach(step -> batchIds.add(step.getBatch().getId()));
+        return batchIds;
+    }
+
+    // Remover antes do commit permitiria que um poll concorrente recolocasse no cache o resumo ainda antigo
+    private void evictAfterCommit(Set<String> batchIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            summaryService.evict(batchIds);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                summaryService.evict(batchIds);
+            }
+        });
+    }
+
+    private record BatchType(String batchId, StepType type) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.ChannelHttpClientConfig;
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa steps pendentes por canal e os envia ao gateway em uma única chamada, habilitado com
+ * {@code disbursement.channel-batch.enabled=true}.
+ * <p>
+ * Um lote é enviado quando chega a {@code max-size} steps ou quando o primeiro step do lote espera {@code window-ms},
+ * o que vier antes. Os externalIds devolvidos são gravados com um único update em massa e cada step recebe o seu
+ * resultado por um {@link CompletableFuture}, então quem chama continua tratando falhas step a step.
+ * <p>
+ * Itens recusados em definitivo pelo gateway (status FAILED) são gravados como FAILED pelo mesmo caminho das
+ * confirmações e concluem sem externalId; só falhas de comunicação ou itens sem resultado conhecido falham o future
+ * e voltam para a retentativa.
+ */
+@Service
+public class ChannelBatchAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelBatchAccumulator.class);
+
+    private final DisbursementOrchestrator orchestrator;
+    private final DisbursementStepRepository stepRepository;
+    private final DisbursementNotificationService notificationService;
+    private final Executor executor;
+    private final int maxSize;
+    private final long windowMs;
+    private final ScheduledExecutorService timer;
+    private final Map<StepType, Buffer> buffers = new EnumMap<>(StepType.class);
+
+    public ChannelBatchAccumulator(DisbursementOrchestrator orchestrator,
+                                   DisbursementStepRepository stepRepository,
+                                   DisbursementNotificationService notificationService,
+                                   @Qualifier(ChannelHttpClientConfig.CHANNEL_EXECUTOR) Executor executor,
+                                   @Value("${disbursement.channel-batch.max-size:100}") int maxSize,
+                                   @Value("${disbursement.channel-batch.window-ms:50}") long windowMs) {
+        this.orchestrator = orchestrator;
+        this.stepRepository = stepRepository;
+        this.notificationService = notificationService;
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.windowMs = windowMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "channel-batch-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (StepType channel : StepType.values()) {
+            buffers.put(channel, new Buffer(channel));
+        }
+    }
+
+    /**
+     * Coloca o step no lote do seu canal.
+     * @return o externalId do step, quando o lote for enviado e gravado; {@code null} quando o gateway recusou o step
+     * em definitivo e ele já foi gravado como FAILED.
+     */
+    public CompletableFuture<String> submit(DisbursementStep step) {
+        return buffers.get(step.getType()).add(step);
+    }
+
+    /**
+     * Envia todos os steps pelos lotes dos seus canais e só retorna quando todos terminarem, com sucesso ou não.
+     * @return as falhas, por stepId; vazio quando todos foram enviados.
+     */
+    public Map<String, Throwable> submitAll(List<DisbursementStep> steps) {
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[steps.size()];
+
+        for (int i = 0; i < steps.size(); i++) {
+            DisbursementStep step = steps.get(i);
+            futures[i] = submit(step).exceptionally(ex -> {
+                failures.put(step.getId(), ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                return null;
+            });
+        }
+
+        CompletableFuture.allOf(futures).join();
+        return failures;
+    }
+
+    private void send(StepType channel, List<PendingStep> batch) {
+        try {
+            List<DisbursementStep> steps = batch.stream().map(PendingStep::step).toList();
+            Map<String, ExternalRequestResponse> responseByStepId = new HashMap<>();
+            for (ExternalRequestResponse response : orchestrator.processBatch(channel, steps)) {
+                responseByStepId.put(response.clientRequestId(), response);
+            }
+
+            Map<String, String> externalIds = new HashMap<>();
+            responseByStepId.forEach((stepId, response) -> {
+                if (response.externalId() != null) {
+                    externalIds.put(stepId, response.externalId());
+                }
+            });
+            LocalDateTime now = LocalDateTime.now();
+            stepRepository.updateExternalIds(externalIds, now);
+            logger.info("Lote {} enviado: {} de {} steps aceitos pelo gateway", channel, externalIds.size(), batch.size());
+
+            for (PendingStep pending : batch) {
+                DisbursementStep step = pending.step();
+                ExternalRequestResponse response = responseByStepId.get(step.getId());
+                if (response != null && response.externalId() != null) {
+                    step.setExternalId(response.externalId());
+                    step.setUpdatedAt(now);
+                    step.setSentAt(now);
+                    pending.result().complete(response.externalId());
+                } else if (response != null && response.status() == StepStatus.FAILED) {
+                    reject(pending, response.failureReason());
+                } else {
+                    // Sem resultado conhecido: o step volta para PENDING e é reenviado
+                    String reason = response == null || response.failureReason() == null
+                            ? "Gateway " + channel + " não aceitou o step " + step.getId()
+                            : response.failureReason();
+                    pending.result().completeExceptionally(new DisbursementProcessingException("503", reason));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Falha no envio em lote de {} steps {}", batch.size(), channel, e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    // Recusa definitiva: reenviar não adianta, então o step termina como FAILED e o lote pode ser concluído
+    private void reject(PendingStep pending, String failureReason) {
+        DisbursementStep step = pending.step();
+        try {
+            notificationService.processRejection(step, failureReason);
+            pending.result().complete(null);
+        } catch (Exception e) {
+            logger.error("Falha ao gravar a recusa do stepId {}", step.getId(), e);
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        buffers.values().forEach(Buffer::flush);
+    }
+
+    private record PendingStep(DisbursementStep step, CompletableFuture<String> result) {
+    }
+
+    private final class Buffer {
+
+        private final StepType channel;
+        private List<PendingStep> pending = new ArrayList<>();
+        private ScheduledFuture<?> windowTimeout;
+
+        private Buffer(StepType channel) {
+            this.channel = channel;
+        }
+
+        synchronized CompletableFuture<String> add(DisbursementStep step) {
+            PendingStep pendingStep = new PendingStep(step, new CompletableFuture<>());
+            pending.add(pendingStep);
+            if (pending.size() >= maxSize) {
+                dispatch();
+            } else if (pending.size() == 1) {
+                windowTimeout = timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+            return pendingStep.result();
+        }
+
+        synchronized void flush() {
+            if (!pending.isEmpty()) {
+                dispatch();
+            }
+        }
+
+        private void dispatch() {
+            if (windowTimeout != null) {
+                windowTimeout.cancel(false);
+                windowTimeout = null;
+            }
+            List<PendingStep> batch = pending;
+            pending = new ArrayList<>();
+            try {
+                executor.execute(() -> send(channel, batch));
+            } catch (RejectedExecutionException e) {
+                batch.forEach(pendingStep -> pendingStep.result().completeExceptionally(e));
+            }
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.celcoin.disbursement.service;
 
 import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.dto.BatchProgress;
 import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
-import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.repository.DisbursementBatchRepository;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -32,75 +36,113 @@ public class DisbursementNotificationService {
     @Autowired
     private IdempotencyService idempotencyService;
 
+    @Autowired
+    private BatchProgressTracker progressTracker;
+
+    @Autowired
+    private BatchSummaryTracker summaryTracker;
+
+    @Autowired
+    private BatchCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private BatchProgressNotifier progressNotifier;
+
+    @Autowired
+    private DisbursementMetrics metrics;
+
     @Transactional
     public void processPixResponse(ExternalRequestResponse response) {
+        Timer.Sample sample = metrics.startTimer();
         DisbursementStep step = stepRepository.findByExternalId(response.externalId())
                 .orElseThrow(() -> new DisbursementProcessingException("400", "Erro ao recuperar informações de desembolso para o id externo: " + response.externalId()));
 
-        if (idempotencyService.isDuplicate(response.externalId(), GROUP_ID)) {
+        if (!idempotencyService.claim(response.externalId(), GROUP_ID)) {
+            metrics.recordCallback(step.getType(), DisbursementMetrics.DUPLICATE, sample);
             return; // Se for duplicado, encerra o processamento imediatamente.
         }
 
-        step.setStatus(response.status());
-        step.setUpdatedAt(LocalDateTime.now());
-
-        if (response.status().equals(StepStatus.FAILED)) {
-            step.setFailureReason(response.failureReason());
+        try (MDC.MDCCloseable ignored = TraceContext.open(step.getTraceId())) {
+            applyResponse(step, response, sample);
         }
-
-        stepRepository.saveAndFlush(step);
-
-        checkBatchCompletion(step.getBatch());
     }
 
     @Transactional
     public void processTedUpdate(ExternalRequestResponse response) {
+        Timer.Sample sample = metrics.startTimer();
         DisbursementStep step = stepRepository.findByExternalId(response.externalId())
                 .orElseThrow(() -> new DisbursementProcessingException("400", "Erro ao recuperar informações de desembolso para o id externo: " + response.externalId()));
 
         if (step.getStatus() == StepStatus.SUCCESS || step.getStatus() == StepStatus.FAILED) {
+            metrics.recordCallback(step.getType(), DisbursementMetrics.DUPLICATE, sample);
             return; // guarantee that we will not process a response that already has been processed
         }
 
+        try (MDC.MDCCloseable ignored = TraceContext.open(step.getTraceId())) {
+            applyResponse(step, response, sample);
+        }
+    }
+
+    /**
+     * Grava como FAILED um step recusado em definitivo pelo gateway já no envio (item FAILED de um envio em lote),
+     * pelo mesmo caminho das confirmações: resumo, contadores e status do lote, avisos e métricas.
+     */
+    @Transactional
+    public void processRejection(DisbursementStep step, String failureReason) {
+        Timer.Sample sample = metrics.startTimer();
+        try (MDC.MDCCloseable ignored = TraceContext.open(step.getTraceId())) {
+            applyResponse(step, new ExternalRequestResponse(step.getId(), null, StepStatus.FAILED, failureReason), sample);
+        }
+    }
+
+    private void applyResponse(DisbursementStep step, ExternalRequestResponse response, Timer.Sample sample) {
+        if (response.traceId() != null && !response.traceId().equals(step.getTraceId())) {
+            logger.warn("Confirmação do externalId {} com traceId {} diferente do step {}", response.externalId(), response.traceId(), step.getId());
+        }
+
+        StepStatus previousStatus = step.getStatus();
+        LocalDateTime now = LocalDateTime.now();
         step.setStatus(response.status());
-        step.setUpdatedAt(LocalDateTime.now());
+        step.setUpdatedAt(now);
 
+        if (response.status() == StepStatus.SUCCESS || response.status() == StepStatus.FAILED) {
+            step.setSettledAt(now);
+        }
         if (response.status().equals(StepStatus.FAILED)) {
             step.setFailureReason(response.failureReason());
         }
 
         stepRepository.saveAndFlush(step);
+        // Antes dos contadores: as linhas do resumo são travadas antes da linha do lote, na mesma ordem do claim
+        summaryTracker.recordTransition(step, previousStatus, step.getStatus());
+
+        checkBatchCompletion(step.getBatch(), previousStatus, step.getStatus());
+        // Depois da conclusão do lote: o aviso do step já sai com o status final do lote
+        progressNotifier.stepChanged(step);
+        recordCallback(step, sample);
+    }
 
-        checkBatchCompletion(step.getBatch());
+    private void recordCallback(DisbursementStep step, Timer.Sample sample) {
+        metrics.recordCallback(step.getType(), step.getStatus().name().toLowerCase(), sample);
+        if (step.getStatus() == StepStatus.SUCCESS || step.getStatus() == StepStatus.FAILED) {
+            metrics.recordStepSettled(step);
+        }
     }
 
-    private void checkBatchCompletion(DisbursementBatch batch) {
+    private void checkBatchCompletion(DisbursementBatch batch, StepStatus previousStatus, StepStatus newStepStatus) {
         if (batch.getScheduleType() == ScheduleType.RECURRENT) {
             return;
         }
 
-        long totalSteps = batchRepository.countSteps(batch.getId());
-        long successfulSteps = batchRepository.countStepsByStatus(batch.getId(), StepStatus.SUCCESS);
-        long failedSteps = batchRepository.countStepsByStatus(batch.getId(), StepStatus.FAILED);
-
-        boolean statusHasChanged = false;
-        BatchStatus newStatus = batch.getStatus();
-
-        if (totalSteps == successfulSteps) {
-            newStatus = BatchStatus.EXECUTED_COMPLETELY;
-            statusHasChanged = true;
-        } else if (totalSteps == failedSteps) {
-            newStatus = BatchStatus.FAILED;
-            statusHasChanged = true;
-        } else if (totalSteps == successfulSteps + failedSteps) {
-            newStatus = BatchStatus.PARTIALLY_EXECUTED;
-            statusHasChanged = true;
-        }
+        // O(1): lê os contadores do lote em vez de contar os steps a cada callback
+        BatchProgress progress = progressTracker.recordTransition(batch, previousStatus, newStepStatus);
 
-        if (statusHasChanged) {
+        progressTracker.settledStatus(progress).ifPresent(newStatus -> {
             batch.setStatus(newStatus);
             batchRepository.saveAndFlush(batch);
+            cacheInvalidator.invalidate(batch);
+            metrics.recordBatchCompleted(batch, newStatus);
             logger.info("Status do lote {} atualizado para {}.", batch.getId(), newStatus);
-        }
+        });
     }
 }
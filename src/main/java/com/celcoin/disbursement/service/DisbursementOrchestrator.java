@@ -1,7 +1,15 @@
 package com.celcoin.disbursement.service;
 
+import com.celcoin.disbursement.exception.ChannelSaturatedException;
+import com.celcoin.disbursement.exception.ChannelUnavailableException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.resilience.AdaptiveConcurrencyLimiter;
+import com.celcoin.disbursement.resilience.ChannelConcurrencyLimiters;
+import com.celcoin.disbursement.resilience.ChannelFailures;
+import com.celcoin.disbursement.resilience.ChannelResilience;
 import com.celcoin.disbursement.strategy.DisbursementStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -9,23 +17,100 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class DisbursementOrchestrator {
 
     private final Map<StepType, DisbursementStrategy> strategies;
+    private final ChannelConcurrencyLimiters limiters;
+    private final ChannelResilience resilience;
+    private final DisbursementMetrics metrics;
 
     @Autowired
-    public DisbursementOrchestrator(List<DisbursementStrategy> strategies) {
+    public DisbursementOrchestrator(List<DisbursementStrategy> strategies,
+                                    ChannelConcurrencyLimiters limiters,
+                                    ChannelResilience resilience,
+                                    DisbursementMetrics metrics) {
         this.strategies = strategies.stream().collect(Collectors.toMap(DisbursementStrategy::getChannelType, Function.identity()));
+        this.limiters = limiters;
+        this.resilience = resilience;
+        this.metrics = metrics;
     }
 
     public void process(DisbursementStep step) {
-        DisbursementStrategy strategy = strategies.get(step.getType());
+        DisbursementStrategy strategy = strategyFor(step.getType());
 
-        if (strategy == null) throw new UnsupportedOperationException("Canal não suportado: " + step.getType());
+        // Circuit breaker e bulkhead primeiro: com o canal fora do ar a chamada falha sem esperar vaga no limitador
+        timed(step.getType(), () -> resilience.call(step.getType(), () -> callWithinLimit(step.getType(), () -> {
+            strategy.execute(step);
+            return null;
+        })));
+    }
+
+    /**
+     * Envia steps do mesmo canal em uma única chamada ao gateway. O lote ocupa uma vaga do limitador e conta
+     * como uma chamada para o circuit breaker, como um envio individual.
+     * @return a resposta de cada step, com o id do step em {@code clientRequestId}.
+     */
+    public List<ExternalRequestResponse> processBatch(StepType channel, List<DisbursementStep> steps) {
+        DisbursementStrategy strategy = strategyFor(channel);
+        return timed(channel, () -> resilience.call(channel, () -> callWithinLimit(channel, () -> strategy.executeBatch(steps))));
+    }
+
+    private <T> T timed(StepType channel, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = DisbursementMetrics.FAILURE;
+        try {
+            T result = call.get();
+            outcome = DisbursementMetrics.SUCCESS;
+            return result;
+        } catch (ChannelUnavailableException | ChannelSaturatedException e) {
+            outcome = DisbursementMetrics.REJECTED;
+            throw e;
+        } finally {
+            metrics.recordAdapterCall(channel, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private DisbursementStrategy strategyFor(StepType channel) {
+        DisbursementStrategy strategy = strategies.get(channel);
+
+        if (strategy == null) throw new UnsupportedOperationException("Canal não suportado: " + channel);
+        return strategy;
+    }
+
+    private <T> T callWithinLimit(StepType channel, Supplier<T> call) {
+        AdaptiveConcurrencyLimiter limiter = limiters.forChannel(channel);
+        if (limiter == null) {
+            return call.get();
+        }
+
+        acquire(limiter, channel);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            limiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            if (ChannelFailures.isChannelFailure(e)) {
+                limiter.onOverload();
+            } else {
+                limiter.onIgnored();
+            }
+            throw e;
+        }
+    }
 
-        strategy.execute(step);
+    private void acquire(AdaptiveConcurrencyLimiter limiter, StepType channel) {
+        try {
+            if (!limiter.acquire(limiters.maxWait())) {
+                throw new ChannelSaturatedException("429", "Canal " + channel + " saturado, limite atual de " + limiter.getLimit() + " envios simultâneos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelSaturatedException("429", "Interrompido aguardando vaga no canal " + channel);
+        }
     }
 }
@@ -1,15 +1,24 @@
 package com.celcoin.disbursement.service;
 
 import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.metrics.TraceContext;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class DisbursementProcessingService {
@@ -18,31 +27,147 @@ public class DisbursementProcessingService {
 
     private final DisbursementStepRepository stepRepository;
     private final DisbursementOrchestrator orchestrator;
+    private final DisbursementMetrics metrics;
+    private final BatchSummaryTracker summaryTracker;
+    private final TransactionOperations transactionOperations;
 
-    public DisbursementProcessingService(DisbursementStepRepository stepRepository, DisbursementOrchestrator orchestrator) {
+    public DisbursementProcessingService(DisbursementStepRepository stepRepository,
+                                         DisbursementOrchestrator orchestrator,
+                                         DisbursementMetrics metrics,
+                                         BatchSummaryTracker summaryTracker,
+                                         TransactionOperations transactionOperations) {
         this.stepRepository = stepRepository;
         this.orchestrator = orchestrator;
+        this.metrics = metrics;
+        this.summaryTracker = summaryTracker;
+        this.transactionOperations = transactionOperations;
     }
 
-    @Transactional
+    /**
+     * Reserva o step (PENDING -> PROCESSING) em uma transação curta e só depois chama o gateway, fora dela:
+     * as linhas do resumo do lote travadas pelo claim não ficam presas durante a chamada HTTP.
+     * Se o envio falhar, o step volta para PENDING antes de a exceção seguir para a retentativa.
+     */
     public void execute(String stepId) {
         logger.info("Iniciando processamento do stepId: {}", stepId);
 
-        DisbursementStep step = stepRepository.findById(stepId)
+        DisbursementStep step = transactionOperations.execute(status -> claim(stepId));
+        if (step == null) {
+            return;
+        }
+
+        try {
+            dispatch(step);
+        } catch (RuntimeException e) {
+            transactionOperations.executeWithoutResult(status -> release(List.of(stepId)));
+            throw e;
+        }
+    }
+
+    private DisbursementStep claim(String stepId) {
+        long start = System.nanoTime();
+
+        // Lote carregado junto: o step sai desta transação e o envio ainda lê o clientCode
+        DisbursementStep step = stepRepository.findAllWithBatchByIdIn(List.of(stepId)).stream().findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("400", "Step não encontrado para o id: " + stepId));
 
         // Simplificamos a checagem de idempotência, confiando mais no IdempotencyService.
         // A checagem de status ainda é uma boa prática como uma segunda barreira (guarda de estado).
         if (step.getStatus() != StepStatus.PENDING) {
             logger.warn("Step {} já foi processado ou está em andamento. Status atual: {}. Ignorando.", stepId, step.getStatus());
-            return;
+            metrics.recordClaim(List.of(step), DisbursementMetrics.SKIPPED, System.nanoTime() - start);
+            return null;
         }
 
+        LocalDateTime now = LocalDateTime.now();
         step.setStatus(StepStatus.PROCESSING);
-        step.setUpdatedAt(LocalDateTime.now());
+        step.setUpdatedAt(now);
+        step.setProcessingAt(now);
         stepRepository.save(step);
+        summaryTracker.recordTransition(step, StepStatus.PENDING, StepStatus.PROCESSING);
+        metrics.recordClaim(List.of(step), DisbursementMetrics.SUCCESS, System.nanoTime() - start);
+        return step;
+    }
+
+    /**
+     * Versão em lote da transição PENDING -> PROCESSING: carrega todos os steps com uma consulta {@code IN}
+     * e atualiza os pendentes com um único update.
+     * @return os steps que estavam pendentes e agora estão em PROCESSING, já com o lote carregado.
+     */
+    @Transactional
+    public List<DisbursementStep> claimAll(Collection<String> stepIds) {
+        if (stepIds.isEmpty()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        List<DisbursementStep> pending = new ArrayList<>(stepIds.size());
+        for (DisbursementStep step : stepRepository.findAllWithBatchByIdIn(stepIds)) {
+            if (step.getStatus() == StepStatus.PENDING) {
+                pending.add(step);
+            } else {
+                logger.warn("Step {} já foi processado ou está em andamento. Status atual: {}. Ignorando.", step.getId(), step.getStatus());
+            }
+        }
+        if (pending.isEmpty()) {
+            metrics.recordClaim(pending, DisbursementMetrics.SKIPPED, System.nanoTime() - start);
+            return pending;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> pendingIds = pending.stream().map(DisbursementStep::getId).toList();
+        Set<String> claimedIds = new HashSet<>(stepRepository.claimPending(pendingIds, now));
+        if (claimedIds.size() != pending.size()) {
+            // Reservados por outro consumidor entre a leitura e o update: não são devolvidos nem entram no resumo
+            logger.warn("{} de {} steps mudaram de status durante o claim em lote", pending.size() - claimedIds.size(), pending.size());
+            pending.removeIf(step -> !claimedIds.contains(step.getId()));
+            if (pending.isEmpty()) {
+                metrics.recordClaim(pending, DisbursementMetrics.SKIPPED, System.nanoTime() - start);
+                return pending;
+            }
+        }
+
+        for (DisbursementStep step : pending) {
+            step.setStatus(StepStatus.PROCESSING);
+            step.setUpdatedAt(now);
+            step.setProcessingAt(now);
+        }
+        summaryTracker.recordTransitions(pending, StepStatus.PENDING, StepStatus.PROCESSING);
+        metrics.recordClaim(pending, DisbursementMetrics.SUCCESS, System.nanoTime() - start);
+        return pending;
+    }
+
+    /**
+     * Envia para o canal um step já movido para PROCESSING por {@link #claimAll}.
+     * Sem transação envolvendo a chamada ao gateway: a conexão com o banco só é usada para gravar o externalId,
+     * então milhares de envios simultâneos não esgotam o pool do Hikari.
+     */
+    public void dispatch(DisbursementStep step) {
+        try (MDC.MDCCloseable ignored = TraceContext.open(step.getTraceId())) {
+            orchestrator.process(step);
+            logger.info("Processamento do stepId {} delegado para o orquestrador.", step.getId());
+        }
+    }
+
+    /**
+     * Devolve para PENDING steps que foram reservados mas não chegaram a ser enviados, permitindo a retentativa.
+     */
+    @Transactional
+    public void release(Collection<String> stepIds) {
+        if (stepIds.isEmpty()) {
+            return;
+        }
+
+        // Caminho de falha: carrega os steps só para saber tipo e valor a devolver no resumo do lote
+        List<DisbursementStep> processing = stepRepository.findAllWithBatchByIdIn(stepIds).stream()
+                .filter(step -> step.getStatus() == StepStatus.PROCESSING)
+                .toList();
+        if (processing.isEmpty()) {
+            return;
+        }
 
-        orchestrator.process(step);
-        logger.info("Processamento do stepId {} delegado para o orquestrador.", stepId);
+        List<String> processingIds = processing.stream().map(DisbursementStep::getId).toList();
+        stepRepository.updateStatus(processingIds, StepStatus.PROCESSING, StepStatus.PENDING, LocalDateTime.now());
+        summaryTracker.recordTransitions(processing, StepStatus.PROCESSING, StepStatus.PENDING);
     }
 }
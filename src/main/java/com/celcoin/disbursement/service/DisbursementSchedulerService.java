@@ -1,139 +1,207 @@
 package com.celcoin.disbursement.service;
 
+import com.celcoin.disbursement.config.BeanConfig;
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.exception.UnexpectedException;
 import com.celcoin.disbursement.gateway.EventPublisher;
+import com.celcoin.disbursement.gateway.PartitionKeyStrategy;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
 import com.celcoin.disbursement.model.utils.BatchStatus;
-import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.repository.DisbursementBatchRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.Clock;
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.temporal.IsoFields;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dispara os lotes agendados vencidos e os ciclos dos lotes recorrentes, em qualquer quantidade de instâncias.
+ * <p>
+ * Cada execução sobe {@code workers} workers que reivindicam blocos de até {@code chunk-size} lotes com
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}: instâncias e workers concorrentes recebem blocos disjuntos. A reivindicação
+ * só grava um lease ({@code scheduler_lease_until}) nos lotes do bloco, em uma transação curta; depois cada lote é
+ * processado na sua própria transação.
+ * <ul>
+ *     <li>Agendados: a mudança para PROCESSING e os eventos dos steps (outbox) são gravados no commit do lote.
+ *     Um lote com falha (ou cuja instância caiu) fica com o lease e volta a ser disparado quando ele expira,
+ *     sem impedir os demais lotes do bloco.</li>
+ *     <li>Recorrentes: o status não muda, e o lease impede que o lote seja reavaliado por qualquer instância até o fim
+ *     dele. A chave de recorrência em {@code processed_events} continua impedindo um ciclo duplicado caso o lease
+ *     expire durante o processamento.</li>
+ * </ul>
+ */
 @Service
 public class DisbursementSchedulerService {
 
     private static final Logger logger = LoggerFactory.getLogger(DisbursementSchedulerService.class);
 
-    @Autowired
-    private DisbursementBatchRepository batchRepository;
-
-    @Autowired
-    private EventPublisher eventPublisher;
-
-    @Autowired
-    private IdempotencyService idempotencyService;
-
-    @Autowired
-    private Clock clock;
+    private final DisbursementBatchRepository batchRepository;
+    private final EventPublisher eventPublisher;
+    private final IdempotencyService idempotencyService;
+    private final BatchCacheInvalidator cacheInvalidator;
+    private final BatchProgressNotifier progressNotifier;
+    private final TransactionOperations transactionOperations;
+    private final Executor executor;
+    private final Clock clock;
+    private final int workers;
+    private final int chunkSize;
+    private final Duration lease;
+    private final PartitionKeyStrategy partitionKeyStrategy;
+
+    public DisbursementSchedulerService(DisbursementBatchRepository batchRepository,
+                                        @Qualifier("outboxEventPublisher") EventPublisher eventPublisher,
+                                        IdempotencyService idempotencyService,
+                                        BatchCacheInvalidator cacheInvalidator,
+                                        BatchProgressNotifier progressNotifier,
+                                        TransactionOperations transactionOperations,
+                                        @Qualifier(BeanConfig.SCHEDULER_EXECUTOR) Executor executor,
+                                        Clock clock,
+                                        @Value("${disbursement.scheduler.workers:4}") int workers,
+                                        @Value("${disbursement.scheduler.chunk-size:20}") int chunkSize,
+                                        @Value("${disbursement.scheduler.lease:PT50S}") Duration lease,
+                                        @Value("${disbursement.kafka.partition-key:BATCH}") PartitionKeyStrategy partitionKeyStrategy) {
+        this.batchRepository = batchRepository;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyService = idempotencyService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.progressNotifier = progressNotifier;
+        this.transactionOperations = transactionOperations;
+        this.executor = executor;
+        this.clock = clock;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.partitionKeyStrategy = partitionKeyStrategy;
+    }
 
-    @Scheduled(fixedRate = 60000) // Roda a cada minuto
-    @Transactional
+    @Scheduled(fixedDelayString = "${disbursement.scheduler.interval-ms:60000}")
     public void triggerEligibleBatches() {
         LocalDateTime now = LocalDateTime.now(clock);
         logger.info("Scheduler iniciado em {}: procurando por lotes elegíveis", now);
 
-        List<DisbursementBatch> scheduledBatches = batchRepository
-                .findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(
-                        BatchStatus.NOT_EXECUTED,
-                        ScheduleType.SCHEDULED,
-                        now
-                );
-        scheduledBatches.forEach(this::processScheduledBatch);
-
-        List<DisbursementBatch> recurringBatches = batchRepository
-                .findByStatusAndScheduleType(BatchStatus.RECURRENT, ScheduleType.RECURRENT);
-        recurringBatches.forEach(batch -> processRecurringBatch(batch, now));
+        int scheduled = drainInParallel(() -> claimScheduledChunk(now), this::processScheduledBatch);
+        int recurring = drainInParallel(() -> claimRecurringChunk(now), batch -> processRecurringBatch(batch, now));
+        logger.info("Scheduler: {} lotes agendados disparados e {} lotes recorrentes avaliados por esta instância", scheduled, recurring);
+    }
+
+    /**
+     * Roda {@code workers} workers em paralelo, cada um reivindicando blocos até receber um bloco incompleto.
+     * A falha ao reivindicar um bloco só encerra o worker que o processava.
+     * @return total de lotes reivindicados pelos workers.
+     */
+    private int drainInParallel(Supplier<List<DisbursementBatch>> claimChunk, Consumer<DisbursementBatch> process) {
+        List<CompletableFuture<Integer>> runs = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            runs.add(CompletableFuture.supplyAsync(() -> drain(claimChunk, process), executor));
+        }
+        return runs.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int drain(Supplier<List<DisbursementBatch>> claimChunk, Consumer<DisbursementBatch> process) {
+        int processed = 0;
+        try {
+            List<DisbursementBatch> claimed;
+            do {
+                claimed = claimChunk.get();
+                claimed.forEach(batch -> processInOwnTransaction(batch, process));
+                processed += claimed.size();
+            } while (claimed.size() == chunkSize);
+        } catch (Exception e) {
+            logger.error("Erro ao reivindicar um bloco do scheduler após {} lotes", processed, e);
+        }
+        return processed;
+    }
+
+    // Um lote com falha é desfeito sozinho e mantém o lease: os demais lotes do bloco seguem, e ele volta quando o lease expira
+    private void processInOwnTransaction(DisbursementBatch claimed, Consumer<DisbursementBatch> process) {
+        try {
+            transactionOperations.executeWithoutResult(status ->
+                    batchRepository.findById(claimed.getId()).ifPresent(process));
+        } catch (Exception e) {
+            logger.error("Erro ao processar o lote {} no scheduler; nova tentativa após o lease de {}", claimed.getId(), lease, e);
+        }
+    }
+
+    private List<DisbursementBatch> claimScheduledChunk(LocalDateTime now) {
+        return claimChunk(() -> batchRepository.lockDueScheduled(now, chunkSize), now);
+    }
+
+    private List<DisbursementBatch> claimRecurringChunk(LocalDateTime now) {
+        return claimChunk(() -> batchRepository.lockRecurrentWithoutLease(now, chunkSize), now);
+    }
+
+    private List<DisbursementBatch> claimChunk(Supplier<List<DisbursementBatch>> lockChunk, LocalDateTime now) {
+        List<DisbursementBatch> batches = transactionOperations.execute(status -> {
+            List<DisbursementBatch> locked = lockChunk.get();
+            if (!locked.isEmpty()) {
+                batchRepository.extendSchedulerLease(locked.stream().map(DisbursementBatch::getId).toList(), now.plus(lease));
+            }
+            return locked;
+        });
+        return batches == null ? List.of() : batches;
     }
 
     private void processScheduledBatch(DisbursementBatch batch) {
+        if (batch.getStatus() != BatchStatus.NOT_EXECUTED) {
+            logger.warn("Lote agendado {} mudou para {} após a reivindicação. Ignorando.", batch.getId(), batch.getStatus());
+            return;
+        }
+
         logger.info("Processando lote agendado ID: {}", batch.getId());
         batch.setStatus(BatchStatus.PROCESSING);
         batchRepository.save(batch);
+        cacheInvalidator.invalidate(batch);
+        progressNotifier.batchChanged(batch);
         publishStepEvents(batch);
     }
 
     private void processRecurringBatch(DisbursementBatch batch, LocalDateTime now) {
-        LocalDateTime templateDateTime = batch.getScheduleDate();
-        boolean isExecutionTime = now.toLocalTime().isAfter(templateDateTime.toLocalTime());
-
-        if (!isExecutionTime) {
-            return;
-        }
-
-        String idempotencyKey = null;
-        boolean shouldRunToday = false;
-        LocalDate currentDate = now.toLocalDate();
-
-        switch (batch.getRecurrency()) {
-            case DAILY:
-                shouldRunToday = true;
-                idempotencyKey = batch.getId() + "_" + currentDate; // Ex: batchId_2025-10-15
-                break;
-
-            case WEEKLY:
-                shouldRunToday = currentDate.getDayOfWeek() == templateDateTime.getDayOfWeek();
-                if (shouldRunToday) {
-                    // Chave baseada no ano e no número da semana
-                    idempotencyKey = String.format("%s_%d_W%02d",
-                            batch.getId(),
-                            currentDate.getYear(),
-                            currentDate.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
-                }
-                break;
-
-            case MONTHLY:
-                shouldRunToday = currentDate.getDayOfMonth() == templateDateTime.getDayOfMonth();
-                if (shouldRunToday) {
-                    idempotencyKey = String.format("%s_%d_%02d",
-                            batch.getId(),
-                            currentDate.getYear(),
-                            currentDate.getMonthValue());
-                }
-                break;
-
-            case ANNUALLY:
-                shouldRunToday = currentDate.getMonth() == templateDateTime.getMonth() &&
-                        currentDate.getDayOfMonth() == templateDateTime.getDayOfMonth();
-                if (shouldRunToday) {
-                    idempotencyKey = String.format("%s_%d", batch.getId(), currentDate.getYear());
-                }
-                break;
-        }
-
-        if (shouldRunToday) {
+        RecurrenceKeyResolver.resolve(batch, now).ifPresent(idempotencyKey -> {
             logger.debug("Verificando recorrência para lote {}, tipo {}, chave {}", batch.getId(), batch.getRecurrency(), idempotencyKey);
 
-            if (!idempotencyService.isDuplicate(idempotencyKey, "RECURRENT_SCHEDULER")) {
+            if (idempotencyService.claim(idempotencyKey, "RECURRENT_SCHEDULER")) {
                 logger.info("Disparando ciclo recorrente para o lote ID: {}, Tipo: {}", batch.getId(), batch.getRecurrency());
                 publishStepEvents(batch);
             }
-        }
+        });
     }
 
     private void publishStepEvents(DisbursementBatch batch) {
+        String key = partitionKeyStrategy.keyFor(batch);
+        List<OutboundEvent> events = new ArrayList<>(batch.getSteps().size());
         for (DisbursementStep step : batch.getSteps()) {
             DisbursementRequestEvent event = new DisbursementRequestEvent(step.getId());
             String topic = getTopicForChannel(step.getType());
-            eventPublisher.publish(topic, event);
+            events.add(new OutboundEvent(topic, key, event, step.getTraceId()));
+        }
+
+        PublishReport report = eventPublisher.publishAll(events);
+        if (!report.isSuccessful()) {
+            throw new UnexpectedException("Falha ao publicar " + report.failures().size() + " eventos do lote " + batch.getId());
         }
     }
 
     private String getTopicForChannel(StepType type) {
         return switch (type) {
-            case PIX -> com.celcoin.disbursement.config.KafkaTopicConfig.PIX_REQUEST_TOPIC;
-            case TED -> com.celcoin.disbursement.config.KafkaTopicConfig.TED_REQUEST_TOPIC;
+            case PIX -> KafkaTopicConfig.PIX_REQUEST_TOPIC;
+            case TED -> KafkaTopicConfig.TED_REQUEST_TOPIC;
         };
     }
 }
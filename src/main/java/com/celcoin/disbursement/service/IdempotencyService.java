@@ -1,13 +1,26 @@
 package com.celcoin.disbursement.service;
 
-import com.celcoin.disbursement.model.entity.ProcessedEvent;
 import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class IdempotencyService {
@@ -15,30 +28,120 @@ public class IdempotencyService {
     private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
     private final ProcessedEventRepository eventRepository;
 
-    public IdempotencyService(ProcessedEventRepository eventRepository) {
+    // Cache local dos eventos vistos recentemente: responde reentregas sem ir ao banco.
+    // A tabela processed_events continua sendo a fonte da verdade; o cache só guarda resultados positivos.
+    private final Cache<String, Boolean> recentEvents;
+
+    // Transação própria para o insert em lote, que é desfeito quando algum id já tinha dono
+    private final TransactionTemplate claimTransaction;
+
+    public IdempotencyService(ProcessedEventRepository eventRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${disbursement.idempotency.cache.max-size:200000}") long cacheMaxSize,
+                              @Value("${disbursement.idempotency.cache.ttl:PT10M}") Duration cacheTtl) {
         this.eventRepository = eventRepository;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recentEvents = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentEvents, "idempotency.recent-events");
     }
 
     /**
-     * Verifica se um evento já foi processado. Se não, marca como processado.
+     * Reivindica o evento para este consumidor: um único {@code INSERT} registra o evento e informa se ele era novo.
+     * Duas reentregas concorrentes não conseguem ambas vencer, e o caso comum custa uma ida ao banco em vez de duas.
      * @param eventId O ID único do evento.
      * @param consumerGroup O grupo de consumidores processando.
-     * @return {@code true} se o evento já foi processado (duplicado), {@code false} caso contrário.
+     * @return {@code true} se o evento foi reivindicado agora, {@code false} se já tinha sido processado (duplicado).
      */
-    public boolean isDuplicate(String eventId, String consumerGroup) {
-        Optional<ProcessedEvent> processedEvent = eventRepository.findById(eventId);
+    public boolean claim(String eventId, String consumerGroup) {
+        if (recentEvents.getIfPresent(eventId) != null) {
+            logger.warn("Evento duplicado detectado para eventId [{}] (cache). Ignorando.", eventId);
+            return false;
+        }
 
-        if(processedEvent.isPresent()) {
+        if (!eventRepository.claim(eventId, consumerGroup, LocalDateTime.now())) {
             logger.warn("Evento duplicado detectado para eventId [{}]. Ignorando.", eventId);
-            return true;
+            recentEvents.put(eventId, Boolean.TRUE);
+            return false;
         }
 
-        ProcessedEvent eventRecord = ProcessedEvent.builder()
-                .eventId(eventId)
-                .consumerGroup(consumerGroup)
-                .processedAt(LocalDateTime.now())
-                .build();
-        eventRepository.saveAndFlush(eventRecord);
-        return false;
+        rememberAfterCommit(List.of(eventId));
+        return true;
+    }
+
+    /**
+     * Versão em lote do {@link #claim}: uma consulta descarta os já processados e um único {@code INSERT}
+     * reivindica os demais. Se outro consumidor reivindicar algum id no meio do caminho, o insert é desfeito
+     * e os ids são reivindicados um a um.
+     * @return os ids reivindicados por esta chamada, na ordem recebida e sem repetições.
+     */
+    public Set<String> filterDuplicates(Collection<String> eventIds, String consumerGroup) {
+        Set<String> newEventIds = new LinkedHashSet<>(eventIds);
+        newEventIds.removeIf(eventId -> recentEvents.getIfPresent(eventId) != null);
+        if (newEventIds.size() < eventIds.size()) {
+            logger.warn("{} eventos duplicados detectados no lote (cache). Ignorando.", eventIds.size() - newEventIds.size());
+        }
+        if (newEventIds.isEmpty()) {
+            return newEventIds;
+        }
+
+        List<String> processed = eventRepository.findExistingIds(newEventIds);
+        if (!processed.isEmpty()) {
+            logger.warn("{} eventos duplicados detectados no lote. Ignorando: {}", processed.size(), processed);
+            processed.forEach(newEventIds::remove);
+            processed.forEach(eventId -> recentEvents.put(eventId, Boolean.TRUE));
+        }
+        if (newEventIds.isEmpty()) {
+            return newEventIds;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Boolean claimedAll = claimTransaction.execute(status -> {
+            if (eventRepository.claimAll(newEventIds, consumerGroup, now) == newEventIds.size()) {
+                return true;
+            }
+            status.setRollbackOnly();
+            return false;
+        });
+
+        if (!Boolean.TRUE.equals(claimedAll)) {
+            logger.warn("Eventos do lote reivindicados concorrentemente por outro consumidor. Reivindicando um a um.");
+            newEventIds.removeIf(eventId -> !claim(eventId, consumerGroup));
+            return newEventIds;
+        }
+
+        newEventIds.forEach(eventId -> recentEvents.put(eventId, Boolean.TRUE));
+        return newEventIds;
+    }
+
+    /**
+     * Desfaz a marcação de eventos que não chegaram a ser processados, para que uma nova entrega seja aceita.
+     */
+    public void release(Collection<String> eventIds) {
+        if (!eventIds.isEmpty()) {
+            recentEvents.invalidateAll(eventIds);
+            eventRepository.deleteAllByIdInBatch(eventIds);
+        }
+    }
+
+    // Só guarda no cache depois do commit: um rollback não pode deixar um evento marcado como visto só na memória
+    private void rememberAfterCommit(Collection<String> eventIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventIds.forEach(eventId -> recentEvents.put(eventId, Boolean.TRUE));
+            return;
+        }
+
+        List<String> toRemember = List.copyOf(eventIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                toRemember.forEach(eventId -> recentEvents.put(eventId, Boolean.TRUE));
+            }
+        });
     }
 }
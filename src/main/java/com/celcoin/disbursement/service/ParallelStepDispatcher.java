@@ -0,0 +1,81 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.ChannelHttpClientConfig;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Despacha steps em paralelo, um por virtual thread, limitando por canal quantos envios ficam em andamento no nó.
+ * O limite vale para todas as threads de listener ao mesmo tempo, protegendo o gateway e o pool de conexões do canal.
+ */
+@Service
+public class ParallelStepDispatcher {
+
+    private final DisbursementProcessingService processingService;
+    private final Executor executor;
+    private final Map<StepType, Semaphore> permitsByChannel = new EnumMap<>(StepType.class);
+
+    public ParallelStepDispatcher(DisbursementProcessingService processingService,
+                                  @Qualifier(ChannelHttpClientConfig.CHANNEL_EXECUTOR) Executor executor,
+                                  @Value("${disbursement.dispatch.max-concurrency.pix:256}") int pixMaxConcurrency,
+                                  @Value("${disbursement.dispatch.max-concurrency.ted:64}") int tedMaxConcurrency) {
+        this.processingService = processingService;
+        this.executor = executor;
+        this.permitsByChannel.put(StepType.PIX, new Semaphore(pixMaxConcurrency));
+        this.permitsByChannel.put(StepType.TED, new Semaphore(tedMaxConcurrency));
+    }
+
+    /**
+     * Despacha todos os steps e só retorna quando todos terminarem, com sucesso ou não.
+     * @return as falhas, por stepId; vazio quando todos foram enviados.
+     */
+    public Map<String, Throwable> dispatchAll(List<DisbursementStep> steps) {
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[steps.size()];
+
+        for (int i = 0; i < steps.size(); i++) {
+            DisbursementStep step = steps.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> dispatchWithPermit(step), executor)
+                    .exceptionally(ex -> {
+                        failures.put(step.getId(), ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                        return null;
+                    });
+        }
+
+        CompletableFuture.allOf(futures).join();
+        return failures;
+    }
+
+    private void dispatchWithPermit(DisbursementStep step) {
+        Semaphore permits = permitsByChannel.get(step.getType());
+        if (permits == null) {
+            processingService.dispatch(step);
+            return;
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando vaga no canal " + step.getType(), e);
+        }
+
+        try {
+            processingService.dispatch(step);
+        } finally {
+            permits.release();
+        }
+    }
+}
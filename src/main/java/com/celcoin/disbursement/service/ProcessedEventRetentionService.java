@@ -0,0 +1,124 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.TableSize;
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expira os registros de idempotência mais antigos que a janela de retenção.
+ * <p>
+ * Apaga em blocos pequenos ({@code DELETE ... ORDER BY processed_at LIMIT n}), cada um na sua própria transação curta,
+ * pelo índice de {@code processed_at}: só linhas frias são travadas e os inserts dos consumidores não esperam pelo expurgo.
+ * A janela precisa cobrir o maior intervalo de reentrega esperado (retentativas, DLT, reprocessamentos manuais).
+ */
+@Service
+@ConditionalOnProperty(name = "disbursement.idempotency.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessedEventRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedEventRetentionService.class);
+
+    private final ProcessedEventRepository eventRepository;
+    private final Duration retention;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long chunkPauseMs;
+
+    private final Counter purgedRows;
+    private final Timer purgeDuration;
+    private final AtomicLong tableRows = new AtomicLong();
+    private final AtomicLong tableBytes = new AtomicLong();
+
+    public ProcessedEventRetentionService(ProcessedEventRepository eventRepository,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${disbursement.idempotency.retention.window:P7D}") Duration retention,
+                                          @Value("${disbursement.idempotency.retention.chunk-size:5000}") int chunkSize,
+                                          @Value("${disbursement.idempotency.retention.max-chunks-per-run:200}") int maxChunksPerRun,
+                                          @Value("${disbursement.idempotency.retention.chunk-pause-ms:50}") long chunkPauseMs) {
+        this.eventRepository = eventRepository;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.chunkPauseMs = chunkPauseMs;
+
+        this.purgedRows = Counter.builder("idempotency.retention.purged")
+                .description("Registros de processed_events removidos pela retenção")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        this.purgeDuration = Timer.builder("idempotency.retention.run")
+                .description("Duração de cada execução do expurgo de processed_events")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.processed-events.rows", tableRows, AtomicLong::get)
+                .description("Quantidade estimada de linhas em processed_events")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.processed-events.size", tableBytes, AtomicLong::get)
+                .description("Tamanho estimado de processed_events (dados + índices)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remove os registros expirados e atualiza as métricas de tamanho da tabela.
+     * @return a quantidade de linhas removidas nesta execução.
+     */
+    @Scheduled(fixedDelayString = "${disbursement.idempotency.retention.interval-ms:60000}",
+            initialDelayString = "${disbursement.idempotency.retention.interval-ms:60000}")
+    public long purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long start = System.nanoTime();
+        long purged = 0;
+        int chunks = 0;
+
+        try {
+            int deleted;
+            do {
+                deleted = eventRepository.deleteProcessedBefore(cutoff, chunkSize);
+                purged += deleted;
+                purgedRows.increment(deleted);
+                chunks++;
+
+                if (deleted == chunkSize && chunkPauseMs > 0) {
+                    Thread.sleep(chunkPauseMs);
+                }
+            } while (deleted == chunkSize && chunks < maxChunksPerRun);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Expurgo de processed_events interrompido após {} registros", purged);
+        } catch (Exception e) {
+            logger.error("Erro no expurgo de processed_events após {} registros", purged, e);
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            purgeDuration.record(Duration.ofNanos(elapsedNanos));
+            if (purged > 0) {
+                logger.info("Retenção: {} registros de processed_events anteriores a {} removidos em {} blocos ({} ms)",
+                        purged, cutoff, chunks, elapsedNanos / 1_000_000);
+            }
+        }
+
+        refreshTableSize();
+        return purged;
+    }
+
+    private void refreshTableSize() {
+        try {
+            TableSize size = eventRepository.estimateSize();
+            tableRows.set(size.rows());
+            tableBytes.set(size.bytes());
+        } catch (Exception e) {
+            logger.warn("Não foi possível obter o tamanho de processed_events: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.Optional;
+
+/**
+ * Decide se um lote recorrente deve rodar agora e calcula a chave de idempotência do ciclo,
+ * que garante uma única execução por dia, semana, mês ou ano.
+ */
+public final class RecurrenceKeyResolver {
+
+    private RecurrenceKeyResolver() {
+    }
+
+    /**
+     * @return a chave do ciclo atual, ou vazio se o lote não deve rodar em {@code now}.
+     */
+    public static Optional<String> resolve(DisbursementBatch batch, LocalDateTime now) {
+        LocalDateTime templateDateTime = batch.getScheduleDate();
+        boolean isExecutionTime = now.toLocalTime().isAfter(templateDateTime.toLocalTime());
+
+        if (!isExecutionTime || batch.getRecurrency() == null) {
+            return Optional.empty();
+        }
+
+        LocalDate currentDate = now.toLocalDate();
+        String idempotencyKey = switch (batch.getRecurrency()) {
+            case DAILY -> batch.getId() + "_" + currentDate; // Ex: batchId_2025-10-15
+
+            // Chave baseada no ano e no número da semana
+            case WEEKLY -> currentDate.getDayOfWeek() == templateDateTime.getDayOfWeek()
+                    ? String.format("%s_%d_W%02d",
+                            batch.getId(),
+                            currentDate.getYear(),
+                            currentDate.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR))
+                    : null;
+
+            case MONTHLY -> currentDate.getDayOfMonth() == templateDateTime.getDayOfMonth()
+                    ? String.format("%s_%d_%02d",
+                            batch.getId(),
+                            currentDate.getYear(),
+                            currentDate.getMonthValue())
+                    : null;
+
+            case ANNUALLY -> currentDate.getMonth() == templateDateTime.getMonth() &&
+                    currentDate.getDayOfMonth() == templateDateTime.getDayOfMonth()
+                    ? String.format("%s_%d", batch.getId(), currentDate.getYear())
+                    : null;
+        };
+        return Optional.ofNullable(idempotencyKey);
+    }
+}
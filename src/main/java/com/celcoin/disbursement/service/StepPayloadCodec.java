@@ -0,0 +1,66 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Converte o {@code payload} dos steps entre JSON e {@link DisbursementStepRequest}.
+ * <p>
+ * O leitor e o escritor são pré-construídos para o tipo, sem a resolução de tipo do {@code ObjectMapper} a cada chamada,
+ * e os payloads já convertidos ficam em um cache local por stepId: retentativas e reentregas do mesmo step não
+ * fazem o parse de novo. Lotes imediatos são pré-carregados na criação, então o primeiro envio também não faz parse.
+ * A coluna {@code payload} continua sendo a fonte da verdade.
+ */
+@Service
+public class StepPayloadCodec {
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final Cache<String, DisbursementStepRequest> decoded;
+
+    public StepPayloadCodec(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${disbursement.payload-cache.max-size:100000}") long cacheMaxSize,
+                            @Value("${disbursement.payload-cache.ttl:PT30M}") Duration cacheTtl) {
+        this.reader = objectMapper.readerFor(DisbursementStepRequest.class);
+        this.writer = objectMapper.writerFor(DisbursementStepRequest.class);
+        this.decoded = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decoded, "step.payload");
+    }
+
+    public String encode(DisbursementStepRequest request) throws JsonProcessingException {
+        return writer.writeValueAsString(request);
+    }
+
+    /**
+     * Guarda a forma já convertida de um step recém-criado, para o envio não precisar ler o JSON.
+     */
+    public void prime(String stepId, DisbursementStepRequest request) {
+        decoded.put(stepId, request);
+    }
+
+    public DisbursementStepRequest decode(DisbursementStep step) throws JsonProcessingException {
+        DisbursementStepRequest request = decoded.getIfPresent(step.getId());
+        if (request == null) {
+            request = reader.readValue(step.getPayload());
+            decoded.put(step.getId(), request);
+        }
+        return request;
+    }
+}
@@ -1,9 +1,20 @@
 package com.celcoin.disbursement.strategy;
 
+import com.celcoin.disbursement.adapter.DisbursementChannelAdapter;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 
+import java.util.List;
+
 public interface DisbursementStrategy {
     void execute(DisbursementStep step);
     StepType getChannelType();
-}
+
+    /**
+     * Envia vários steps do canal de uma vez. Veja {@link DisbursementChannelAdapter#sendBatch}.
+     */
+    default List<ExternalRequestResponse> executeBatch(List<DisbursementStep> steps) {
+        return DisbursementChannelAdapter.sendOneByOne(steps, this::execute);
+    }
+}
\ No newline at end of file
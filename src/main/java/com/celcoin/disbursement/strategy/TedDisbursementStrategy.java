@@ -1,6 +1,7 @@
 package com.celcoin.disbursement.strategy;
 
 import com.celcoin.disbursement.adapter.TedAdapter;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import org.slf4j.Logger;
@@ -8,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class TedDisbursementStrategy implements DisbursementStrategy {
 
@@ -22,6 +25,12 @@ public class TedDisbursementStrategy implements DisbursementStrategy {
         adapter.send(step);
     }
 
+    @Override
+    public List<ExternalRequestResponse> executeBatch(List<DisbursementStep> steps) {
+        logger.info("INICIANDO DESEMBOLSO TED em lote de {} steps", steps.size());
+        return adapter.sendBatch(steps);
+    }
+
     @Override
     public StepType getChannelType() {
         return StepType.TED;
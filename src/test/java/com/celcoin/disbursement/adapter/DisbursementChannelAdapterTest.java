@@ -0,0 +1,68 @@
+package com.celcoin.disbursement.adapter;
+
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DisbursementChannelAdapterTest {
+
+    @Test
+    @DisplayName("Deve manter o resultado dos steps já enviados quando o terceiro de cinco falha")
+    void sendBatch_whenThirdItemFails_shouldKeepSentResultsAndReturnRestAsPending() {
+        // Arrange
+        List<String> sent = new ArrayList<>();
+        DisbursementChannelAdapter adapter = step -> {
+            if (step.getId().equals("step-2")) {
+                throw new DisbursementProcessingException("503", "Gateway indisponível");
+            }
+            step.setExternalId("ext-" + step.getId());
+            sent.add(step.getId());
+        };
+        List<DisbursementStep> steps = IntStream.range(0, 5).mapToObj(i -> step("step-" + i)).toList();
+
+        // Act
+        List<ExternalRequestResponse> responses = adapter.sendBatch(steps);
+
+        // Assert
+        assertThat(sent).containsExactly("step-0", "step-1");
+        assertThat(responses).extracting(ExternalRequestResponse::clientRequestId)
+                .containsExactly("step-0", "step-1", "step-2", "step-3", "step-4");
+        assertThat(responses.subList(0, 2)).allSatisfy(response -> {
+            assertThat(response.externalId()).isEqualTo("ext-" + response.clientRequestId());
+            assertThat(response.status()).isEqualTo(StepStatus.PROCESSING);
+        });
+        assertThat(responses.subList(2, 5)).allSatisfy(response -> {
+            assertThat(response.externalId()).isNull();
+            assertThat(response.status()).isEqualTo(StepStatus.PENDING);
+        });
+        assertThat(responses.get(2).failureReason()).isEqualTo("Gateway indisponível");
+    }
+
+    @Test
+    @DisplayName("Deve relançar a falha do primeiro step, já que nenhum step foi enviado")
+    void sendBatch_whenFirstItemFails_shouldThrow() {
+        // Arrange
+        DisbursementChannelAdapter adapter = step -> {
+            throw new DisbursementProcessingException("503", "Gateway indisponível");
+        };
+
+        // Act & Assert
+        assertThrows(DisbursementProcessingException.class, () -> adapter.sendBatch(List.of(step("step-0"), step("step-1"))));
+    }
+
+    private static DisbursementStep step(String id) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        return step;
+    }
+}
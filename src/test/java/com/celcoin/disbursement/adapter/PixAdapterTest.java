@@ -0,0 +1,197 @@
+package com.celcoin.disbursement.adapter;
+
+import com.celcoin.disbursement.config.ChannelHttpClientConfig;
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.celcoin.disbursement.service.StepPayloadCodec;
+import com.celcoin.disbursement.stub.ChannelStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PixAdapterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DisbursementStepRepository stepRepository = mock(DisbursementStepRepository.class);
+    private final CloseableHttpClient httpClient = ChannelHttpClientConfig.buildHttpClient(
+            Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(1), 20, 20);
+    private ChannelStubServer stubServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubServer = new ChannelStubServer(0, 20, 0.0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stubServer.close();
+        httpClient.close();
+    }
+
+    @Test
+    @DisplayName("Deve enviar o PIX ao gateway e guardar o externalId retornado")
+    void send_shouldStoreExternalIdFromGateway() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+        DisbursementStep step = step();
+
+        // Act
+        adapter.send(step);
+
+        // Assert
+        assertThat(step.getExternalId()).isNotBlank();
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+        verify(stepRepository).saveAndFlush(step);
+    }
+
+    @Test
+    @DisplayName("Deve enviar em paralelo pelo pool de conexões com sendAsync")
+    void sendAsync_shouldSendConcurrently() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+        List<DisbursementStep> steps = IntStream.range(0, 50).mapToObj(i -> step()).toList();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture.allOf(steps.stream()
+                    .map(step -> adapter.sendAsync(step, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+
+        // Assert
+        assertThat(steps).allSatisfy(step -> assertThat(step.getExternalId()).isNotBlank());
+        assertThat(stubServer.requestCount()).isEqualTo(50);
+        verify(stepRepository, times(50)).saveAndFlush(any(DisbursementStep.class));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote em uma única chamada e devolver um externalId por step, sem gravar")
+    void sendBatch_shouldSendOneRequestAndMapExternalIdsByStep() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+        List<DisbursementStep> steps = IntStream.range(0, 10).mapToObj(i -> step()).toList();
+
+        // Act
+        List<ExternalRequestResponse> responses = adapter.sendBatch(steps);
+
+        // Assert
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+        assertThat(responses).extracting(ExternalRequestResponse::clientRequestId)
+                .containsExactlyInAnyOrderElementsOf(steps.stream().map(DisbursementStep::getId).toList());
+        assertThat(responses).allSatisfy(response -> assertThat(response.externalId()).isNotBlank());
+        verify(stepRepository, never()).saveAndFlush(any(DisbursementStep.class));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o traceId no header da chamada em lote quando todos os steps são do mesmo lote")
+    void sendBatch_withSameTraceId_shouldSendTraceHeader() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+        List<DisbursementStep> steps = IntStream.range(0, 3).mapToObj(i -> step("trace-1")).toList();
+
+        // Act
+        adapter.sendBatch(steps);
+
+        // Assert
+        assertThat(stubServer.lastTraceId()).isEqualTo("trace-1");
+        assertThat(objectMapper.readTree(stubServer.lastRequestBody()))
+                .allSatisfy(item -> assertThat(item.path("traceId").asText()).isEqualTo("trace-1"));
+    }
+
+    @Test
+    @DisplayName("Deve enviar o traceId por item, sem header, quando os steps são de lotes diferentes")
+    void sendBatch_withDifferentTraceIds_shouldSendTraceIdPerItem() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+        List<DisbursementStep> steps = List.of(step("trace-1"), step("trace-2"));
+
+        // Act
+        adapter.sendBatch(steps);
+
+        // Assert
+        assertThat(stubServer.lastTraceId()).isNull();
+        assertThat(objectMapper.readTree(stubServer.lastRequestBody()))
+                .extracting(item -> item.path("traceId").asText())
+                .containsExactly("trace-1", "trace-2");
+    }
+
+    @Test
+    @DisplayName("Deve enviar o traceId do step no header da chamada individual")
+    void send_shouldSendTraceHeader() throws Exception {
+        // Arrange
+        PixAdapter adapter = adapter(stubServer.baseUrl());
+
+        // Act
+        adapter.send(step("trace-1"));
+
+        // Assert
+        assertThat(stubServer.lastTraceId()).isEqualTo("trace-1");
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando o gateway está indisponível")
+    void send_whenGatewayFails_shouldThrow() throws Exception {
+        // Arrange
+        try (ChannelStubServer failingServer = new ChannelStubServer(0, 0, 1.0)) {
+            PixAdapter adapter = adapter(failingServer.baseUrl());
+
+            // Act & Assert
+            assertThrows(DisbursementProcessingException.class, () -> adapter.send(step()));
+        }
+    }
+
+    private PixAdapter adapter(String baseUrl) {
+        PixAdapter adapter = new PixAdapter(ChannelHttpClientConfig.buildRestClient(httpClient, baseUrl), baseUrl);
+        ReflectionTestUtils.setField(adapter, "payloadCodec", new StepPayloadCodec(objectMapper, new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(adapter, "stepRepository", stepRepository);
+        return adapter;
+    }
+
+    private DisbursementStep step() {
+        return step(null);
+    }
+
+    private DisbursementStep step(String traceId) {
+        DisbursementStepRequest request = new DisbursementStepRequest(new BigDecimal("10.00"),
+                CreditParty.builder().name("Receiver").taxId("11122233344").build(), null);
+        try {
+            return DisbursementStep.builder()
+                    .id(UUID.randomUUID().toString())
+                    .type(StepType.PIX)
+                    .traceId(traceId)
+                    .payload(objectMapper.writeValueAsString(request))
+                    .batch(DisbursementBatch.builder().id("batch-1").clientCode("client-1").build())
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.celcoin.disbursement.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks JMH deste pacote e grava o resultado em JSON, para comparar execuções ao longo do tempo.
+ * <p>
+ * Executar com: {@code mvn -Pbenchmark test [-Dbenchmark.include=Idempotency] [-Dbenchmark.result=target/jmh-result.json]}
+ * <br>
+ * Argumentos: {@code [regex dos benchmarks] [arquivo de resultado]}.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = BenchmarkRunner.class.getPackageName() + "\\..*Benchmark";
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : DEFAULT_INCLUDE;
+        String result = args.length > 1 && !args[1].isBlank() ? args[1] : DEFAULT_RESULT;
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.celcoin.disbursement.benchmark;
+
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementDto;
+import com.celcoin.disbursement.model.dto.DisbursementRequest;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.Schedule;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização e desserialização do corpo de {@code POST /disbursements} para lotes de tamanhos diferentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisbursementRequestJsonBenchmark {
+
+    @Param({"10", "1000"})
+    public int steps;
+
+    private ObjectMapper objectMapper;
+    private DisbursementRequest request;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Mesmos módulos registrados pelo Spring Boot (java.time etc.)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        CreditParty creditParty = CreditParty.builder().name("Recebedor Benchmark").taxId("11122233344").build();
+        List<DisbursementDto> disbursements = new ArrayList<>(steps);
+        for (int i = 0; i < steps; i++) {
+            StepType type = i % 2 == 0 ? StepType.PIX : StepType.TED;
+            disbursements.add(new DisbursementDto(type, new DisbursementStepRequest(new BigDecimal("10.00"), creditParty, null)));
+        }
+        request = new DisbursementRequest("benchmark", new Schedule(ScheduleType.IMMEDIATE, LocalDateTime.now(), null), disbursements);
+        json = objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public DisbursementRequest deserialize() throws Exception {
+        return objectMapper.readValue(json, DisbursementRequest.class);
+    }
+}
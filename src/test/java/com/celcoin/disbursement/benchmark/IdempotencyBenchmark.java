@@ -0,0 +1,147 @@
+package com.celcoin.disbursement.benchmark;
+
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import com.celcoin.disbursement.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Custo do {@link IdempotencyService} fora do banco: cache local, montagem dos lotes e o caminho de reivindicação,
+ * com a tabela {@code processed_events} substituída por um mapa em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyBenchmark {
+
+    private static final String GROUP = "disbursement-processor";
+    private static final int POLL_SIZE = 500;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private IdempotencyService idempotencyService;
+    private List<String> halfSeenPoll;
+
+    // Recria o serviço e a "tabela" a cada iteração para o mapa em memória não crescer sem limite
+    @Setup(Level.Iteration)
+    public void setUp() {
+        idempotencyService = new IdempotencyService(inMemoryRepository(), new NoOpTransactionManager(),
+                new SimpleMeterRegistry(), 200_000, Duration.ofMinutes(10));
+        idempotencyService.claim("seen-event", GROUP);
+
+        halfSeenPoll = new ArrayList<>(POLL_SIZE);
+        for (int i = 0; i < POLL_SIZE; i++) {
+            String eventId = "poll-" + i;
+            if (i % 2 == 0) {
+                idempotencyService.claim(eventId, GROUP);
+            }
+            halfSeenPoll.add(eventId);
+        }
+    }
+
+    @Benchmark
+    public boolean claimNewEvent() {
+        return idempotencyService.claim("event-" + sequence.incrementAndGet(), GROUP);
+    }
+
+    @Benchmark
+    public boolean claimDuplicateFromCache() {
+        return idempotencyService.claim("seen-event", GROUP);
+    }
+
+    @Benchmark
+    public Set<String> filterDuplicatesAllSeen() {
+        // Metade já vista pelo setUp; a outra metade é reivindicada na primeira chamada e vira cache nas seguintes
+        return idempotencyService.filterDuplicates(halfSeenPoll, GROUP);
+    }
+
+    @Benchmark
+    public Set<String> filterDuplicatesNewPoll() {
+        long base = sequence.addAndGet(POLL_SIZE);
+        List<String> poll = new ArrayList<>(POLL_SIZE);
+        for (int i = 0; i < POLL_SIZE; i++) {
+            poll.add("poll-event-" + (base + i));
+        }
+        return idempotencyService.filterDuplicates(poll, GROUP);
+    }
+
+    /**
+     * Substituto de {@link ProcessedEventRepository} com só os métodos usados pelo {@link IdempotencyService}.
+     */
+    private static ProcessedEventRepository inMemoryRepository() {
+        Map<String, String> processed = new ConcurrentHashMap<>();
+        return (ProcessedEventRepository) Proxy.newProxyInstance(
+                ProcessedEventRepository.class.getClassLoader(),
+                new Class<?>[]{ProcessedEventRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "claim" -> processed.putIfAbsent((String) args[0], (String) args[1]) == null;
+                    case "claimAll" -> claimAll(processed, (Collection<?>) args[0], (String) args[1]);
+                    case "findExistingIds" -> ((Collection<?>) args[0]).stream()
+                            .map(String.class::cast)
+                            .filter(processed::containsKey)
+                            .toList();
+                    case "deleteAllByIdInBatch" -> {
+                        ((Iterable<?>) args[0]).forEach(processed::remove);
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryProcessedEventRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Como o INSERT multi-linha do repositório: atômico, e um id já registrado faz o comando inteiro não inserir nada
+    private static int claimAll(Map<String, String> processed, Collection<?> eventIds, String consumerGroup) {
+        synchronized (processed) {
+            if (eventIds.stream().anyMatch(processed::containsKey)) {
+                return 0;
+            }
+            eventIds.forEach(eventId -> processed.put((String) eventId, consumerGroup));
+            return eventIds.size();
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
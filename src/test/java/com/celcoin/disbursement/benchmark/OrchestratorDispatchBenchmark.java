@@ -0,0 +1,95 @@
+package com.celcoin.disbursement.benchmark;
+
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.resilience.ChannelConcurrencyLimiters;
+import com.celcoin.disbursement.resilience.ChannelResilience;
+import com.celcoin.disbursement.service.DisbursementOrchestrator;
+import com.celcoin.disbursement.strategy.DisbursementStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo próprio de {@link DisbursementOrchestrator#process}: escolha da estratégia, circuit breaker, bulkhead e
+ * limitador adaptativo, com estratégias que não fazem chamada externa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrchestratorDispatchBenchmark {
+
+    private DisbursementOrchestrator orchestrator;
+    private DisbursementStep pixStep;
+    private DisbursementStep tedStep;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChannelConcurrencyLimiters limiters = new ChannelConcurrencyLimiters(meterRegistry, Duration.ofSeconds(5), 0.9,
+                256, 2, 256, Duration.ofSeconds(1), 64, 1, 64, Duration.ofSeconds(3));
+        ChannelResilience resilience = new ChannelResilience(event -> { }, meterRegistry, Clock.systemUTC(),
+                50, 20, 0.5, Duration.ofSeconds(30), 5, 200, 50);
+        orchestrator = new DisbursementOrchestrator(
+                List.of(new NoOpStrategy(StepType.PIX), new NoOpStrategy(StepType.TED)), limiters, resilience,
+                new DisbursementMetrics(meterRegistry));
+
+        pixStep = step("pix-step", StepType.PIX);
+        tedStep = step("ted-step", StepType.TED);
+    }
+
+    @Benchmark
+    public void processPix() {
+        orchestrator.process(pixStep);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void processPixContended() {
+        orchestrator.process(pixStep);
+    }
+
+    @Benchmark
+    public void processTed() {
+        orchestrator.process(tedStep);
+    }
+
+    private static DisbursementStep step(String id, StepType type) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        step.setType(type);
+        return step;
+    }
+
+    private record NoOpStrategy(StepType channel) implements DisbursementStrategy {
+
+        @Override
+        public void execute(DisbursementStep step) {
+            Blackhole.consumeCPU(16);
+        }
+
+        @Override
+        public StepType getChannelType() {
+            return channel;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.celcoin.disbursement.benchmark;
+
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.Recurrency;
+import com.celcoin.disbursement.service.RecurrenceKeyResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo da chave de idempotência de um ciclo recorrente, executado pelo scheduler para cada lote RECURRENT a cada minuto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceKeyBenchmark {
+
+    @Param({"DAILY", "WEEKLY", "MONTHLY", "ANNUALLY"})
+    public Recurrency recurrency;
+
+    private DisbursementBatch batch;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime template = LocalDateTime.of(2025, 1, 6, 9, 0);
+        batch = DisbursementBatch.builder()
+                .id(UUID.randomUUID().toString())
+                .recurrency(recurrency)
+                .scheduleDate(template)
+                .build();
+        // Depois do horário e no mesmo dia do mês e do ano do template (ou da semana, para WEEKLY): todas as recorrências geram chave
+        now = recurrency == Recurrency.WEEKLY ? template.plusWeeks(52).plusHours(1) : template.plusYears(1).plusHours(1);
+    }
+
+    @Benchmark
+    public Optional<String> resolve() {
+        return RecurrenceKeyResolver.resolve(batch, now);
+    }
+}
@@ -0,0 +1,86 @@
+package com.celcoin.disbursement.benchmark;
+
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.pix.PixRequest;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.service.StepPayloadCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de obter o {@link PixRequest} de um step a cada tentativa de envio:
+ * parse com {@code ObjectMapper.readValue} (como era no {@code PixAdapter}), parse com um {@code ObjectReader}
+ * pré-construído (o que o {@link StepPayloadCodec} faz com o cache frio) e leitura do cache (retentativa ou lote pré-carregado).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepPayloadBenchmark {
+
+    private ObjectMapper objectMapper;
+    private StepPayloadCodec codec;
+    private ObjectReader reader;
+    private DisbursementStep step;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        codec = new StepPayloadCodec(objectMapper, new SimpleMeterRegistry(), 1_000, Duration.ofHours(1));
+        reader = objectMapper.readerFor(DisbursementStepRequest.class);
+
+        DisbursementStepRequest request = new DisbursementStepRequest(new BigDecimal("1250.75"),
+                CreditParty.builder()
+                        .Key("chave@exemplo.com")
+                        .account("123456")
+                        .accountType("CACC")
+                        .bank("00000000")
+                        .branch("0001")
+                        .name("Recebedor Benchmark")
+                        .taxId("11122233344")
+                        .build(),
+                "MANUAL");
+        step = new DisbursementStep();
+        step.setId(UUID.randomUUID().toString());
+        step.setPayload(codec.encode(request));
+        codec.prime(step.getId(), request);
+    }
+
+    @Benchmark
+    public PixRequest objectMapperReadValue() throws Exception {
+        return toPixRequest(objectMapper.readValue(step.getPayload(), DisbursementStepRequest.class));
+    }
+
+    @Benchmark
+    public PixRequest objectReaderReadValue() throws Exception {
+        return toPixRequest(reader.readValue(step.getPayload()));
+    }
+
+    @Benchmark
+    public PixRequest cachedDecode() throws Exception {
+        return toPixRequest(codec.decode(step));
+    }
+
+    private static PixRequest toPixRequest(DisbursementStepRequest request) {
+        return new PixRequest(request.amount(), "client-1", request.creditParty(), request.initiationType());
+    }
+}
@@ -0,0 +1,78 @@
+package com.celcoin.disbursement.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPlanAdvisorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private QueryPlanAdvisor advisor;
+
+    @BeforeEach
+    void setUp() {
+        advisor = new QueryPlanAdvisor(jdbcTemplate, 100);
+    }
+
+    @Test
+    @DisplayName("Deve apontar as tabelas lidas por varredura completa")
+    void findFullScans_shouldReportTablesWithTypeAll() {
+        // Arrange
+        String sql = "select ds1_0.id from disbursement_step ds1_0 where ds1_0.failure_reason=? limit ?";
+        when(jdbcTemplate.queryForList("EXPLAIN select ds1_0.id from disbursement_step ds1_0 where ds1_0.failure_reason='0' limit 1"))
+                .thenReturn(List.of(explainRow("ds1_0", "ALL", 1200L)));
+
+        // Act
+        List<String> fullScans = advisor.findFullScans(sql);
+
+        // Assert
+        assertThat(fullScans).containsExactly("ds1_0 (~1200 linhas)");
+    }
+
+    @Test
+    @DisplayName("NÃO deve apontar consultas que usam índice")
+    void findFullScans_whenIndexIsUsed_shouldReportNothing() {
+        // Arrange
+        String sql = "select ds1_0.id from disbursement_step ds1_0 where ds1_0.external_id=?";
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(explainRow("ds1_0", "ref", 1L)));
+
+        // Act & Assert
+        assertThat(advisor.findFullScans(sql)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("NÃO deve verificar inserts e deve devolver o SQL intacto")
+    void inspect_whenInsert_shouldSkipExplain() {
+        // Arrange
+        String sql = "insert into processed_events (event_id) values (?)";
+
+        // Act & Assert
+        assertThat(advisor.inspect(sql)).isEqualTo(sql);
+        verify(jdbcTemplate, never()).queryForList(anyString());
+    }
+
+    private Map<String, Object> explainRow(String table, String type, long rows) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("table", table);
+        row.put("type", type);
+        row.put("rows", rows);
+        return row;
+    }
+}
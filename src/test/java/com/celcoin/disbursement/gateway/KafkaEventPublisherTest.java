@@ -0,0 +1,174 @@
+package com.celcoin.disbursement.gateway;
+
+import com.celcoin.disbursement.metrics.TraceContext;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaEventPublisherTest {
+
+    private static final String TOPIC = "topic-1";
+    private static final long ACK_TIMEOUT_MS = 50;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, Object>> records;
+
+    private final List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>();
+
+    @Test
+    @DisplayName("Deve reportar só as mensagens com falha, com o índice de cada uma na lista original")
+    void publishAll_whenSomeSendsFail_shouldReportFailuresByIndex() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(10);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new KafkaException("broker indisponível")),
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new KafkaException("registro grande demais")));
+        List<OutboundEvent> events = events(4);
+
+        // Act
+        PublishReport result = publisher.publishAll(events);
+
+        // Assert
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.failures()).extracting(PublishReport.PublishFailure::index).containsExactly(1, 3);
+        assertThat(result.failures()).extracting(PublishReport.PublishFailure::event).containsExactly(events.get(1), events.get(3));
+        assertThat(result.failures().getFirst().reason()).isEqualTo("KafkaException: broker indisponível");
+    }
+
+    @Test
+    @DisplayName("Deve reportar como falha a mensagem cujo ack não chega dentro do prazo")
+    void publishAll_whenAckTimesOut_shouldReportPendingAsFailure() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(10);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(
+                new CompletableFuture<>(),
+                CompletableFuture.completedFuture(null));
+
+        // Act
+        PublishReport result = publisher.publishAll(events(2));
+
+        // Assert
+        assertThat(result.failures()).hasSize(1);
+        assertThat(result.failures().getFirst().index()).isZero();
+        assertThat(result.failures().getFirst().reason()).isEqualTo("Ack não recebido em " + ACK_TIMEOUT_MS + " ms");
+    }
+
+    @Test
+    @DisplayName("Deve recusar as mensagens acima do limite em trânsito sem enviá-las ao broker")
+    void publishAll_whenInFlightLimitReached_shouldFailExceedingMessagesWithoutSending() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(2);
+        stubSends();
+        List<OutboundEvent> events = events(3);
+
+        // Act
+        PublishReport result = publisher.publishAll(events);
+
+        // Assert
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertThat(result.failures()).extracting(PublishReport.PublishFailure::index).containsExactly(0, 1, 2);
+        assertThat(result.failures().get(2).reason()).startsWith("TimeoutException: Limite de mensagens em trânsito");
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga em trânsito quando o ack chega")
+    void publishAsync_whenAckArrives_shouldReleaseInFlightPermit() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(1);
+        stubSends();
+        CompletableFuture<Void> first = publisher.publishAsync(TOPIC, "key-0", "payload-0");
+        sends.getFirst().completeExceptionally(new KafkaException("broker indisponível"));
+
+        // Act
+        CompletableFuture<Void> second = publisher.publishAsync(TOPIC, "key-1", "payload-1");
+
+        // Assert
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isNotDone();
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga e reportar a falha quando o envio lança exceção")
+    void publishAll_whenSendThrows_shouldReleasePermitAndReportFailure() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(1);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenThrow(new KafkaException("produtor fechado"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        PublishReport result = publisher.publishAll(events(2));
+
+        // Assert
+        assertThat(result.failures()).hasSize(1);
+        assertThat(result.failures().getFirst().index()).isZero();
+        assertThat(result.failures().getFirst().reason()).isEqualTo("KafkaException: produtor fechado");
+    }
+
+    @Test
+    @DisplayName("Deve enviar o traceId do evento no header da mensagem")
+    void publishAll_withTraceId_shouldAddTraceHeader() {
+        // Arrange
+        KafkaEventPublisher publisher = publisher(10);
+        when(kafkaTemplate.send(records.capture())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        publisher.publishAll(List.of(new OutboundEvent(TOPIC, "key-0", "payload-0", "trace-1"),
+                new OutboundEvent(TOPIC, "key-1", "payload-1")));
+
+        // Assert
+        assertThat(new String(records.getAllValues().get(0).headers().lastHeader(TraceContext.HEADER).value(),
+                StandardCharsets.UTF_8)).isEqualTo("trace-1");
+        assertThat(records.getAllValues().get(1).headers().lastHeader(TraceContext.HEADER)).isNull();
+    }
+
+    private KafkaEventPublisher publisher(int maxInFlight) {
+        return new KafkaEventPublisher(kafkaTemplate, maxInFlight, 10, ACK_TIMEOUT_MS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSends() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+            sends.add(future);
+            return future;
+        });
+    }
+
+    private static List<OutboundEvent> events(int count) {
+        List<OutboundEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new OutboundEvent(TOPIC, "key-" + i, "payload-" + i));
+        }
+        return events;
+    }
+}
@@ -4,8 +4,10 @@ import com.celcoin.disbursement.config.KafkaTopicConfig;
 import com.celcoin.disbursement.exception.ResourceNotFoundException;
 import com.celcoin.disbursement.model.dto.DisbursementRequest;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.repository.DisbursementBatchRepository;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
@@ -28,8 +30,11 @@ import org.springframework.kafka.listener.MessageListener;
 import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,9 +45,13 @@ import java.util.concurrent.TimeUnit;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -92,7 +101,6 @@ public class DisbursementControllerIntegrationTest extends BaseIntegrationTest {
     @Test
     @DisplayName("POST /disbursements - Deve criar um desembolso IMEDIATO, persistir e publicar evento")
     @WithMockUser
-    @Transactional
     void createImmediateDisbursement_shouldPersistAndPublishEvent() throws Exception {
         // Arrange
         String clientCode = "immediate-client-" + UUID.randomUUID();
@@ -105,20 +113,20 @@ public class DisbursementControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isOk());
 
 
-        entityManager.clear();
-
         // Assert (Banco de Dados)
+        // Sem @Transactional no teste: o evento só sai do outbox depois do commit da requisição
         Optional<DisbursementBatch> batchOpt = batchRepository.findByClientCode(clientCode);
         assertThat(batchOpt).isPresent();
         DisbursementBatch batch = batchOpt.get();
         assertThat(batch.getStatus()).isEqualTo(BatchStatus.PROCESSING);
-        assertThat(batch.getSteps()).hasSize(1);
+        List<DisbursementStep> steps = stepRepository.findAll();
+        assertThat(steps).hasSize(1);
 
         // Assert (Kafka)
         ConsumerRecord<String, String> received = consumerRecords.poll(10, TimeUnit.SECONDS);
         assertThat(received).isNotNull();
         assertThat(received.topic()).isEqualTo(KafkaTopicConfig.PIX_REQUEST_TOPIC);
-        assertThat(received.value()).contains(batch.getSteps().get(0).getId());
+        assertThat(received.value()).contains(steps.get(0).getId());
     }
 
     @Test
@@ -210,4 +218,111 @@ public class DisbursementControllerIntegrationTest extends BaseIntegrationTest {
         assertInstanceOf(ResourceNotFoundException.class, rootCause, "A causa raiz da exceção deveria ser ResourceNotFoundException");
         assertThat(rootCause.getMessage()).contains("Lote de desembolso não encontrado com o clientCode: " + nonExistingCode);
     }
+
+    @Test
+    @DisplayName("GET /disbursements/{clientCode}/steps - Deve paginar os steps por cursor e filtrar por status")
+    @WithMockUser
+    void getSteps_shouldPaginateByCursorAndFilterByStatus() throws Exception {
+        // Arrange
+        String clientCode = "steps-client-" + UUID.randomUUID();
+        DisbursementBatch batch = saveBatchWithSteps(clientCode, 5);
+
+        // Act & Assert
+        MvcResult firstPage = mockMvc.perform(get("/disbursements/{clientCode}/steps", clientCode).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchId").value(batch.getId()))
+                .andExpect(jsonPath("$.steps.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/disbursements/{clientCode}/steps", clientCode).param("limit", "3").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.steps.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Os steps de índice par ficam FAILED (0, 2 e 4)
+        mockMvc.perform(get("/disbursements/{clientCode}/steps", clientCode).param("status", "FAILED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.steps.length()").value(3))
+                .andExpect(jsonPath("$.steps[0].status").value("FAILED"));
+    }
+
+    @Test
+    @DisplayName("GET /disbursements/{clientCode}/steps/stream - Deve escrever um step por linha em NDJSON")
+    @WithMockUser
+    void streamSteps_shouldWriteOneStepPerLine() throws Exception {
+        // Arrange
+        String clientCode = "stream-client-" + UUID.randomUUID();
+        saveBatchWithSteps(clientCode, 4);
+
+        // Act
+        MvcResult asyncResult = mockMvc.perform(get("/disbursements/{clientCode}/steps/stream", clientCode)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().strip().split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(objectMapper.readTree(lines[0]).has("stepId")).isTrue();
+    }
+
+    @Test
+    @DisplayName("GET /disbursements/{clientCode}/summary - Deve resumir o lote por status e tipo e devolver 304 com o mesmo ETag")
+    @WithMockUser
+    void getSummary_shouldAggregateAndHonorIfNoneMatch() throws Exception {
+        // Arrange
+        String clientCode = "summary-client-" + UUID.randomUUID();
+        DisbursementRequest request = createDisbursementRequest(clientCode, ScheduleType.SCHEDULED, LocalDateTime.now().plusDays(1), StepType.PIX);
+        mockMvc.perform(post("/disbursements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        MvcResult first = mockMvc.perform(get("/disbursements/{clientCode}/summary", clientCode))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.status").value("NOT_EXECUTED"))
+                .andExpect(jsonPath("$.total.count").value(1))
+                .andExpect(jsonPath("$.byStatus.PENDING.count").value(1))
+                .andExpect(jsonPath("$.byStatus.SUCCESS.count").value(0))
+                .andExpect(jsonPath("$.byType.PIX.count").value(1))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/disbursements/{clientCode}/summary", clientCode).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private DisbursementBatch saveBatchWithSteps(String clientCode, int stepCount) {
+        DisbursementBatch batch = DisbursementBatch.builder()
+                .id(UUID.randomUUID().toString())
+                .clientCode(clientCode)
+                .status(BatchStatus.PROCESSING)
+                .totalSteps(stepCount)
+                .createdAt(LocalDateTime.now())
+                .build();
+        batchRepository.save(batch);
+
+        List<DisbursementStep> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            steps.add(DisbursementStep.builder()
+                    .id(UUID.randomUUID().toString())
+                    .batch(batch)
+                    .type(StepType.PIX)
+                    .payload("{}")
+                    .status(i % 2 == 0 ? StepStatus.FAILED : StepStatus.SUCCESS)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        stepRepository.insertAll(steps);
+        return batch;
+    }
 }
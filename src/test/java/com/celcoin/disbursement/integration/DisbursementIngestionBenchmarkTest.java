@@ -0,0 +1,119 @@
+package com.celcoin.disbursement.integration;
+
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementDto;
+import com.celcoin.disbursement.model.dto.DisbursementRequest;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.Schedule;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mede a latência (p50/p99) de {@code POST /disbursements} para lotes de tamanhos diferentes.
+ * Usa lotes SCHEDULED para medir apenas a ingestão (persistência), sem a publicação no Kafka.
+ * <p>
+ * Executar com: {@code mvn test -Dtest=DisbursementIngestionBenchmarkTest -Dbenchmark=true [-Dbenchmark.iterations=30]}
+ */
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DisbursementIngestionBenchmarkTest extends BaseIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisbursementIngestionBenchmarkTest.class);
+    private static final int WARMUP_ITERATIONS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DisbursementBatchRepository batchRepository;
+
+    @Autowired
+    private DisbursementStepRepository stepRepository;
+
+    @AfterEach
+    void tearDown() {
+        stepRepository.deleteAllInBatch();
+        batchRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest(name = "{0} steps por lote")
+    @ValueSource(ints = {10, 1_000, 10_000})
+    @DisplayName("Benchmark - latência de criação de lote")
+    @WithMockUser
+    void createDisbursement_latency(int stepsPerBatch) throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", stepsPerBatch >= 10_000 ? 10 : 30);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            postBatch(stepsPerBatch);
+        }
+
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            samples[i] = postBatch(stepsPerBatch);
+        }
+        Arrays.sort(samples);
+
+        double p50 = percentile(samples, 50) / 1_000_000.0;
+        double p99 = percentile(samples, 99) / 1_000_000.0;
+        logger.info("[benchmark] steps={} iterações={} p50={} ms p99={} ms",
+                stepsPerBatch, iterations, String.format("%.2f", p50), String.format("%.2f", p99));
+
+        assertThat(stepRepository.count()).isEqualTo((long) stepsPerBatch * (iterations + WARMUP_ITERATIONS));
+    }
+
+    private long postBatch(int stepsPerBatch) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(buildRequest(stepsPerBatch));
+
+        long start = System.nanoTime();
+        mockMvc.perform(post("/disbursements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+
+    private DisbursementRequest buildRequest(int stepsPerBatch) {
+        CreditParty creditParty = CreditParty.builder().name("Benchmark Receiver").taxId("11122233344").build();
+        List<DisbursementDto> disbursements = new ArrayList<>(stepsPerBatch);
+        for (int i = 0; i < stepsPerBatch; i++) {
+            StepType type = i % 2 == 0 ? StepType.PIX : StepType.TED;
+            disbursements.add(new DisbursementDto(type, new DisbursementStepRequest(new BigDecimal("10.00"), creditParty, null)));
+        }
+        Schedule schedule = new Schedule(ScheduleType.SCHEDULED, LocalDateTime.now().plusYears(1), null);
+        return new DisbursementRequest("benchmark-" + UUID.randomUUID(), schedule, disbursements);
+    }
+
+    private static long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, Math.min(index, sortedSamples.length - 1))];
+    }
+}
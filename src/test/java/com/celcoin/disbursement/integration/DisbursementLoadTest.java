@@ -0,0 +1,270 @@
+package com.celcoin.disbursement.integration;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementDto;
+import com.celcoin.disbursement.model.dto.DisbursementRequest;
+import com.celcoin.disbursement.model.dto.DisbursementResponse;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.dto.Schedule;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import com.celcoin.disbursement.stub.ChannelStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga de ponta a ponta: gera lotes imediatos em {@code POST /disbursements} a uma taxa fixa, com os gateways
+ * PIX/TED simulados pelo {@link ChannelStubServer}, e liquida cada step como os canais reais fariam: webhook em
+ * {@code POST /notifications/pix} para PIX e resposta no tópico {@code disbursement-responses-ted} para TED.
+ * <p>
+ * Ao final registra, por canal, a vazão sustentada de steps liquidados e o histograma da latência entre a criação do
+ * lote e a liquidação do step (resolução do intervalo de verificação, {@code loadtest.poll-ms}).
+ * <p>
+ * Executar com: {@code mvn test -Dtest=DisbursementLoadTest -Dloadtest=true [-Dloadtest.rate=20] [-Dloadtest.duration-seconds=30]
+ * [-Dloadtest.steps-per-batch=10] [-Dloadtest.gateway-latency-ms=20] [-Dloadtest.settle-timeout-seconds=120]}
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class DisbursementLoadTest extends BaseIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisbursementLoadTest.class);
+    private static final long[] HISTOGRAM_BOUNDS_MS = {100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private static final ChannelStubServer gateway;
+
+    static {
+        try {
+            gateway = new ChannelStubServer(0, Long.getLong("loadtest.gateway-latency-ms", 20), 0.0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void setGatewayProperties(DynamicPropertyRegistry registry) {
+        registry.add("disbursement.channel.pix.base-url", gateway::baseUrl);
+        registry.add("disbursement.channel.ted.base-url", gateway::baseUrl);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private DisbursementBatchRepository batchRepository;
+
+    @Autowired
+    private DisbursementStepRepository stepRepository;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    private final Map<String, Long> submittedAtByBatchId = new ConcurrentHashMap<>();
+    private final Set<String> notifiedStepIds = ConcurrentHashMap.newKeySet();
+    private final Map<StepType, List<Long>> latenciesByChannel = new EnumMap<>(StepType.class);
+    private final Set<String> settledStepIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        stepRepository.deleteAllInBatch();
+        batchRepository.deleteAllInBatch();
+        processedEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Carga - vazão sustentada e latência de liquidação por canal")
+    void sustainedLoad_shouldSettleEveryStep() throws Exception {
+        // Arrange
+        int rate = Integer.getInteger("loadtest.rate", 20);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int stepsPerBatch = Integer.getInteger("loadtest.steps-per-batch", 10);
+        long pollMs = Long.getLong("loadtest.poll-ms", 50);
+        long settleTimeoutSeconds = Long.getLong("loadtest.settle-timeout-seconds", 120);
+        int expectedSteps = rate * durationSeconds * stepsPerBatch;
+        for (StepType channel : StepType.values()) {
+            latenciesByChannel.put(channel, new ArrayList<>(expectedSteps));
+        }
+
+        ScheduledExecutorService ticker = Executors.newScheduledThreadPool(2);
+        ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+        AtomicInteger submittedBatches = new AtomicInteger();
+
+        // Act
+        long start = System.nanoTime();
+        ticker.scheduleAtFixedRate(() -> {
+            if (submittedBatches.incrementAndGet() <= rate * durationSeconds) {
+                senders.execute(() -> postBatch(stepsPerBatch));
+            }
+        }, 0, TimeUnit.SECONDS.toNanos(1) / rate, TimeUnit.NANOSECONDS);
+        ticker.scheduleWithFixedDelay(() -> settleAndMeasure(senders), pollMs, pollMs, TimeUnit.MILLISECONDS);
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds + settleTimeoutSeconds);
+        while (settledStepIds.size() < expectedSteps - failedRequests.get() * stepsPerBatch && System.nanoTime() < deadline) {
+            Thread.sleep(250);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        ticker.shutdownNow();
+        senders.shutdownNow();
+
+        // Assert
+        report(elapsedSeconds, expectedSteps);
+        assertThat(failedRequests.get()).isZero();
+        assertThat(settledStepIds).hasSize(expectedSteps);
+    }
+
+    private void postBatch(int stepsPerBatch) {
+        long submittedAt = System.nanoTime();
+        try {
+            ResponseEntity<DisbursementResponse> response =
+                    restTemplate.postForEntity("/disbursements", buildRequest(stepsPerBatch), DisbursementResponse.class);
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                failedRequests.incrementAndGet();
+                return;
+            }
+            submittedAtByBatchId.put(response.getBody().id(), submittedAt);
+        } catch (Exception e) {
+            logger.warn("[loadtest] falha ao criar lote: {}", e.getMessage());
+            failedRequests.incrementAndGet();
+        }
+    }
+
+    // Faz o papel dos canais (webhook PIX, resposta TED) e registra os steps que chegaram ao status final
+    private void settleAndMeasure(ExecutorService senders) {
+        try {
+            List<Map<String, Object>> sent = jdbcTemplate.queryForList(
+                    "SELECT id, type, external_id FROM disbursement_step WHERE status = 'PROCESSING' AND external_id IS NOT NULL");
+            for (Map<String, Object> row : sent) {
+                String stepId = (String) row.get("id");
+                if (notifiedStepIds.add(stepId)) {
+                    String externalId = (String) row.get("external_id");
+                    StepType channel = StepType.valueOf((String) row.get("type"));
+                    senders.execute(() -> settle(channel, externalId));
+                }
+            }
+
+            long now = System.nanoTime();
+            List<Map<String, Object>> settled = jdbcTemplate.queryForList(
+                    "SELECT id, batch_id, type FROM disbursement_step WHERE status IN ('SUCCESS', 'FAILED')");
+            for (Map<String, Object> row : settled) {
+                Long submittedAt = submittedAtByBatchId.get((String) row.get("batch_id"));
+                if (submittedAt != null && settledStepIds.add((String) row.get("id"))) {
+                    List<Long> latencies = latenciesByChannel.get(StepType.valueOf((String) row.get("type")));
+                    synchronized (latencies) {
+                        latencies.add(now - submittedAt);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("[loadtest] falha na verificação de steps: {}", e.getMessage());
+        }
+    }
+
+    private void settle(StepType channel, String externalId) {
+        ExternalRequestResponse confirmation = new ExternalRequestResponse(null, externalId, StepStatus.SUCCESS, null);
+        if (channel == StepType.PIX) {
+            restTemplate.postForEntity("/notifications/pix", confirmation, Void.class);
+        } else {
+            kafkaTemplate.send(KafkaTopicConfig.TED_RESPONSE_TOPIC, externalId, confirmation);
+        }
+    }
+
+    private void report(double elapsedSeconds, int expectedSteps) {
+        logger.info("[loadtest] {} de {} steps liquidados em {} s ({} requisições com falha, {} chamadas ao gateway)",
+                settledStepIds.size(), expectedSteps, String.format("%.1f", elapsedSeconds), failedRequests.get(), gateway.requestCount());
+
+        latenciesByChannel.forEach((channel, latencies) -> {
+            long[] samples;
+            synchronized (latencies) {
+                samples = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            if (samples.length == 0) {
+                return;
+            }
+            Arrays.sort(samples);
+            logger.info("[loadtest] {}: {} steps, {} steps/s, p50={} ms p90={} ms p99={} ms max={} ms",
+                    channel, samples.length, String.format("%.1f", samples.length / elapsedSeconds),
+                    millis(percentile(samples, 50)), millis(percentile(samples, 90)),
+                    millis(percentile(samples, 99)), millis(samples[samples.length - 1]));
+            logger.info("[loadtest] {} histograma:\n{}", channel, histogram(samples));
+        });
+    }
+
+    private static String histogram(long[] sortedSamples) {
+        StringBuilder histogram = new StringBuilder();
+        int from = 0;
+        for (int bucket = 0; bucket <= HISTOGRAM_BOUNDS_MS.length; bucket++) {
+            long bound = bucket < HISTOGRAM_BOUNDS_MS.length ? TimeUnit.MILLISECONDS.toNanos(HISTOGRAM_BOUNDS_MS[bucket]) : Long.MAX_VALUE;
+            int to = from;
+            while (to < sortedSamples.length && sortedSamples[to] < bound) {
+                to++;
+            }
+            String label = bucket < HISTOGRAM_BOUNDS_MS.length ? "< " + HISTOGRAM_BOUNDS_MS[bucket] + " ms" : ">= " + HISTOGRAM_BOUNDS_MS[bucket - 1] + " ms";
+            int count = to - from;
+            histogram.append(String.format("  %-12s %7d %s%n", label, count, "#".repeat((int) Math.round(50.0 * count / sortedSamples.length))));
+            from = to;
+        }
+        return histogram.toString();
+    }
+
+    private DisbursementRequest buildRequest(int stepsPerBatch) {
+        CreditParty creditParty = CreditParty.builder().name("Load Test Receiver").taxId("11122233344").build();
+        List<DisbursementDto> disbursements = new ArrayList<>(stepsPerBatch);
+        for (int i = 0; i < stepsPerBatch; i++) {
+            StepType type = i % 2 == 0 ? StepType.PIX : StepType.TED;
+            disbursements.add(new DisbursementDto(type, new DisbursementStepRequest(new BigDecimal("10.00"), creditParty, null)));
+        }
+        Schedule schedule = new Schedule(ScheduleType.IMMEDIATE, LocalDateTime.now(), null);
+        return new DisbursementRequest("loadtest-" + UUID.randomUUID(), schedule, disbursements);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, Math.min(index, sortedSamples.length - 1))];
+    }
+}
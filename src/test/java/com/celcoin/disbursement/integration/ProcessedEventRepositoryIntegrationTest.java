@@ -0,0 +1,63 @@
+package com.celcoin.disbursement.integration;
+
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessedEventRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    private static final String GROUP_ID = "RECURRENT_SCHEDULER";
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        processedEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve reivindicar cada ciclo de um lote recorrente com a chave completa, sem truncar no id do lote")
+    void claim_withRecurrenceKeys_shouldClaimEachCycle() {
+        // Arrange
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        boolean firstDay = processedEventRepository.claim(batchId + "_2025-10-15", GROUP_ID, now);
+        boolean secondDay = processedEventRepository.claim(batchId + "_2025-10-16", GROUP_ID, now);
+        boolean week = processedEventRepository.claim(batchId + "_2025_W42", GROUP_ID, now);
+        boolean repeatedDay = processedEventRepository.claim(batchId + "_2025-10-15", GROUP_ID, now);
+
+        // Assert
+        assertThat(firstDay).isTrue();
+        assertThat(secondDay).isTrue();
+        assertThat(week).isTrue();
+        assertThat(repeatedDay).isFalse();
+        assertThat(processedEventRepository.findById(batchId + "_2025-10-16")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Deve inserir todo o lote de reivindicações ou nenhuma quando algum id já existe")
+    void claimAll_whenSomeIdExists_shouldInsertNothing() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        processedEventRepository.claim("event-1", GROUP_ID, now);
+
+        // Act
+        int inserted = processedEventRepository.claimAll(List.of("event-1", "event-2"), GROUP_ID, now);
+
+        // Assert
+        assertThat(inserted).isZero();
+        assertThat(processedEventRepository.findById("event-2")).isEmpty();
+        assertThat(processedEventRepository.claimAll(List.of("event-2", "event-3"), GROUP_ID, now)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,258 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.service.ChannelBatchAccumulator;
+import com.celcoin.disbursement.service.DisbursementProcessingService;
+import com.celcoin.disbursement.service.IdempotencyService;
+import com.celcoin.disbursement.service.ParallelStepDispatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisbursementRequestBatchConsumerTest {
+
+    @Mock
+    private DisbursementProcessingService processingService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ParallelStepDispatcher stepDispatcher;
+
+    @Mock
+    private ChannelBatchAccumulator batchAccumulator;
+
+    @Mock
+    private DisbursementMetrics metrics;
+
+    @InjectMocks
+    private DisbursementRequestBatchConsumer consumer;
+
+    @Test
+    @DisplayName("Deve deduplicar o poll, reservar os steps em lote e despachar cada um")
+    void consume_shouldClaimAndDispatchNewSteps() {
+        // Arrange
+        List<DisbursementRequestEvent> events = List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2"),
+                new DisbursementRequestEvent("step-1"));
+        DisbursementStep step1 = step("step-1");
+        DisbursementStep step2 = step("step-2");
+
+        when(idempotencyService.filterDuplicates(anyCollection(), eq("disbursement-processor")))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2")));
+        when(processingService.claimAll(anyCollection())).thenReturn(List.of(step2, step1));
+
+        // Act
+        consumer.consumePixRequests(events, List.of());
+
+        // Assert
+        verify(processingService).dispatch(step1);
+        verify(processingService).dispatch(step2);
+        verify(processingService, never()).release(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve apontar o registro com falha e liberar os steps ainda não enviados")
+    void consume_whenDispatchFails_shouldReportFailedIndexAndReleaseRemaining() {
+        // Arrange
+        List<DisbursementRequestEvent> events = List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2"),
+                new DisbursementRequestEvent("step-3"));
+        DisbursementStep step1 = step("step-1");
+        DisbursementStep step2 = step("step-2");
+        DisbursementStep step3 = step("step-3");
+
+        when(idempotencyService.filterDuplicates(anyCollection(), any()))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2", "step-3")));
+        when(processingService.claimAll(anyCollection())).thenReturn(List.of(step1, step2, step3));
+        // lenient: dispatch(step1) é chamado antes e não deve ser lido como stub com argumento errado
+        lenient().doThrow(new DisbursementProcessingException("500", "canal indisponível")).when(processingService).dispatch(step2);
+
+        // Act
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumeTedRequests(events, List.of()));
+
+        // Assert
+        assertThat(thrown.getIndex()).isEqualTo(1);
+        verify(processingService).dispatch(step1);
+        verify(processingService, never()).dispatch(step3);
+        verify(processingService).release(List.of("step-2", "step-3"));
+        verify(idempotencyService).release(List.of("step-2", "step-3"));
+    }
+
+    @Test
+    @DisplayName("Deve liberar as reivindicações do poll quando o claim dos steps falha")
+    void consume_whenClaimFails_shouldReleaseClaimedEvents() {
+        // Arrange
+        Set<String> newStepIds = new LinkedHashSet<>(List.of("step-1", "step-2"));
+        when(idempotencyService.filterDuplicates(anyCollection(), any())).thenReturn(newStepIds);
+        when(processingService.claimAll(anyCollection())).thenThrow(new IllegalStateException("lock wait timeout"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> consumer.consumePixRequests(List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2")), List.of()));
+
+        // Assert
+        verify(idempotencyService).release(newStepIds);
+        verify(processingService, never()).dispatch(any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar só os steps não enviados quando uma falha inesperada acontece durante o despacho")
+    void consume_whenUnexpectedFailureWhileDispatching_shouldReleaseOnlyUndispatchedSteps() {
+        // Arrange
+        ReflectionTestUtils.setField(consumer, "parallelDispatch", true);
+        List<DisbursementStep> claimed = List.of(step("step-1"), step("step-2"), step("step-3"));
+        when(idempotencyService.filterDuplicates(anyCollection(), any()))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2", "step-3")));
+        when(processingService.claimAll(anyCollection())).thenReturn(claimed);
+        when(stepDispatcher.dispatchAll(anyList())).thenReturn(Map.of(
+                "step-3", new DisbursementProcessingException("503", "timeout")));
+        // A liberação do step com falha estoura (ex.: banco fora do ar) depois de step-1 e step-2 já enviados
+        doThrow(new IllegalStateException("lock wait timeout")).when(idempotencyService).release(List.of("step-3"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> consumer.consumePixRequests(List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2"),
+                new DisbursementRequestEvent("step-3")), List.of()));
+
+        // Assert
+        verify(processingService, times(2)).release(List.of("step-3"));
+        verify(idempotencyService).release(Set.of("step-3"));
+        verify(processingService, never()).release(argThat(ids -> ids.contains("step-1") || ids.contains("step-2")));
+    }
+
+    @Test
+    @DisplayName("Deve devolver para PENDING os steps reservados e não enviados quando o despacho em sequência é interrompido")
+    void consume_whenSequentialReleaseFails_shouldReleaseUndispatchedSteps() {
+        // Arrange
+        DisbursementStep step1 = step("step-1");
+        DisbursementStep step2 = step("step-2");
+        when(idempotencyService.filterDuplicates(anyCollection(), any()))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2")));
+        when(processingService.claimAll(anyCollection())).thenReturn(List.of(step1, step2));
+        lenient().doThrow(new DisbursementProcessingException("503", "canal indisponível")).when(processingService).dispatch(step2);
+        doThrow(new IllegalStateException("lock wait timeout")).when(idempotencyService).release(List.of("step-2"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> consumer.consumeTedRequests(List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2")), List.of()));
+
+        // Assert
+        verify(processingService, times(2)).release(List.of("step-2"));
+        verify(idempotencyService).release(Set.of("step-2"));
+    }
+
+    @Test
+    @DisplayName("NÃO deve despachar nada quando todo o poll é duplicado")
+    void consume_whenAllDuplicates_shouldDoNothing() {
+        // Arrange
+        when(idempotencyService.filterDuplicates(anyCollection(), any())).thenReturn(Set.of());
+        when(processingService.claimAll(anyCollection())).thenReturn(List.of());
+
+        // Act
+        consumer.consumePixRequests(List.of(new DisbursementRequestEvent("step-1")), List.of());
+
+        // Assert
+        verify(processingService, never()).dispatch(any());
+    }
+
+    @Test
+    @DisplayName("Modo paralelo - Deve apontar a falha mais antiga do poll e liberar todos os steps com falha")
+    void consume_whenParallelDispatchFails_shouldReportLowestFailedIndex() {
+        // Arrange
+        ReflectionTestUtils.setField(consumer, "parallelDispatch", true);
+        List<DisbursementRequestEvent> events = List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2"),
+                new DisbursementRequestEvent("step-3"));
+        List<DisbursementStep> claimed = List.of(step("step-1"), step("step-2"), step("step-3"));
+
+        when(idempotencyService.filterDuplicates(anyCollection(), any()))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2", "step-3")));
+        when(processingService.claimAll(anyCollection())).thenReturn(claimed);
+        when(stepDispatcher.dispatchAll(anyList())).thenReturn(Map.of(
+                "step-3", new DisbursementProcessingException("503", "timeout"),
+                "step-2", new DisbursementProcessingException("503", "canal indisponível")));
+
+        // Act
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumePixRequests(events, List.of()));
+
+        // Assert
+        assertThat(thrown.getIndex()).isEqualTo(1);
+        verify(processingService, never()).dispatch(any());
+        verify(processingService).release(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("step-2", "step-3"))));
+        verify(idempotencyService).release(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("step-2", "step-3"))));
+    }
+
+    @Test
+    @DisplayName("Modo lote por canal - Deve enviar o poll pelo acumulador e liberar só os steps recusados")
+    void consume_whenChannelBatchingRejectsStep_shouldReleaseOnlyRejected() {
+        // Arrange
+        ReflectionTestUtils.setField(consumer, "channelBatching", true);
+        List<DisbursementRequestEvent> events = List.of(
+                new DisbursementRequestEvent("step-1"),
+                new DisbursementRequestEvent("step-2"));
+        List<DisbursementStep> claimed = List.of(step("step-1"), step("step-2"));
+
+        when(idempotencyService.filterDuplicates(anyCollection(), any()))
+                .thenReturn(new LinkedHashSet<>(List.of("step-1", "step-2")));
+        when(processingService.claimAll(anyCollection())).thenReturn(claimed);
+        when(batchAccumulator.submitAll(anyList())).thenReturn(Map.of(
+                "step-2", new DisbursementProcessingException("503", "recusado pelo gateway")));
+
+        // Act
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumeTedRequests(events, List.of()));
+
+        // Assert
+        assertThat(thrown.getIndex()).isEqualTo(1);
+        verify(stepDispatcher, never()).dispatchAll(anyList());
+        verify(processingService, never()).dispatch(any());
+        verify(processingService).release(List.of("step-2"));
+        verify(idempotencyService).release(List.of("step-2"));
+    }
+
+    private DisbursementStep step(String id) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        step.setStatus(StepStatus.PROCESSING);
+        return step;
+    }
+}
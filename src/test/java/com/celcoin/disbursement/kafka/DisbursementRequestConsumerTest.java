@@ -0,0 +1,133 @@
+package com.celcoin.disbursement.kafka;
+
+import com.celcoin.disbursement.exception.ChannelSaturatedException;
+import com.celcoin.disbursement.exception.ChannelUnavailableException;
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.service.DisbursementProcessingService;
+import com.celcoin.disbursement.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisbursementRequestConsumerTest {
+
+    private static final String GROUP_ID = "disbursement-processor";
+    private static final Duration REJECTION_BACKOFF = Duration.ofSeconds(1);
+
+    @Mock
+    private DisbursementProcessingService processingService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DisbursementMetrics metrics;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private DisbursementRequestConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(consumer, "rejectionBackoff", REJECTION_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("Deve liberar a reivindicação quando o envio falha, para que a retentativa seja processada")
+    void consume_whenExecuteFails_shouldReleaseClaimAndRethrow() {
+        // Arrange
+        when(idempotencyService.claim("step-1", GROUP_ID)).thenReturn(true);
+        doThrow(new DisbursementProcessingException("503", "Gateway PIX indisponível"))
+                .when(processingService).execute("step-1");
+
+        // Act & Assert
+        assertThrows(DisbursementProcessingException.class,
+                () -> consumer.consumePixRequests(new DisbursementRequestEvent("step-1"), 0L, acknowledgment));
+        verify(idempotencyService).release(List.of("step-1"));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao tópico, sem exceção, o registro recusado pelo circuito meio aberto (não vai para retry nem DLT)")
+    void consume_whenChannelRejects_shouldNackWithoutSpendingAttempt() {
+        // Arrange
+        when(idempotencyService.claim("step-1", GROUP_ID)).thenReturn(true);
+        doThrow(new ChannelUnavailableException("503", "Canal PIX indisponível (circuito HALF_OPEN)"))
+                .when(processingService).execute("step-1");
+
+        // Act
+        consumer.consumePixRequests(new DisbursementRequestEvent("step-1"), 0L, acknowledgment);
+
+        // Assert
+        verify(idempotencyService).release(List.of("step-1"));
+        verify(acknowledgment).nack(REJECTION_BACKOFF);
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao tópico o registro recusado pelo limitador do canal saturado")
+    void consume_whenChannelSaturated_shouldNack() {
+        // Arrange
+        when(idempotencyService.claim("step-1", GROUP_ID)).thenReturn(true);
+        doThrow(new ChannelSaturatedException("429", "Canal TED saturado"))
+                .when(processingService).execute("step-1");
+
+        // Act
+        consumer.consumeTedRequests(new DisbursementRequestEvent("step-1"), 0L, acknowledgment);
+
+        // Assert
+        verify(idempotencyService).release(List.of("step-1"));
+        verify(acknowledgment).nack(REJECTION_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("NÃO deve liberar a reivindicação quando o envio é concluído")
+    void consume_whenExecuteSucceeds_shouldKeepClaim() {
+        // Arrange
+        when(idempotencyService.claim("step-1", GROUP_ID)).thenReturn(true);
+
+        // Act
+        consumer.consumeTedRequests(new DisbursementRequestEvent("step-1"), 0L, acknowledgment);
+
+        // Assert
+        verify(processingService).execute("step-1");
+        verify(idempotencyService, never()).release(anyCollection());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("NÃO deve processar um evento duplicado")
+    void consume_whenDuplicate_shouldSkip() {
+        // Arrange
+        when(idempotencyService.claim("step-1", GROUP_ID)).thenReturn(false);
+
+        // Act
+        consumer.consumePixRequests(new DisbursementRequestEvent("step-1"), 0L, acknowledgment);
+
+        // Assert
+        verify(processingService, never()).execute(anyString());
+        verify(acknowledgment).acknowledge();
+    }
+}
@@ -0,0 +1,95 @@
+package com.celcoin.disbursement.metrics;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisbursementMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DisbursementMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new DisbursementMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve registrar a criação do lote por tipo de agendamento e contar os steps só em caso de sucesso")
+    void recordIngest_shouldTagByScheduleAndCountSteps() {
+        // Act
+        metrics.recordIngest(metrics.startTimer(), ScheduleType.IMMEDIATE, DisbursementMetrics.SUCCESS, 10);
+        metrics.recordIngest(metrics.startTimer(), null, DisbursementMetrics.REJECTED, 0);
+
+        // Assert
+        assertThat(meterRegistry.get("disbursement.ingest").tag("schedule", "IMMEDIATE").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("disbursement.ingest").tag("schedule", "NONE").tag("outcome", "rejected").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("disbursement.ingest.steps").tag("schedule", "IMMEDIATE").counter().count())
+                .isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("Deve traduzir o tópico para o canal ao registrar a publicação")
+    void recordPublish_shouldTagByChannel() {
+        // Act
+        metrics.recordPublish(KafkaTopicConfig.TED_REQUEST_TOPIC, DisbursementMetrics.SUCCESS, LocalDateTime.now().minusSeconds(2));
+
+        // Assert
+        Timer timer = meterRegistry.get("disbursement.publish").tag("type", "TED").tag("outcome", "success").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Deve marcar como MIXED a reserva de steps de canais diferentes")
+    void recordClaim_shouldTagMixedChannels() {
+        // Arrange
+        DisbursementStep pix = DisbursementStep.builder().id("step-1").type(StepType.PIX).build();
+        DisbursementStep ted = DisbursementStep.builder().id("step-2").type(StepType.TED).build();
+
+        // Act
+        metrics.recordClaim(List.of(pix, ted), DisbursementMetrics.SUCCESS, 1_000_000);
+        metrics.recordClaim(List.of(), DisbursementMetrics.SKIPPED, 1_000);
+
+        // Assert
+        assertThat(meterRegistry.get("disbursement.claim").tag("type", "MIXED").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("disbursement.claim").tag("type", "NONE").tag("outcome", "skipped").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve registrar a liquidação do step com o status final como resultado")
+    void recordStepSettled_shouldTagByTypeAndStatus() {
+        // Arrange
+        DisbursementStep step = DisbursementStep.builder()
+                .id("step-1")
+                .type(StepType.PIX)
+                .status(StepStatus.FAILED)
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+
+        // Act
+        metrics.recordStepSettled(step);
+
+        // Assert
+        Timer timer = meterRegistry.get("disbursement.step.settlement").tag("type", "PIX").tag("outcome", "failed").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(60.0);
+    }
+}
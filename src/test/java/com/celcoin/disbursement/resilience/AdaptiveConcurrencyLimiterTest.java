@@ -0,0 +1,88 @@
+package com.celcoin.disbursement.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    @DisplayName("Deve recusar a vaga quando o limite está tomado e o prazo acaba")
+    void acquire_whenLimitReached_shouldRejectAfterMaxWait() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, Duration.ofSeconds(1), 0.5);
+        limiter.acquire(Duration.ZERO);
+        limiter.acquire(Duration.ZERO);
+
+        // Act
+        boolean acquired = limiter.acquire(Duration.ofMillis(10));
+
+        // Assert
+        assertThat(acquired).isFalse();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.isSaturated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve crescer aditivamente com respostas rápidas enquanto o limite está em uso")
+    void onSuccess_whenFastAndBusy_shouldIncreaseLimit() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, Duration.ofSeconds(1), 0.5);
+
+        // Act: 4 janelas completas de 4 chamadas simultâneas
+        for (int window = 0; window < 4; window++) {
+            int permits = limiter.getLimit();
+            for (int i = 0; i < permits; i++) {
+                limiter.acquire(Duration.ZERO);
+            }
+            for (int i = 0; i < permits; i++) {
+                limiter.onSuccess(FAST);
+            }
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve cair multiplicativamente com latência alta ou sobrecarga, sem passar do mínimo")
+    void onSlowOrOverload_shouldDecreaseLimitDownToMinimum() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, Duration.ofSeconds(1), 0.5);
+
+        // Act & Assert
+        limiter.acquire(Duration.ZERO);
+        limiter.onSuccess(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.acquire(Duration.ZERO);
+        limiter.onOverload();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.acquire(Duration.ZERO);
+        limiter.onOverload();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("NÃO deve ajustar o limite para falhas que não indicam sobrecarga")
+    void onIgnored_shouldOnlyReleasePermit() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, Duration.ofSeconds(1), 0.5);
+        limiter.acquire(Duration.ZERO);
+
+        // Act
+        limiter.onIgnored();
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
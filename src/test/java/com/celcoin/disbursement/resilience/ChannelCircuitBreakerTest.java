@@ -0,0 +1,153 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.model.utils.StepType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChannelCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private MutableClock clock;
+    private List<CircuitBreakerStateChangedEvent> events;
+    private ChannelCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        events = new ArrayList<>();
+        breaker = new ChannelCircuitBreaker(StepType.PIX, 10, 4, 0.5, OPEN_DURATION, 2, clock, events::add);
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito quando a taxa de falha passa do limite")
+    void onFailure_whenFailureRateAboveThreshold_shouldOpen() {
+        // Arrange
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+
+        // Act
+        breaker.onFailure(breaker.tryAcquire());
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(ChannelCircuitBreaker.REJECTED);
+        assertThat(events).containsExactly(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.CLOSED, CircuitState.OPEN));
+    }
+
+    @Test
+    @DisplayName("Não deve abrir o circuito antes do mínimo de chamadas")
+    void onFailure_whenBelowMinimumCalls_shouldStayClosed() {
+        // Act
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve passar a meio aberto após o tempo de espera e fechar quando as chamadas de teste passam")
+    void checkOpenTimeout_afterOpenDuration_shouldProbeAndClose() {
+        // Arrange
+        openBreaker();
+        clock.advance(OPEN_DURATION);
+
+        // Act
+        breaker.checkOpenTimeout();
+        long firstProbe = breaker.tryAcquire();
+        long secondProbe = breaker.tryAcquire();
+        long extraCall = breaker.tryAcquire();
+        breaker.onSuccess(firstProbe);
+        breaker.onSuccess(secondProbe);
+
+        // Assert
+        assertThat(extraCall).isEqualTo(ChannelCircuitBreaker.REJECTED);
+        assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(events).extracting(CircuitBreakerStateChangedEvent::to)
+                .containsExactly(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Deve reabrir o circuito quando uma chamada de teste falha")
+    void onFailure_whenHalfOpen_shouldReopen() {
+        // Arrange
+        openBreaker();
+        clock.advance(OPEN_DURATION);
+        long probe = breaker.tryAcquire();
+
+        // Act
+        breaker.onFailure(probe);
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(ChannelCircuitBreaker.REJECTED);
+        assertThat(events).extracting(CircuitBreakerStateChangedEvent::to)
+                .containsExactly(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.OPEN);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar o resultado de chamadas concedidas antes de uma transição")
+    void onFailure_whenPermitFromPreviousState_shouldBeIgnored() {
+        // Arrange
+        long stalePermit = breaker.tryAcquire();
+        openBreaker();
+        clock.advance(OPEN_DURATION);
+        breaker.checkOpenTimeout();
+
+        // Act
+        breaker.onFailure(stalePermit);
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
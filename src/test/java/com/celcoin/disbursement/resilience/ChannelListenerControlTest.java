@@ -0,0 +1,112 @@
+package com.celcoin.disbursement.resilience;
+
+import com.celcoin.disbursement.kafka.ListenerIds;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChannelListenerControlTest {
+
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private MessageListenerContainer main;
+    private MessageListenerContainer retry;
+    private MessageListenerContainer dlt;
+    private ChannelListenerControl control;
+
+    @BeforeEach
+    void setUp() {
+        main = container(ListenerIds.PIX_REQUEST);
+        retry = container(ListenerIds.PIX_REQUEST + "-retry-0");
+        dlt = container(ListenerIds.PIX_REQUEST + "-dlt");
+        when(registry.getListenerContainers()).thenReturn(List.of(main, retry, dlt));
+        control = new ChannelListenerControl(registry, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve pausar todos os containers do canal quando o circuito abre")
+    void onCircuitStateChanged_whenOpen_shouldPauseAllContainers() {
+        // Act
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.CLOSED, CircuitState.OPEN));
+
+        // Assert
+        verify(main).pause();
+        verify(retry).pause();
+        verify(dlt).pause();
+        assertThat(control.isPaused(StepType.PIX)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve retomar só o container principal no meio aberto, mantendo os de retry pausados")
+    void onCircuitStateChanged_whenHalfOpen_shouldResumeOnlyMainContainer() {
+        // Arrange
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.CLOSED, CircuitState.OPEN));
+        pauseRequested(main, retry, dlt);
+
+        // Act
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.OPEN, CircuitState.HALF_OPEN));
+
+        // Assert
+        verify(main).resume();
+        verify(retry, never()).resume();
+        verify(dlt, never()).resume();
+        assertThat(control.isPaused(StepType.PIX)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve retomar os containers de retry quando o circuito fecha")
+    void onCircuitStateChanged_whenClosedAfterHalfOpen_shouldResumeRetryContainers() {
+        // Arrange
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.CLOSED, CircuitState.OPEN));
+        pauseRequested(main, retry, dlt);
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.OPEN, CircuitState.HALF_OPEN));
+        when(main.isPauseRequested()).thenReturn(false);
+
+        // Act
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.HALF_OPEN, CircuitState.CLOSED));
+
+        // Assert
+        verify(retry).resume();
+        verify(dlt).resume();
+    }
+
+    @Test
+    @DisplayName("NÃO deve retomar os containers de retry no meio aberto quando o backpressure libera o canal")
+    void resume_whenHalfOpen_shouldKeepRetryContainersPaused() {
+        // Arrange
+        control.pause(StepType.PIX, "backpressure");
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.CLOSED, CircuitState.OPEN));
+        control.onCircuitStateChanged(new CircuitBreakerStateChangedEvent(StepType.PIX, CircuitState.OPEN, CircuitState.HALF_OPEN));
+        pauseRequested(main, retry, dlt);
+
+        // Act
+        control.resume(StepType.PIX, "backpressure");
+
+        // Assert
+        verify(main).resume();
+        verify(retry, never()).resume();
+    }
+
+    private static MessageListenerContainer container(String listenerId) {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getListenerId()).thenReturn(listenerId);
+        return container;
+    }
+
+    private static void pauseRequested(MessageListenerContainer... containers) {
+        for (MessageListenerContainer container : containers) {
+            when(container.isPauseRequested()).thenReturn(true);
+        }
+    }
+}
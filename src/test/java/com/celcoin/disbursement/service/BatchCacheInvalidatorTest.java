@@ -0,0 +1,52 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.gateway.EventPublisher;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.event.BatchCacheInvalidationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCacheInvalidatorTest {
+
+    @Mock
+    private BatchStatusCache statusCache;
+
+    @Mock
+    private BatchSummaryService summaryService;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private BatchCacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidator = new BatchCacheInvalidator(statusCache, summaryService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve publicar o aviso no tópico compactado com o clientCode como chave e limpar o cache local")
+    void invalidate_shouldPublishKeyedByClientCodeAndEvictLocally() {
+        // Arrange
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").clientCode("client-1").build();
+
+        // Act
+        cacheInvalidator.invalidate(batch);
+
+        // Assert
+        verify(eventPublisher).publishAsync(KafkaTopicConfig.BATCH_CACHE_INVALIDATION_TOPIC, "client-1",
+                new BatchCacheInvalidationEvent("client-1", "batch-1"));
+        verify(statusCache).invalidate("client-1");
+        verify(summaryService).evict(Set.of("batch-1"));
+    }
+}
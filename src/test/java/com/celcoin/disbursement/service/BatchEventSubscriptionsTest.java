@@ -0,0 +1,134 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.BatchSummaryResponse;
+import com.celcoin.disbursement.model.dto.SummaryTotals;
+import com.celcoin.disbursement.model.event.BatchProgressEvent;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchEventSubscriptionsTest {
+
+    private static final String CLIENT_CODE = "client-1";
+
+    @Mock
+    private BatchStatusCache statusCache;
+
+    @Mock
+    private BatchSummaryService summaryService;
+
+    private BatchEventSubscriptions subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new BatchEventSubscriptions(statusCache, summaryService, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve registrar a conexão de um lote em andamento e encerrá-la quando o lote chega a um status final")
+    void dispatch_whenBatchIsSettled_shouldCloseSubscription() {
+        // Arrange
+        stubBatch(BatchStatus.PROCESSING);
+        subscriptions.subscribe(CLIENT_CODE);
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isEqualTo(1);
+
+        // Act
+        subscriptions.dispatch(new BatchProgressEvent("batch-1", CLIENT_CODE, BatchStatus.PARTIALLY_EXECUTED, List.of(), LocalDateTime.now()));
+
+        // Assert
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve manter a conexão enquanto o lote está em andamento")
+    void dispatch_whenBatchIsProcessing_shouldKeepSubscription() {
+        // Arrange
+        stubBatch(BatchStatus.PROCESSING);
+        subscriptions.subscribe(CLIENT_CODE);
+
+        // Act
+        subscriptions.dispatch(new BatchProgressEvent("batch-1", CLIENT_CODE, BatchStatus.PROCESSING, List.of(), LocalDateTime.now()));
+
+        // Assert
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve só enviar o resumo, sem registrar a conexão, quando o lote já terminou")
+    void subscribe_whenBatchAlreadySettled_shouldNotRegister() {
+        // Arrange
+        stubBatch(BatchStatus.EXECUTED_COMPLETELY);
+
+        // Act
+        subscriptions.subscribe(CLIENT_CODE);
+
+        // Assert
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve receber o progresso publicado enquanto o resumo é montado")
+    void subscribe_shouldRegisterBeforeSendingSummary() {
+        // Arrange
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.of(new BatchStatusView("batch-1", CLIENT_CODE, BatchStatus.PROCESSING, ScheduleType.IMMEDIATE, 1)));
+        BatchSummaryResponse summary = new BatchSummaryResponse("batch-1", CLIENT_CODE, BatchStatus.PROCESSING, SummaryTotals.EMPTY, Map.of(), Map.of(), null);
+        when(summaryService.summaryOf(CLIENT_CODE)).thenAnswer(invocation -> {
+            // Lote termina entre o registro e o envio do resumo: o progress final precisa fechar a conexão
+            subscriptions.dispatch(new BatchProgressEvent("batch-1", CLIENT_CODE, BatchStatus.EXECUTED_COMPLETELY, List.of(), LocalDateTime.now()));
+            return new BatchSummaryService.Snapshot(summary, "\"etag\"");
+        });
+
+        // Act
+        subscriptions.subscribe(CLIENT_CODE);
+
+        // Assert
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a inscrição quando o resumo não pode ser carregado")
+    void subscribe_whenSummaryFails_shouldUnregister() {
+        // Arrange
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.of(new BatchStatusView("batch-1", CLIENT_CODE, BatchStatus.PROCESSING, ScheduleType.IMMEDIATE, 1)));
+        when(summaryService.summaryOf(CLIENT_CODE)).thenThrow(new ResourceNotFoundException("400", "Lote de desembolso não encontrado com o clientCode: " + CLIENT_CODE));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> subscriptions.subscribe(CLIENT_CODE));
+        assertThat(subscriptions.subscriberCount(CLIENT_CODE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException quando o lote não existe")
+    void subscribe_whenBatchNotFound_shouldThrow() {
+        // Arrange
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> subscriptions.subscribe(CLIENT_CODE));
+    }
+
+    private void stubBatch(BatchStatus status) {
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.of(new BatchStatusView("batch-1", CLIENT_CODE, status, ScheduleType.IMMEDIATE, 1)));
+        BatchSummaryResponse summary = new BatchSummaryResponse("batch-1", CLIENT_CODE, status, SummaryTotals.EMPTY, Map.of(), Map.of(), null);
+        when(summaryService.summaryOf(CLIENT_CODE)).thenReturn(new BatchSummaryService.Snapshot(summary, "\"etag\""));
+    }
+}
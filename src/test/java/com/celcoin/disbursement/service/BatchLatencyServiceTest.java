@@ -0,0 +1,97 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchLatencyResponse;
+import com.celcoin.disbursement.model.dto.ChannelLatency;
+import com.celcoin.disbursement.model.dto.StageLatency;
+import com.celcoin.disbursement.model.dto.StepTimeline;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchLatencyServiceTest {
+
+    private static final String CLIENT_CODE = "client-1";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private DisbursementBatchRepository batchRepository;
+
+    @Mock
+    private DisbursementStepRepository stepRepository;
+
+    @InjectMocks
+    private BatchLatencyService latencyService;
+
+    @Test
+    @DisplayName("Deve calcular a latência de cada etapa por canal, ignorando etapas ainda não alcançadas")
+    void latencyOf_shouldBreakDownStagesByChannel() {
+        // Arrange
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").clientCode(CLIENT_CODE).status(BatchStatus.PROCESSING).build();
+        when(batchRepository.findByClientCode(CLIENT_CODE)).thenReturn(Optional.of(batch));
+        when(stepRepository.findTimelines("batch-1")).thenReturn(List.of(
+                timeline("pix-1", StepType.PIX, 100, 150, 400, 2_400),
+                timeline("pix-2", StepType.PIX, 300, 350, 500, 1_500),
+                new StepTimeline("ted-1", StepType.TED, StepStatus.PROCESSING, CREATED_AT,
+                        CREATED_AT.plusNanos(200_000_000), null, null, null)));
+
+        // Act
+        BatchLatencyResponse response = latencyService.latencyOf(CLIENT_CODE);
+
+        // Assert
+        assertThat(response.batchId()).isEqualTo("batch-1");
+        assertThat(response.channels()).extracting(ChannelLatency::type).containsExactly(StepType.PIX, StepType.TED);
+
+        ChannelLatency pix = response.channels().get(0);
+        assertThat(pix.steps()).isEqualTo(2);
+        assertThat(pix.settled()).isEqualTo(2);
+        assertThat(pix.stages()).extracting(StageLatency::stage)
+                .containsExactly("outbox", "queue", "dispatch", "settlement", "total");
+        StageLatency outbox = pix.stages().get(0);
+        assertThat(outbox.samples()).isEqualTo(2);
+        assertThat(outbox.p50Ms()).isEqualTo(100);
+        assertThat(outbox.maxMs()).isEqualTo(300);
+        assertThat(pix.stages().get(4).p99Ms()).isEqualTo(2_400);
+
+        ChannelLatency ted = response.channels().get(1);
+        assertThat(ted.settled()).isZero();
+        assertThat(ted.stages()).extracting(StageLatency::stage).containsExactly("outbox");
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException quando o lote não existe")
+    void latencyOf_whenBatchNotFound_shouldThrow() {
+        // Arrange
+        when(batchRepository.findByClientCode(CLIENT_CODE)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> latencyService.latencyOf(CLIENT_CODE));
+    }
+
+    // Instantes em milissegundos desde a criação do step
+    private static StepTimeline timeline(String stepId, StepType type, long publishedMs, long processingMs, long sentMs, long settledMs) {
+        return new StepTimeline(stepId, type, StepStatus.SUCCESS, CREATED_AT,
+                CREATED_AT.plusNanos(publishedMs * 1_000_000),
+                CREATED_AT.plusNanos(processingMs * 1_000_000),
+                CREATED_AT.plusNanos(sentMs * 1_000_000),
+                CREATED_AT.plusNanos(settledMs * 1_000_000));
+    }
+}
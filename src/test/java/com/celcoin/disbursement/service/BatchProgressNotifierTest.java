@@ -0,0 +1,111 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.config.KafkaTopicConfig;
+import com.celcoin.disbursement.gateway.KafkaEventPublisher;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.event.BatchProgressEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
+import com.celcoin.disbursement.model.event.StepProgress;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchProgressNotifierTest {
+
+    @Mock
+    private KafkaEventPublisher kafkaPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<OutboundEvent>> events;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BatchProgressNotifier progressNotifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        progressNotifier = new BatchProgressNotifier(kafkaPublisher, meterRegistry, 3);
+    }
+
+    @Test
+    @DisplayName("Deve publicar um único evento por lote com o último status de cada step e do lote")
+    void flush_shouldGroupChangesPerBatch() {
+        // Arrange
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").clientCode("client-1").status(BatchStatus.PROCESSING).build();
+        DisbursementStep step = step(batch, "step-1", StepStatus.PROCESSING);
+        progressNotifier.stepChanged(step);
+        step.setStatus(StepStatus.SUCCESS);
+        batch.setStatus(BatchStatus.EXECUTED_COMPLETELY);
+        progressNotifier.stepChanged(step);
+        when(kafkaPublisher.publishAll(anyList())).thenReturn(PublishReport.success(1));
+
+        // Act
+        progressNotifier.flush();
+
+        // Assert
+        verify(kafkaPublisher).publishAll(events.capture());
+        assertThat(events.getValue()).hasSize(1);
+        OutboundEvent outbound = events.getValue().getFirst();
+        assertThat(outbound.topic()).isEqualTo(KafkaTopicConfig.BATCH_PROGRESS_TOPIC);
+        assertThat(outbound.key()).isEqualTo("batch-1");
+
+        BatchProgressEvent event = (BatchProgressEvent) outbound.payload();
+        assertThat(event.status()).isEqualTo(BatchStatus.EXECUTED_COMPLETELY);
+        assertThat(event.steps()).containsExactly(new StepProgress("step-1", StepType.PIX, StepStatus.SUCCESS, "ext-step-1"));
+    }
+
+    @Test
+    @DisplayName("Não deve publicar nada quando não houve mudanças")
+    void flush_whenEmpty_shouldNotPublish() {
+        // Act
+        progressNotifier.flush();
+
+        // Assert
+        verify(kafkaPublisher, never()).publishAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve descartar mudanças além da capacidade da fila sem bloquear quem notifica")
+    void stepChanged_whenBufferIsFull_shouldDrop() {
+        // Arrange
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").clientCode("client-1").status(BatchStatus.PROCESSING).build();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            progressNotifier.stepChanged(step(batch, "step-" + i, StepStatus.SUCCESS));
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("batch.events.dropped").counter().count()).isEqualTo(2.0);
+    }
+
+    private static DisbursementStep step(DisbursementBatch batch, String stepId, StepStatus status) {
+        return DisbursementStep.builder()
+                .id(stepId)
+                .batch(batch)
+                .type(StepType.PIX)
+                .status(status)
+                .externalId("ext-" + stepId)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.BatchProgress;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchProgressTrackerTest {
+
+    private static final String BATCH_ID = "batch-1";
+
+    @Mock
+    private DisbursementBatchRepository batchRepository;
+
+    @InjectMocks
+    private BatchProgressTracker progressTracker;
+
+    @Test
+    @DisplayName("Deve incrementar os contadores sem contar a tabela de steps")
+    void recordTransition_shouldIncrementCounters() {
+        // Arrange
+        when(batchRepository.findProgress(BATCH_ID)).thenReturn(new BatchProgress(BATCH_ID, 3, 2, 1));
+
+        // Act
+        BatchProgress progress = progressTracker.recordTransition(batch(), StepStatus.PROCESSING, StepStatus.SUCCESS);
+
+        // Assert
+        verify(batchRepository).incrementStepCounters(BATCH_ID, 1, 0);
+        verify(batchRepository, never()).countStepProgress(anyString());
+        assertThat(progressTracker.settledStatus(progress)).contains(BatchStatus.PARTIALLY_EXECUTED);
+    }
+
+    @Test
+    @DisplayName("Deve mover o step entre contadores quando um status final é corrigido")
+    void recordTransition_whenStepWasAlreadySettled_shouldMoveBetweenCounters() {
+        // Arrange
+        when(batchRepository.findProgress(BATCH_ID)).thenReturn(new BatchProgress(BATCH_ID, 2, 0, 1));
+
+        // Act
+        BatchProgress progress = progressTracker.recordTransition(batch(), StepStatus.SUCCESS, StepStatus.FAILED);
+
+        // Assert
+        verify(batchRepository).incrementStepCounters(BATCH_ID, -1, 1);
+        assertThat(progressTracker.settledStatus(progress)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve recontar os steps uma vez quando o lote não tem contadores")
+    void recordTransition_whenBatchHasNoCounters_shouldRecountFromSteps() {
+        // Arrange
+        when(batchRepository.findProgress(BATCH_ID)).thenReturn(new BatchProgress(BATCH_ID, 0, 0, 0));
+        when(batchRepository.countStepProgress(BATCH_ID)).thenReturn(Optional.of(new BatchProgress(BATCH_ID, 2, 2, 0)));
+
+        // Act
+        BatchProgress progress = progressTracker.recordTransition(batch(), StepStatus.PROCESSING, StepStatus.SUCCESS);
+
+        // Assert
+        verify(batchRepository).overwriteStepCounters(BATCH_ID, 2, 2, 0);
+        assertThat(progressTracker.settledStatus(progress)).contains(BatchStatus.EXECUTED_COMPLETELY);
+    }
+
+    @Test
+    @DisplayName("NÃO deve tocar nos contadores quando o status não muda")
+    void recordTransition_whenStatusUnchanged_shouldNotUpdateCounters() {
+        // Arrange
+        when(batchRepository.findProgress(BATCH_ID)).thenReturn(new BatchProgress(BATCH_ID, 2, 1, 0));
+
+        // Act
+        progressTracker.recordTransition(batch(), StepStatus.PROCESSING, StepStatus.PROCESSING);
+
+        // Assert
+        verify(batchRepository, never()).incrementStepCounters(anyString(), anyLong(), anyLong());
+    }
+
+    private DisbursementBatch batch() {
+        return DisbursementBatch.builder().id(BATCH_ID).build();
+    }
+}
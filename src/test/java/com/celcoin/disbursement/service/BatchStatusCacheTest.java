@@ -0,0 +1,90 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchStatusCacheTest {
+
+    private static final String CLIENT_CODE = "client-1";
+
+    @Mock
+    private DisbursementBatchRepository batchRepository;
+
+    private BatchStatusCache statusCache;
+
+    @BeforeEach
+    void setUp() {
+        statusCache = new BatchStatusCache(batchRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco uma única vez para polls repetidos do mesmo clientCode")
+    void find_whenCached_shouldNotQueryDatabaseAgain() {
+        // Arrange
+        when(batchRepository.findByClientCode(CLIENT_CODE)).thenReturn(Optional.of(batch(BatchStatus.PROCESSING)));
+
+        // Act
+        statusCache.find(CLIENT_CODE);
+        Optional<BatchStatusView> cached = statusCache.find(CLIENT_CODE);
+
+        // Assert
+        assertThat(cached).map(BatchStatusView::status).contains(BatchStatus.PROCESSING);
+        verify(batchRepository, times(1)).findByClientCode(CLIENT_CODE);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar em cache um clientCode inexistente")
+    void find_whenBatchNotFound_shouldNotCacheAbsence() {
+        // Arrange
+        when(batchRepository.findByClientCode(CLIENT_CODE))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(batch(BatchStatus.NOT_EXECUTED)));
+
+        // Act
+        Optional<BatchStatusView> missing = statusCache.find(CLIENT_CODE);
+        Optional<BatchStatusView> created = statusCache.find(CLIENT_CODE);
+
+        // Assert
+        assertThat(missing).isEmpty();
+        assertThat(created).isPresent();
+    }
+
+    @Test
+    @DisplayName("Deve reler o lote do banco depois de uma invalidação")
+    void find_afterInvalidate_shouldReload() {
+        // Arrange
+        when(batchRepository.findByClientCode(CLIENT_CODE))
+                .thenReturn(Optional.of(batch(BatchStatus.PROCESSING)))
+                .thenReturn(Optional.of(batch(BatchStatus.EXECUTED_COMPLETELY)));
+        statusCache.find(CLIENT_CODE);
+
+        // Act
+        statusCache.invalidate(CLIENT_CODE);
+        Optional<BatchStatusView> reloaded = statusCache.find(CLIENT_CODE);
+
+        // Assert
+        assertThat(reloaded).map(BatchStatusView::status).contains(BatchStatus.EXECUTED_COMPLETELY);
+    }
+
+    private static DisbursementBatch batch(BatchStatus status) {
+        return DisbursementBatch.builder().id("batch-1").clientCode(CLIENT_CODE).status(status).totalSteps(2).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.model.dto.BatchStatusView;
+import com.celcoin.disbursement.model.dto.BatchSummaryResponse;
+import com.celcoin.disbursement.model.dto.SummaryBucket;
+import com.celcoin.disbursement.model.dto.SummaryTotals;
+import com.celcoin.disbursement.model.utils.BatchStatus;
+import com.celcoin.disbursement.model.utils.ScheduleType;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchSummaryServiceTest {
+
+    private static final String CLIENT_CODE = "client-1";
+    private static final String BATCH_ID = "batch-1";
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private DisbursementBatchRepository batchRepository;
+
+    @Mock
+    private BatchStatusCache statusCache;
+
+    private BatchSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new BatchSummaryService(batchRepository, statusCache, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve somar as linhas do resumo por status e por tipo")
+    void summaryOf_shouldAggregateByStatusAndType() {
+        // Arrange
+        stubBatch();
+        when(batchRepository.findSummary(BATCH_ID)).thenReturn(List.of(
+                new SummaryBucket(StepType.PIX, StepStatus.SUCCESS, 3, new BigDecimal("30.00"), UPDATED_AT),
+                new SummaryBucket(StepType.PIX, StepStatus.FAILED, 1, new BigDecimal("5.00"), UPDATED_AT.plusSeconds(5)),
+                new SummaryBucket(StepType.TED, StepStatus.SUCCESS, 2, new BigDecimal("100.00"), UPDATED_AT)));
+
+        // Act
+        BatchSummaryResponse summary = summaryService.summaryOf(CLIENT_CODE).summary();
+
+        // Assert
+        assertThat(summary.batchId()).isEqualTo(BATCH_ID);
+        assertThat(summary.total()).isEqualTo(new SummaryTotals(6, new BigDecimal("135.00")));
+        assertThat(summary.byStatus().get(StepStatus.SUCCESS)).isEqualTo(new SummaryTotals(5, new BigDecimal("130.00")));
+        assertThat(summary.byType().get(StepType.PIX)).isEqualTo(new SummaryTotals(4, new BigDecimal("35.00")));
+        assertThat(summary.updatedAt()).isEqualTo(UPDATED_AT.plusSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve responder polls repetidos do cache com o mesmo ETag, sem consultar o banco")
+    void summaryOf_whenCached_shouldNotQueryDatabase() {
+        // Arrange
+        stubBatch();
+        when(batchRepository.findSummary(BATCH_ID)).thenReturn(List.of(
+                new SummaryBucket(StepType.PIX, StepStatus.PENDING, 2, BigDecimal.TEN, UPDATED_AT)));
+
+        // Act
+        BatchSummaryService.Snapshot first = summaryService.summaryOf(CLIENT_CODE);
+        BatchSummaryService.Snapshot second = summaryService.summaryOf(CLIENT_CODE);
+
+        // Assert
+        assertThat(second.etag()).isEqualTo(first.etag());
+        verify(batchRepository, times(1)).findSummary(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("Deve responder com o mesmo ETag um poll feito segundos depois, sem consultar o banco")
+    void summaryOf_whenPolledAfterSeconds_shouldNotQueryDatabase() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        summaryService = new BatchSummaryService(batchRepository, statusCache, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5), nanos::get);
+        stubBatch();
+        when(batchRepository.findSummary(BATCH_ID)).thenReturn(List.of(
+                new SummaryBucket(StepType.PIX, StepStatus.PROCESSING, 2, BigDecimal.TEN, UPDATED_AT)));
+        String etag = summaryService.summaryOf(CLIENT_CODE).etag();
+
+        // Act
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        String polled = summaryService.summaryOf(CLIENT_CODE).etag();
+
+        // Assert
+        assertThat(polled).isEqualTo(etag);
+        verify(batchRepository, times(1)).findSummary(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("Deve reler o resumo e trocar o ETag depois que o lote é removido do cache")
+    void summaryOf_afterEvict_shouldReloadWithNewEtag() {
+        // Arrange
+        stubBatch();
+        when(batchRepository.findSummary(BATCH_ID)).thenReturn(
+                List.of(new SummaryBucket(StepType.PIX, StepStatus.PROCESSING, 1, BigDecimal.TEN, UPDATED_AT)),
+                List.of(new SummaryBucket(StepType.PIX, StepStatus.SUCCESS, 1, BigDecimal.TEN, UPDATED_AT.plusSeconds(1))));
+        String before = summaryService.summaryOf(CLIENT_CODE).etag();
+
+        // Act
+        summaryService.evict(Set.of(BATCH_ID));
+        String after = summaryService.summaryOf(CLIENT_CODE).etag();
+
+        // Assert
+        assertThat(after).isNotEqualTo(before);
+        verify(batchRepository, times(2)).findSummary(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("Deve lançar ResourceNotFoundException quando o lote não existe")
+    void summaryOf_whenBatchNotFound_shouldThrow() {
+        // Arrange
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> summaryService.summaryOf(CLIENT_CODE));
+    }
+
+    private void stubBatch() {
+        BatchStatusView batch = new BatchStatusView(BATCH_ID, CLIENT_CODE, BatchStatus.PROCESSING, ScheduleType.IMMEDIATE, 3);
+        when(statusCache.find(CLIENT_CODE)).thenReturn(Optional.of(batch));
+    }
+}
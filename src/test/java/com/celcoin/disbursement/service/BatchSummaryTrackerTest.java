@@ -0,0 +1,89 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.SummaryDelta;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementBatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchSummaryTrackerTest {
+
+    private static final DisbursementBatch BATCH = DisbursementBatch.builder().id("batch-1").build();
+
+    @Mock
+    private DisbursementBatchRepository batchRepository;
+
+    @Mock
+    private BatchSummaryService summaryService;
+
+    @InjectMocks
+    private BatchSummaryTracker summaryTracker;
+
+    @Captor
+    private ArgumentCaptor<Collection<SummaryDelta>> deltas;
+
+    @Test
+    @DisplayName("Deve criar o resumo com os steps em PENDING e as demais linhas de status zeradas")
+    void initialize_shouldCreatePendingAndZeroedBuckets() {
+        // Act
+        summaryTracker.initialize(List.of(step(StepType.PIX, "10.00"), step(StepType.PIX, "5.50")));
+
+        // Assert
+        verify(batchRepository).applySummaryDeltas(deltas.capture(), any());
+        assertThat(deltas.getValue()).hasSize(StepStatus.values().length).contains(
+                new SummaryDelta("batch-1", StepType.PIX, StepStatus.PENDING, 2, new BigDecimal("15.50")),
+                new SummaryDelta("batch-1", StepType.PIX, StepStatus.SUCCESS, 0, BigDecimal.ZERO));
+        verify(summaryService).evict(Set.of("batch-1"));
+    }
+
+    @Test
+    @DisplayName("Deve mover quantidade e valor entre os status, agrupando por tipo")
+    void recordTransitions_shouldMoveTotalsPerType() {
+        // Act
+        summaryTracker.recordTransitions(List.of(step(StepType.PIX, "10.00"), step(StepType.TED, "7.00"), step(StepType.PIX, "1.00")),
+                StepStatus.PENDING, StepStatus.PROCESSING);
+
+        // Assert
+        verify(batchRepository).applySummaryDeltas(deltas.capture(), any());
+        assertThat(deltas.getValue()).containsExactlyInAnyOrder(
+                new SummaryDelta("batch-1", StepType.PIX, StepStatus.PENDING, -2, new BigDecimal("-11.00")),
+                new SummaryDelta("batch-1", StepType.PIX, StepStatus.PROCESSING, 2, new BigDecimal("11.00")),
+                new SummaryDelta("batch-1", StepType.TED, StepStatus.PENDING, -1, new BigDecimal("-7.00")),
+                new SummaryDelta("batch-1", StepType.TED, StepStatus.PROCESSING, 1, new BigDecimal("7.00")));
+    }
+
+    @Test
+    @DisplayName("Não deve gravar nada quando o status não muda")
+    void recordTransition_whenStatusUnchanged_shouldDoNothing() {
+        // Act
+        summaryTracker.recordTransition(step(StepType.PIX, "10.00"), StepStatus.PROCESSING, StepStatus.PROCESSING);
+
+        // Assert
+        verify(batchRepository, never()).applySummaryDeltas(any(), any());
+        verify(summaryService, never()).evict(any());
+    }
+
+    private static DisbursementStep step(StepType type, String amount) {
+        return DisbursementStep.builder().batch(BATCH).type(type).amount(new BigDecimal(amount)).build();
+    }
+}
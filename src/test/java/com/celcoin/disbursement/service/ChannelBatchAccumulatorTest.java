@@ -0,0 +1,169 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.model.dto.ExternalRequestResponse;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepStatus;
+import com.celcoin.disbursement.model.utils.StepType;
+import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChannelBatchAccumulatorTest {
+
+    @Mock
+    private DisbursementOrchestrator orchestrator;
+
+    @Mock
+    private DisbursementStepRepository stepRepository;
+
+    @Mock
+    private DisbursementNotificationService notificationService;
+
+    private ChannelBatchAccumulator accumulator;
+
+    @AfterEach
+    void tearDown() {
+        if (accumulator != null) {
+            accumulator.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote assim que atinge o tamanho máximo e gravar os externalIds de uma vez")
+    void submit_whenBatchIsFull_shouldSendOnceAndBulkUpdate() throws Exception {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 3, 60_000);
+        when(orchestrator.processBatch(eq(StepType.PIX), anyList())).thenAnswer(invocation -> accepted(invocation.getArgument(1)));
+        List<DisbursementStep> steps = IntStream.range(0, 3).mapToObj(i -> step("pix-" + i, StepType.PIX)).toList();
+
+        // Act
+        List<CompletableFuture<String>> results = steps.stream().map(accumulator::submit).toList();
+
+        // Assert
+        assertThat(results).allSatisfy(result -> assertThat(result.get(1, TimeUnit.SECONDS)).startsWith("ext-"));
+        verify(orchestrator, times(1)).processBatch(eq(StepType.PIX), anyList());
+        verify(stepRepository).updateExternalIds(argThat(ids -> ids.size() == 3), any());
+        assertThat(steps).allSatisfy(step -> assertThat(step.getExternalId()).isEqualTo("ext-" + step.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve enviar um lote incompleto quando a janela de tempo acaba")
+    void submit_whenWindowElapses_shouldSendPartialBatch() throws Exception {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 100, 20);
+        when(orchestrator.processBatch(eq(StepType.TED), anyList())).thenAnswer(invocation -> accepted(invocation.getArgument(1)));
+
+        // Act
+        CompletableFuture<String> first = accumulator.submit(step("ted-1", StepType.TED));
+        CompletableFuture<String> second = accumulator.submit(step("ted-2", StepType.TED));
+
+        // Assert
+        assertThat(first.get(2, TimeUnit.SECONDS)).isEqualTo("ext-ted-1");
+        assertThat(second.get(2, TimeUnit.SECONDS)).isEqualTo("ext-ted-2");
+        verify(orchestrator, times(1)).processBatch(eq(StepType.TED), argThat(steps -> steps.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Deve gravar como FAILED, sem retentativa, o step recusado em definitivo pelo gateway")
+    void submitAll_whenGatewayRejectsItem_shouldSettleItAsFailed() {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 2, 60_000);
+        when(orchestrator.processBatch(eq(StepType.PIX), anyList())).thenReturn(List.of(
+                new ExternalRequestResponse("pix-1", "ext-pix-1", StepStatus.PROCESSING, null),
+                new ExternalRequestResponse("pix-2", null, StepStatus.FAILED, "chave PIX inválida")));
+        DisbursementStep rejected = step("pix-2", StepType.PIX);
+
+        // Act
+        Map<String, Throwable> failures = accumulator.submitAll(List.of(step("pix-1", StepType.PIX), rejected));
+
+        // Assert
+        assertThat(failures).isEmpty();
+        verify(notificationService).processRejection(rejected, "chave PIX inválida");
+        verify(stepRepository).updateExternalIds(eq(Map.of("pix-1", "ext-pix-1")), any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar para retentativa o step sem resultado conhecido na resposta do lote")
+    void submitAll_whenItemHasNoResult_shouldReportOnlyThatStep() {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 2, 60_000);
+        when(orchestrator.processBatch(eq(StepType.PIX), anyList())).thenReturn(List.of(
+                new ExternalRequestResponse("pix-1", "ext-pix-1", StepStatus.PROCESSING, null)));
+
+        // Act
+        Map<String, Throwable> failures = accumulator.submitAll(List.of(step("pix-1", StepType.PIX), step("pix-2", StepType.PIX)));
+
+        // Assert
+        assertThat(failures).containsOnlyKeys("pix-2");
+        assertThat(failures.get("pix-2")).isInstanceOf(DisbursementProcessingException.class);
+        verify(notificationService, never()).processRejection(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar para retentativa o step recusado quando a gravação do FAILED falha")
+    void submitAll_whenRejectionCannotBeStored_shouldReportStep() {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 1, 60_000);
+        when(orchestrator.processBatch(eq(StepType.PIX), anyList())).thenReturn(List.of(
+                new ExternalRequestResponse("pix-1", null, StepStatus.FAILED, "chave PIX inválida")));
+        doThrow(new IllegalStateException("banco indisponível")).when(notificationService).processRejection(any(), any());
+
+        // Act
+        Map<String, Throwable> failures = accumulator.submitAll(List.of(step("pix-1", StepType.PIX)));
+
+        // Assert
+        assertThat(failures).containsOnlyKeys("pix-1");
+    }
+
+    @Test
+    @DisplayName("Deve falhar todos os steps do lote quando a chamada ao gateway falha")
+    void submitAll_whenGatewayFails_shouldFailWholeBatch() {
+        // Arrange
+        accumulator = new ChannelBatchAccumulator(orchestrator, stepRepository, notificationService, Runnable::run, 2, 60_000);
+        when(orchestrator.processBatch(eq(StepType.PIX), anyList()))
+                .thenThrow(new DisbursementProcessingException("503", "Gateway PIX indisponível"));
+
+        // Act
+        Map<String, Throwable> failures = accumulator.submitAll(List.of(step("pix-1", StepType.PIX), step("pix-2", StepType.PIX)));
+
+        // Assert
+        assertThat(failures).containsOnlyKeys("pix-1", "pix-2");
+    }
+
+    private static List<ExternalRequestResponse> accepted(List<DisbursementStep> steps) {
+        return steps.stream()
+                .map(step -> new ExternalRequestResponse(step.getId(), "ext-" + step.getId(), StepStatus.PROCESSING, null))
+                .toList();
+    }
+
+    private static DisbursementStep step(String id, StepType type) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        step.setType(type);
+        step.setStatus(StepStatus.PROCESSING);
+        return step;
+    }
+}
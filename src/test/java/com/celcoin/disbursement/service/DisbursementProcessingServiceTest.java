@@ -1,18 +1,23 @@
 package com.celcoin.disbursement.service;
 
 import com.celcoin.disbursement.exception.ResourceNotFoundException;
+import com.celcoin.disbursement.metrics.DisbursementMetrics;
+import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.utils.StepStatus;
 import com.celcoin.disbursement.repository.DisbursementStepRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -25,9 +30,20 @@ class DisbursementProcessingServiceTest {
     @Mock
     private DisbursementOrchestrator orchestrator;
 
-    @InjectMocks
+    @Mock
+    private DisbursementMetrics metrics;
+
+    @Mock
+    private BatchSummaryTracker summaryTracker;
+
     private DisbursementProcessingService processingService;
 
+    @BeforeEach
+    void setUp() {
+        processingService = new DisbursementProcessingService(stepRepository, orchestrator, metrics, summaryTracker,
+                TransactionOperations.withoutTransaction());
+    }
+
     @Test
     void execute_whenStepIsPending_shouldChangeStatusAndCallOrchestrator() {
         // Arrange
@@ -36,7 +52,7 @@ class DisbursementProcessingServiceTest {
         pendingStep.setId(stepId);
         pendingStep.setStatus(StepStatus.PENDING);
 
-        when(stepRepository.findById(stepId)).thenReturn(Optional.of(pendingStep));
+        when(stepRepository.findAllWithBatchByIdIn(List.of(stepId))).thenReturn(List.of(pendingStep));
 
         // Act
         processingService.execute(stepId);
@@ -44,7 +60,44 @@ class DisbursementProcessingServiceTest {
         // Assert
         verify(stepRepository).save(pendingStep);
         verify(orchestrator).process(pendingStep);
+        verify(summaryTracker).recordTransition(pendingStep, StepStatus.PENDING, StepStatus.PROCESSING);
         assert pendingStep.getStatus() == StepStatus.PROCESSING;
+        assert pendingStep.getProcessingAt() != null;
+    }
+
+    @Test
+    void execute_whenDispatchFails_shouldReleaseStepOutsideTheClaim() {
+        // Arrange
+        String stepId = UUID.randomUUID().toString();
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").build();
+        DisbursementStep pendingStep = DisbursementStep.builder().id(stepId).batch(batch).status(StepStatus.PENDING).build();
+
+        when(stepRepository.findAllWithBatchByIdIn(List.of(stepId))).thenReturn(List.of(pendingStep));
+        doThrow(new IllegalStateException("gateway indisponível")).when(orchestrator).process(pendingStep);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> processingService.execute(stepId));
+        verify(stepRepository).updateStatus(eq(List.of(stepId)), eq(StepStatus.PROCESSING), eq(StepStatus.PENDING), any(LocalDateTime.class));
+        verify(summaryTracker).recordTransitions(List.of(pendingStep), StepStatus.PROCESSING, StepStatus.PENDING);
+    }
+
+    @Test
+    void claimAll_whenStepIsClaimedConcurrently_shouldReturnOnlyUpdatedSteps() {
+        // Arrange
+        DisbursementBatch batch = DisbursementBatch.builder().id("batch-1").build();
+        DisbursementStep step1 = DisbursementStep.builder().id("step-1").batch(batch).status(StepStatus.PENDING).build();
+        DisbursementStep step2 = DisbursementStep.builder().id("step-2").batch(batch).status(StepStatus.PENDING).build();
+
+        when(stepRepository.findAllWithBatchByIdIn(List.of("step-1", "step-2"))).thenReturn(List.of(step1, step2));
+        when(stepRepository.claimPending(eq(List.of("step-1", "step-2")), any(LocalDateTime.class))).thenReturn(List.of("step-1"));
+
+        // Act
+        List<DisbursementStep> claimed = processingService.claimAll(List.of("step-1", "step-2"));
+
+        // Assert
+        assertThat(claimed).containsExactly(step1);
+        assertThat(step2.getStatus()).isEqualTo(StepStatus.PENDING);
+        verify(summaryTracker).recordTransitions(List.of(step1), StepStatus.PENDING, StepStatus.PROCESSING);
     }
 
     @Test
@@ -55,7 +108,7 @@ class DisbursementProcessingServiceTest {
         successStep.setId(stepId);
         successStep.setStatus(StepStatus.SUCCESS);
 
-        when(stepRepository.findById(stepId)).thenReturn(Optional.of(successStep));
+        when(stepRepository.findAllWithBatchByIdIn(List.of(stepId))).thenReturn(List.of(successStep));
 
         // Act
         processingService.execute(stepId);
@@ -70,7 +123,7 @@ class DisbursementProcessingServiceTest {
     void execute_whenStepNotFound_shouldThrowResourceNotFoundException() {
         // Arrange
         String stepId = UUID.randomUUID().toString();
-        when(stepRepository.findById(stepId)).thenReturn(Optional.empty());
+        when(stepRepository.findAllWithBatchByIdIn(List.of(stepId))).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
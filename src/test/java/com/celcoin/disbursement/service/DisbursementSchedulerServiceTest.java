@@ -1,12 +1,14 @@
 package com.celcoin.disbursement.service;
 
 import com.celcoin.disbursement.gateway.EventPublisher;
+import com.celcoin.disbursement.gateway.PartitionKeyStrategy;
 import com.celcoin.disbursement.model.entity.DisbursementBatch;
 import com.celcoin.disbursement.model.entity.DisbursementStep;
 import com.celcoin.disbursement.model.event.DisbursementRequestEvent;
+import com.celcoin.disbursement.model.event.OutboundEvent;
+import com.celcoin.disbursement.model.event.PublishReport;
 import com.celcoin.disbursement.model.utils.BatchStatus;
 import com.celcoin.disbursement.model.utils.Recurrency;
-import com.celcoin.disbursement.model.utils.ScheduleType;
 import com.celcoin.disbursement.model.utils.StepType;
 import com.celcoin.disbursement.repository.DisbursementBatchRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,20 +16,25 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +42,9 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class DisbursementSchedulerServiceTest {
 
+    private static final int CHUNK_SIZE = 10;
+    private static final Duration LEASE = Duration.ofSeconds(50);
+
     @Mock
     private DisbursementBatchRepository batchRepository;
 
@@ -47,20 +57,28 @@ class DisbursementSchedulerServiceTest {
     @Mock
     private Clock clock;
 
-    @InjectMocks
+    @Mock
+    private BatchCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private BatchProgressNotifier progressNotifier;
+
     private DisbursementSchedulerService schedulerService;
 
+    private final List<DisbursementBatch> batches = new ArrayList<>();
     private DisbursementBatch scheduledBatch;
     private DisbursementBatch recurringMonthlyBatch;
 
     @BeforeEach
     void setUp() {
         when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        schedulerService = scheduler(1, CHUNK_SIZE);
 
         DisbursementStep scheduledStep = new DisbursementStep();
         scheduledStep.setType(StepType.TED);
         scheduledBatch = new DisbursementBatch();
         scheduledBatch.setId("batch-scheduled-01");
+        scheduledBatch.setStatus(BatchStatus.NOT_EXECUTED);
         scheduledBatch.setSteps(List.of(scheduledStep));
 
         DisbursementStep recurringStep = new DisbursementStep();
@@ -70,6 +88,19 @@ class DisbursementSchedulerServiceTest {
         recurringMonthlyBatch.setRecurrency(Recurrency.MONTHLY);
         recurringMonthlyBatch.setScheduleDate(LocalDateTime.of(2025, 10, 15, 10, 0));
         recurringMonthlyBatch.setSteps(List.of(recurringStep));
+
+        // Cada lote reivindicado é recarregado na sua própria transação
+        lenient().when(batchRepository.findById(anyString()))
+                .thenAnswer(invocation -> batches.stream().filter(batch -> batch.getId().equals(invocation.getArgument(0))).findFirst());
+        batches.add(scheduledBatch);
+        batches.add(recurringMonthlyBatch);
+    }
+
+    // Transações e workers no thread do teste: os blocos rodam em sequência, na ordem dos workers
+    private DisbursementSchedulerService scheduler(int workers, int chunkSize) {
+        return new DisbursementSchedulerService(batchRepository, eventPublisher, idempotencyService, cacheInvalidator,
+                progressNotifier, TransactionOperations.withoutTransaction(), Runnable::run, clock, workers, chunkSize, LEASE,
+                PartitionKeyStrategy.BATCH);
     }
 
     private void setFixedTime(LocalDateTime dateTime) {
@@ -82,10 +113,8 @@ class DisbursementSchedulerServiceTest {
         // Arrange
         setFixedTime(LocalDateTime.of(2025, 10, 15, 17, 0, 0));
 
-        when(batchRepository.findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(
-                eq(BatchStatus.NOT_EXECUTED), eq(ScheduleType.SCHEDULED), any(LocalDateTime.class)))
-                .thenReturn(List.of(scheduledBatch));
-        when(batchRepository.findByStatusAndScheduleType(any(), any())).thenReturn(Collections.emptyList());
+        when(batchRepository.lockDueScheduled(any(LocalDateTime.class), eq(CHUNK_SIZE))).thenReturn(List.of(scheduledBatch));
+        when(eventPublisher.publishAll(anyList())).thenReturn(PublishReport.success(1));
 
         // Act
         schedulerService.triggerEligibleBatches();
@@ -97,9 +126,13 @@ class DisbursementSchedulerServiceTest {
         // Verifica o estado do objeto capturado
         DisbursementBatch capturedBatch = batchCaptor.getValue();
         assertThat(capturedBatch.getStatus()).isEqualTo(BatchStatus.PROCESSING);
+        verify(cacheInvalidator).invalidate(capturedBatch);
+        verify(progressNotifier).batchChanged(capturedBatch);
 
         // Verifica se o evento foi publicado
-        verify(eventPublisher).publish(eq(com.celcoin.disbursement.config.KafkaTopicConfig.TED_REQUEST_TOPIC), any(DisbursementRequestEvent.class));
+        assertPublishedTo(com.celcoin.disbursement.config.KafkaTopicConfig.TED_REQUEST_TOPIC);
+        verify(batchRepository).extendSchedulerLease(List.of("batch-scheduled-01"),
+                LocalDateTime.of(2025, 10, 15, 17, 0, 0).plus(LEASE));
     }
 
     @Test
@@ -108,20 +141,21 @@ class DisbursementSchedulerServiceTest {
         // Arrange
         setFixedTime(LocalDateTime.of(2025, 10, 15, 11, 0, 0));
 
-        when(batchRepository.findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-        when(batchRepository.findByStatusAndScheduleType(BatchStatus.RECURRENT, ScheduleType.RECURRENT))
+        when(batchRepository.lockRecurrentWithoutLease(any(LocalDateTime.class), eq(CHUNK_SIZE)))
                 .thenReturn(List.of(recurringMonthlyBatch));
 
         String expectedIdempotencyKey = "batch-recurring-01_2025_10";
-        when(idempotencyService.isDuplicate(expectedIdempotencyKey, "RECURRENT_SCHEDULER")).thenReturn(false);
+        when(idempotencyService.claim(expectedIdempotencyKey, "RECURRENT_SCHEDULER")).thenReturn(true);
+        when(eventPublisher.publishAll(anyList())).thenReturn(PublishReport.success(1));
 
         // Act
         schedulerService.triggerEligibleBatches();
 
         // Assert
-        verify(eventPublisher).publish(eq(com.celcoin.disbursement.config.KafkaTopicConfig.PIX_REQUEST_TOPIC), any(DisbursementRequestEvent.class));
+        assertPublishedTo(com.celcoin.disbursement.config.KafkaTopicConfig.PIX_REQUEST_TOPIC);
         verify(batchRepository, never()).save(recurringMonthlyBatch);
+        verify(batchRepository).extendSchedulerLease(List.of("batch-recurring-01"),
+                LocalDateTime.of(2025, 10, 15, 11, 0, 0).plus(LEASE));
     }
 
     @Test
@@ -130,19 +164,17 @@ class DisbursementSchedulerServiceTest {
         // Arrange
         setFixedTime(LocalDateTime.of(2025, 10, 15, 11, 0, 0));
 
-        when(batchRepository.findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-        when(batchRepository.findByStatusAndScheduleType(BatchStatus.RECURRENT, ScheduleType.RECURRENT))
+        when(batchRepository.lockRecurrentWithoutLease(any(LocalDateTime.class), eq(CHUNK_SIZE)))
                 .thenReturn(List.of(recurringMonthlyBatch));
 
         String expectedIdempotencyKey = "batch-recurring-01_2025_10";
-        when(idempotencyService.isDuplicate(expectedIdempotencyKey, "RECURRENT_SCHEDULER")).thenReturn(true);
+        when(idempotencyService.claim(expectedIdempotencyKey, "RECURRENT_SCHEDULER")).thenReturn(false);
 
         // Act
         schedulerService.triggerEligibleBatches();
 
         // Assert
-        verify(eventPublisher, never()).publish(anyString(), any());
+        verify(eventPublisher, never()).publishAll(anyList());
     }
 
     @Test
@@ -151,16 +183,112 @@ class DisbursementSchedulerServiceTest {
         // Arrange
         setFixedTime(LocalDateTime.of(2025, 10, 14, 11, 0, 0));
 
-        when(batchRepository.findByStatusAndScheduleTypeAndScheduleDateLessThanEqual(any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-        when(batchRepository.findByStatusAndScheduleType(BatchStatus.RECURRENT, ScheduleType.RECURRENT))
+        when(batchRepository.lockRecurrentWithoutLease(any(LocalDateTime.class), eq(CHUNK_SIZE)))
                 .thenReturn(List.of(recurringMonthlyBatch));
 
         // Act
         schedulerService.triggerEligibleBatches();
 
         // Assert
-        verify(idempotencyService, never()).isDuplicate(anyString(), anyString());
-        verify(eventPublisher, never()).publish(anyString(), any());
+        verify(idempotencyService, never()).claim(anyString(), anyString());
+        verify(eventPublisher, never()).publishAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reivindicar blocos até receber um bloco incompleto, dividindo os lotes entre os workers")
+    void triggerEligibleBatches_shouldDrainChunksAcrossWorkers() {
+        // Arrange
+        setFixedTime(LocalDateTime.of(2025, 10, 15, 17, 0, 0));
+        schedulerService = scheduler(2, 1);
+
+        DisbursementBatch otherBatch = scheduledBatch("batch-scheduled-02");
+        when(batchRepository.lockDueScheduled(any(LocalDateTime.class), eq(1)))
+                .thenReturn(List.of(scheduledBatch), List.of(otherBatch), List.of());
+        when(eventPublisher.publishAll(anyList())).thenReturn(PublishReport.success(1));
+
+        // Act
+        schedulerService.triggerEligibleBatches();
+
+        // Assert
+        verify(batchRepository, times(2)).save(any(DisbursementBatch.class));
+        verify(eventPublisher, times(2)).publishAll(anyList());
+        // Primeiro worker: dois blocos cheios e um vazio; segundo worker: um bloco vazio
+        verify(batchRepository, times(4)).lockDueScheduled(any(LocalDateTime.class), eq(1));
+    }
+
+    @Test
+    @DisplayName("Falha em um bloco não deve interromper o scheduler nem os blocos de recorrentes")
+    void triggerEligibleBatches_whenChunkFails_shouldKeepRunning() {
+        // Arrange
+        setFixedTime(LocalDateTime.of(2025, 10, 15, 17, 0, 0));
+        when(batchRepository.lockDueScheduled(any(LocalDateTime.class), eq(CHUNK_SIZE))).thenReturn(List.of(scheduledBatch));
+        when(eventPublisher.publishAll(anyList())).thenReturn(new PublishReport(1,
+                List.of(new PublishReport.PublishFailure(0, null, "broker indisponível"))));
+
+        // Act & Assert
+        assertThatCode(() -> schedulerService.triggerEligibleBatches()).doesNotThrowAnyException();
+        verify(batchRepository).lockRecurrentWithoutLease(any(LocalDateTime.class), eq(CHUNK_SIZE));
+    }
+
+    @Test
+    @DisplayName("Falha em um lote não deve impedir os demais lotes do mesmo bloco")
+    void triggerEligibleBatches_whenOneBatchFails_shouldProcessOthersInChunk() {
+        // Arrange
+        setFixedTime(LocalDateTime.of(2025, 10, 15, 17, 0, 0));
+        DisbursementBatch failing = scheduledBatch("batch-scheduled-02");
+        DisbursementBatch last = scheduledBatch("batch-scheduled-03");
+        when(batchRepository.lockDueScheduled(any(LocalDateTime.class), eq(CHUNK_SIZE))).thenReturn(List.of(scheduledBatch, failing, last));
+        when(eventPublisher.publishAll(anyList())).thenReturn(
+                PublishReport.success(1),
+                new PublishReport(1, List.of(new PublishReport.PublishFailure(0, null, "broker indisponível"))),
+                PublishReport.success(1));
+
+        // Act
+        schedulerService.triggerEligibleBatches();
+
+        // Assert
+        verify(eventPublisher, times(3)).publishAll(anyList());
+        verify(progressNotifier).batchChanged(scheduledBatch);
+        verify(progressNotifier).batchChanged(last);
+        assertThat(last.getStatus()).isEqualTo(BatchStatus.PROCESSING);
+        // O lease de todo o bloco é gravado antes do processamento: o lote com falha só volta quando ele expira
+        verify(batchRepository).extendSchedulerLease(List.of("batch-scheduled-01", "batch-scheduled-02", "batch-scheduled-03"),
+                LocalDateTime.of(2025, 10, 15, 17, 0, 0).plus(LEASE));
+    }
+
+    @Test
+    @DisplayName("NÃO deve disparar um lote agendado que mudou de status depois da reivindicação")
+    void triggerEligibleBatches_whenBatchNoLongerPending_shouldSkip() {
+        // Arrange
+        setFixedTime(LocalDateTime.of(2025, 10, 15, 17, 0, 0));
+        when(batchRepository.lockDueScheduled(any(LocalDateTime.class), eq(CHUNK_SIZE))).thenReturn(List.of(scheduledBatch));
+        scheduledBatch.setStatus(BatchStatus.PROCESSING);
+
+        // Act
+        schedulerService.triggerEligibleBatches();
+
+        // Assert
+        verify(eventPublisher, never()).publishAll(anyList());
+        verify(batchRepository, never()).save(any(DisbursementBatch.class));
+    }
+
+    private DisbursementBatch scheduledBatch(String id) {
+        DisbursementBatch batch = new DisbursementBatch();
+        batch.setId(id);
+        batch.setStatus(BatchStatus.NOT_EXECUTED);
+        batch.setSteps(scheduledBatch.getSteps());
+        batches.add(batch);
+        return batch;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertPublishedTo(String expectedTopic) {
+        ArgumentCaptor<List<OutboundEvent>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(eventsCaptor.capture());
+
+        assertThat(eventsCaptor.getValue()).hasSize(1);
+        OutboundEvent published = eventsCaptor.getValue().getFirst();
+        assertThat(published.topic()).isEqualTo(expectedTopic);
+        assertThat(published.payload()).isInstanceOf(DisbursementRequestEvent.class);
     }
 }
@@ -0,0 +1,108 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String GROUP_ID = "disbursement-processor";
+
+    @Mock
+    private ProcessedEventRepository eventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(eventRepository, transactionManager, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Deve reivindicar com um único comando e responder a reentrega pelo cache")
+    void claim_whenRedelivered_shouldAnswerFromCache() {
+        // Arrange
+        when(eventRepository.claim(eq("event-1"), eq(GROUP_ID), any(LocalDateTime.class))).thenReturn(true);
+
+        // Act
+        boolean first = idempotencyService.claim("event-1", GROUP_ID);
+        boolean second = idempotencyService.claim("event-1", GROUP_ID);
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(eventRepository, times(1)).claim(eq("event-1"), eq(GROUP_ID), any(LocalDateTime.class));
+        verifyNoMoreInteractions(eventRepository);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o evento quando outro consumidor já o reivindicou")
+    void claim_whenAlreadyPersisted_shouldReturnFalse() {
+        // Arrange
+        when(eventRepository.claim(eq("event-2"), eq(GROUP_ID), any(LocalDateTime.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThat(idempotencyService.claim("event-2", GROUP_ID)).isFalse();
+        assertThat(idempotencyService.claim("event-2", GROUP_ID)).isFalse();
+        verify(eventRepository, times(1)).claim(eq("event-2"), eq(GROUP_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Deve reivindicar o lote com um único insert, ignorando os já processados")
+    void filterDuplicates_shouldClaimOnlyNewEvents() {
+        // Arrange
+        when(eventRepository.findExistingIds(anyCollection())).thenReturn(List.of("event-4"));
+        when(eventRepository.claimAll(anyCollection(), eq(GROUP_ID), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        Set<String> claimed = idempotencyService.filterDuplicates(List.of("event-4", "event-5"), GROUP_ID);
+
+        // Assert
+        assertThat(claimed).containsExactly("event-5");
+        verify(eventRepository).claimAll(eq(Set.of("event-5")), eq(GROUP_ID), any(LocalDateTime.class));
+        verify(eventRepository, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o evento para uma nova entrega")
+    void release_shouldEvictFromCache() {
+        // Arrange
+        when(eventRepository.claim(eq("event-3"), eq(GROUP_ID), any(LocalDateTime.class))).thenReturn(true);
+        idempotencyService.claim("event-3", GROUP_ID);
+
+        // Act
+        idempotencyService.release(List.of("event-3"));
+
+        // Assert
+        assertThat(idempotencyService.claim("event-3", GROUP_ID)).isTrue();
+        verify(eventRepository).deleteAllByIdInBatch(List.of("event-3"));
+    }
+}
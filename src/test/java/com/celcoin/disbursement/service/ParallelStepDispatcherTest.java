@@ -0,0 +1,95 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.exception.DisbursementProcessingException;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.celcoin.disbursement.model.utils.StepType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelStepDispatcherTest {
+
+    @Mock
+    private DisbursementProcessingService processingService;
+
+    private ExecutorService executor;
+    private ParallelStepDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        dispatcher = new ParallelStepDispatcher(processingService, executor, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de envios simultâneos por canal")
+    void dispatchAll_shouldCapConcurrencyPerChannel() {
+        // Arrange
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return null;
+        }).when(processingService).dispatch(any());
+        List<DisbursementStep> steps = IntStream.range(0, 20).mapToObj(i -> step("ted-" + i, StepType.TED)).toList();
+
+        // Act
+        Map<String, Throwable> failures = dispatcher.dispatchAll(steps);
+
+        // Assert
+        assertThat(failures).isEmpty();
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve aguardar todos os envios e devolver as falhas por stepId")
+    void dispatchAll_shouldCollectFailures() {
+        // Arrange
+        DisbursementStep ok = step("pix-1", StepType.PIX);
+        DisbursementStep failing = step("pix-2", StepType.PIX);
+        DisbursementProcessingException error = new DisbursementProcessingException("503", "canal indisponível");
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == failing) {
+                throw error;
+            }
+            return null;
+        }).when(processingService).dispatch(any());
+
+        // Act
+        Map<String, Throwable> failures = dispatcher.dispatchAll(List.of(ok, failing));
+
+        // Assert
+        assertThat(failures).containsOnlyKeys("pix-2");
+        assertThat(failures.get("pix-2")).isSameAs(error);
+    }
+
+    private DisbursementStep step(String id, StepType type) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        step.setType(type);
+        return step;
+    }
+}
@@ -0,0 +1,72 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.TableSize;
+import com.celcoin.disbursement.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedEventRetentionServiceTest {
+
+    @Mock
+    private ProcessedEventRepository eventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessedEventRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retentionService = new ProcessedEventRetentionService(eventRepository, meterRegistry, Duration.ofDays(7), 100, 10, 0);
+    }
+
+    @Test
+    @DisplayName("Deve apagar em blocos até encontrar um bloco incompleto e publicar as métricas")
+    void purgeExpired_shouldDeleteInChunksUntilDrained() {
+        // Arrange
+        when(eventRepository.deleteProcessedBefore(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 42);
+        when(eventRepository.estimateSize()).thenReturn(new TableSize(1_000, 65_536));
+
+        // Act
+        long purged = retentionService.purgeExpired();
+
+        // Assert
+        assertThat(purged).isEqualTo(242);
+        verify(eventRepository, times(3)).deleteProcessedBefore(
+                argThat(cutoff -> cutoff.isBefore(LocalDateTime.now().minusDays(6))), eq(100));
+        assertThat(meterRegistry.get("idempotency.retention.purged").counter().count()).isEqualTo(242.0);
+        assertThat(meterRegistry.get("idempotency.processed-events.rows").gauge().value()).isEqualTo(1_000.0);
+        assertThat(meterRegistry.get("idempotency.processed-events.size").gauge().value()).isEqualTo(65_536.0);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de blocos por execução")
+    void purgeExpired_shouldStopAtMaxChunksPerRun() {
+        // Arrange
+        when(eventRepository.deleteProcessedBefore(any(LocalDateTime.class), eq(100))).thenReturn(100);
+        when(eventRepository.estimateSize()).thenReturn(new TableSize(0, 0));
+
+        // Act
+        long purged = retentionService.purgeExpired();
+
+        // Assert
+        assertThat(purged).isEqualTo(1_000);
+        verify(eventRepository, times(10)).deleteProcessedBefore(any(LocalDateTime.class), eq(100));
+    }
+}
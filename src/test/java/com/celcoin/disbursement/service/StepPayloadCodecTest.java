@@ -0,0 +1,71 @@
+package com.celcoin.disbursement.service;
+
+import com.celcoin.disbursement.model.dto.CreditParty;
+import com.celcoin.disbursement.model.dto.DisbursementStepRequest;
+import com.celcoin.disbursement.model.entity.DisbursementStep;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StepPayloadCodecTest {
+
+    private final StepPayloadCodec codec = new StepPayloadCodec(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Deve converter o payload uma única vez e reutilizar nas retentativas")
+    void decode_whenCalledAgain_shouldReuseParsedPayload() throws Exception {
+        // Arrange
+        DisbursementStepRequest request = request();
+        DisbursementStep step = step("step-1", codec.encode(request));
+
+        // Act
+        DisbursementStepRequest first = codec.decode(step);
+        step.setPayload("{inválido");
+        DisbursementStepRequest retry = codec.decode(step);
+
+        // Assert
+        assertThat(first).isEqualTo(request);
+        assertThat(retry).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Deve usar o payload pré-carregado na criação sem ler o JSON")
+    void decode_whenPrimed_shouldNotParse() throws Exception {
+        // Arrange
+        DisbursementStepRequest request = request();
+        codec.prime("step-2", request);
+
+        // Act
+        DisbursementStepRequest decoded = codec.decode(step("step-2", null));
+
+        // Assert
+        assertThat(decoded).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("Deve falhar com payload inválido")
+    void decode_whenPayloadInvalid_shouldThrow() {
+        // Act & Assert
+        assertThrows(JsonProcessingException.class, () -> codec.decode(step("step-3", "{inválido")));
+    }
+
+    private static DisbursementStepRequest request() {
+        return new DisbursementStepRequest(new BigDecimal("10.00"),
+                CreditParty.builder().name("Receiver").taxId("11122233344").build(), "MANUAL");
+    }
+
+    private static DisbursementStep step(String id, String payload) {
+        DisbursementStep step = new DisbursementStep();
+        step.setId(id);
+        step.setPayload(payload);
+        return step;
+    }
+}
@@ -0,0 +1,127 @@
+package com.celcoin.disbursement.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway PIX/TED falso para testes e testes de carga: responde {@code POST /pix/payments} e {@code POST /ted/transfers}
+ * com um externalId aleatório, após uma latência configurável e com uma taxa de erro (HTTP 503) opcional.
+ * Os envios em lote ({@code /pix/payments/batch}, {@code /ted/transfers/batch}) recebem um externalId por item.
+ * <p>
+ * Execução isolada: {@code java ChannelStubServer [porta] [latênciaMs] [taxaDeErro]}, e aponte
+ * {@code disbursement.channel.pix.base-url} / {@code disbursement.channel.ted.base-url} para {@code http://localhost:porta}.
+ */
+public class ChannelStubServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final long latencyMs;
+    private final double failureRate;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile String lastTraceId;
+    private volatile String lastRequestBody;
+
+    public ChannelStubServer(int port, long latencyMs, double failureRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/pix/payments", this::handle);
+        this.server.createContext("/ted/transfers", this::handle);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /** Header {@code X-Trace-Id} da última requisição recebida ({@code null} se ausente). */
+    public String lastTraceId() {
+        return lastTraceId;
+    }
+
+    public String lastRequestBody() {
+        return lastRequestBody;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] requestBody;
+        try (InputStream body = exchange.getRequestBody()) {
+            requestBody = body.readAllBytes();
+        }
+        lastTraceId = exchange.getRequestHeaders().getFirst("X-Trace-Id");
+        lastRequestBody = new String(requestBody, StandardCharsets.UTF_8);
+
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{}");
+        } else if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            respond(exchange, 503, "{\"failureReason\":\"indisponível\"}");
+        } else if (exchange.getRequestURI().getPath().endsWith("/batch")) {
+            respond(exchange, 200, batchResponse(requestBody));
+        } else {
+            respond(exchange, 200, "{\"externalId\":\"" + UUID.randomUUID() + "\",\"status\":\"PROCESSING\"}");
+        }
+    }
+
+    private static String batchResponse(byte[] requestBody) throws IOException {
+        ArrayNode responses = MAPPER.createArrayNode();
+        for (JsonNode item : MAPPER.readTree(requestBody)) {
+            responses.addObject()
+                    .put("clientRequestId", item.path("stepId").asText())
+                    .put("externalId", UUID.randomUUID().toString())
+                    .put("status", "PROCESSING");
+        }
+        return MAPPER.writeValueAsString(responses);
+    }
+
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.0;
+
+        ChannelStubServer stub = new ChannelStubServer(port, latencyMs, failureRate);
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.printf("Gateway falso PIX/TED em %s (latência %d ms, erro %.0f%%)%n", stub.baseUrl(), latencyMs, failureRate * 100);
+    }
+}